@@ -37,6 +37,10 @@ public interface Constants
     public static String JIRA_DOMAIN                                 = "http://atlassian.com/ns/cm#"; 
     public static String JIRA_NAMESPACE                              = "http://atlassian.com/ns/cm#";
     public static String JIRA_NAMESPACE_PREFIX                       = "jira";
+    public static String TRS_NAMESPACE                               = "http://open-services.net/ns/core/trs#";
+    public static String TRS_NAMESPACE_PREFIX                        = "trs";
+    public static String LDP_NAMESPACE                               = "http://www.w3.org/ns/ldp#";
+    public static String LDP_NAMESPACE_PREFIX                        = "ldp";
     
     public static String CHANGE_REQUEST              = "ChangeRequest";
     public static String TYPE_CHANGE_REQUEST         = CHANGE_MANAGEMENT_NAMESPACE + "ChangeRequest";
@@ -58,7 +62,42 @@ public interface Constants
     public static final String HDR_OSLC_VERSION = "OSLC-Core-Version";
     public static final String OSLC_VERSION_V2 = "2.0";
     
+    /** Header of the client preferences (RFC 7240), return=minimal means the response without the body */
+    public static final String HDR_PREFER = "Prefer";
+    public static final String HDR_PREFERENCE_APPLIED = "Preference-Applied";
+    public static final String PREFER_RETURN_MINIMAL = "return=minimal";
+    
+    /** Media type of the query result in OSLC RDF/JSON format which is streamed resource by resource */
+    public static final String APPLICATION_JSON_STREAM = "application/x-oslc-stream+json";
+    /** Media type of N-Triples, the line based RDF format with one triple per line */
+    public static final String APPLICATION_N_TRIPLES = "application/n-triples";
+    
     public static final String NEXT_PAGE = "jira.NextPage";
+    public static final String NEXT_PAGE_TOKEN = "jira.NextPageToken";
+    public static final String TOTAL_COUNT = "jira.TotalCount";
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 500;
+    
+    public static final long REPRESENTATION_CACHE_MAX_SIZE = 32L * 1024 * 1024;
+    public static final long REPRESENTATION_CACHE_MAX_ENTRY_SIZE = 1024L * 1024;
+    /** The time (in milliseconds) after which the cached representation expires. It bounds how long the changes without issue event (e.g. a moved linked issue) aren't visible. */
+    public static final long REPRESENTATION_CACHE_TTL = 60L * 1000;
+    /** The time (in milliseconds) after which the cached relevant custom fields expire. JIRA doesn't fire any event when the context of the custom field is edited. */
+    public static final long CUSTOM_FIELD_CACHE_TTL = 60L * 1000;
+    
+    /** The default number of the threads of the plugin which convert the issues to the change requests */
+    public static final int DEFAULT_WORKER_POOL_SIZE = 4;
+    /** The default number of the issues of one request which are converted at the same time. 1 means the issues are converted one by one. */
+    public static final int DEFAULT_REQUEST_PARALLELISM = 4;
+    /** The maximal number of the threads of the plugin and the maximal number of the issues of one request converted at the same time */
+    public static final int MAX_WORKER_POOL_SIZE = 32;
+    /** The default minimal size of the response (in bytes) which is compressed, the smaller responses are sent uncompressed */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+    
+    /** The number of members on the page of the Tracked Resource Set base and the number of changes on the page of the change log */
+    public static final int TRS_PAGE_SIZE = 500;
+    /** The number of the newest change events which are kept in the change log, the older ones are removed (rollover) */
+    public static final int TRS_CHANGE_LOG_MAX_SIZE = 100000;
     
     //Jira issue - OSLC types
     public static final String JIRA_TYPE_ASIGNEE            = Constants.JIRA_NAMESPACE + "assignee";
@@ -81,6 +120,16 @@ public interface Constants
     public static final String JIRA_TYPE_WATCHER            = Constants.JIRA_NAMESPACE + "watcher";
     public static final String JIRA_TYPE_CUSTOM_FIELD       = Constants.JIRA_NAMESPACE + "customField";
     public static final String JIRA_TYPE_HISTORY            = Constants.JIRA_NAMESPACE + "IssueHistory";
+    public static final String JIRA_TYPE_SUB_TASK           = Constants.JIRA_NAMESPACE + "subTask";
+    public static final String JIRA_TYPE_COMMENT            = Constants.JIRA_NAMESPACE + "issueComment";
+    public static final String JIRA_TYPE_WORKLOG            = Constants.JIRA_NAMESPACE + "issueWorklog";
+    public static final String JIRA_TYPE_COMMENTS           = Constants.JIRA_NAMESPACE + "IssueComments";
+    public static final String JIRA_TYPE_WORKLOGS           = Constants.JIRA_NAMESPACE + "IssueWorklogs";
+    public static final String JIRA_TYPE_COMMENT_COLLECTION = Constants.JIRA_NAMESPACE + "commentCollection";
+    public static final String JIRA_TYPE_WORKLOG_COLLECTION = Constants.JIRA_NAMESPACE + "worklogCollection";
+    public static final String JIRA_TYPE_FACETS             = Constants.JIRA_NAMESPACE + "IssueFacets";
+    public static final String JIRA_TYPE_INSIDE_LINK        = Constants.JIRA_NAMESPACE + "jiraInsideLink";
+    public static final String JIRA_TYPE_OUTSIDE_LINK       = Constants.JIRA_NAMESPACE + "jiraOutsideLink";
     
     //dcterms types
     public static final String DCTERMS_TITLE   = OslcConstants.DCTERMS_NAMESPACE + "title";
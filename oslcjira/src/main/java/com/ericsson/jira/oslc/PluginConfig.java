@@ -40,15 +40,24 @@ import com.ericsson.jira.oslc.resources.ao.AOManager;
  * in the list). If no project is set then all projects
  * will be visible from outside. The list contains the IDs of projects, not the names because the name can be changed
  * It's also possible to set the list of issue types. The rule is the same as for the projects.
+ * The number of the threads which convert the issues to the change requests (worker pool size) and the number
+ * of the issues of one request which are converted at the same time (request parallelism) can be set as well.
+ * The responses of REST services which are bigger than the compression threshold (in bytes) are compressed.
  *
  *
  */
 public class PluginConfig {
   private Set<Long> filteredProjects;
   private Set<Long> filteredTypes;
+  private int workerPoolSize;
+  private int requestParallelism;
+  private int compressionThreshold;
   private static PluginConfig instance;
   public static final String FILTERED_PROJECTS = "filteredProjects";
   public static final String FILTERED_TYPES = "filteredTypes";
+  public static final String WORKER_POOL_SIZE = "workerPoolSize";
+  public static final String REQUEST_PARALLELISM = "requestParallelism";
+  public static final String COMPRESSION_THRESHOLD = "compressionThreshold";
 
   public static PluginConfig getInstance() throws Exception {
     if (instance == null) {
@@ -73,6 +82,9 @@ public class PluginConfig {
   private PluginConfig(boolean loadConfig) throws Exception {
     filteredProjects = new HashSet<Long>();
     filteredTypes = new HashSet<Long>();
+    workerPoolSize = Constants.DEFAULT_WORKER_POOL_SIZE;
+    requestParallelism = Constants.DEFAULT_REQUEST_PARALLELISM;
+    compressionThreshold = Constants.DEFAULT_COMPRESSION_THRESHOLD;
      if(loadConfig){
        loadConfiguration();
      }
@@ -89,6 +101,10 @@ public class PluginConfig {
     if (configValues != null) {
       loadFilter(filteredProjects, configValues.get(FILTERED_PROJECTS));
       loadFilter(filteredTypes, configValues.get(FILTERED_TYPES));
+      //the values saved before the maximum was introduced are reduced to the maximum
+      workerPoolSize = Math.min(loadNumber(configValues.get(WORKER_POOL_SIZE), Constants.DEFAULT_WORKER_POOL_SIZE, Integer.MAX_VALUE), Constants.MAX_WORKER_POOL_SIZE);
+      requestParallelism = Math.min(loadNumber(configValues.get(REQUEST_PARALLELISM), Constants.DEFAULT_REQUEST_PARALLELISM, Integer.MAX_VALUE), Constants.MAX_WORKER_POOL_SIZE);
+      compressionThreshold = loadNumber(configValues.get(COMPRESSION_THRESHOLD), Constants.DEFAULT_COMPRESSION_THRESHOLD, Integer.MAX_VALUE);
     }else{
       filteredProjects.clear();
       filteredTypes.clear();
@@ -115,6 +131,51 @@ public class PluginConfig {
    }
   }
   
+  /**
+   * It sets the parallel conversion of the issues to the change requests
+   * @param inputWorkerPoolSize the number of the threads of the worker pool. If it's empty, the default value is used.
+   * @param inputRequestParallelism the number of the issues of one request which are converted at the same time. 
+   * If it's empty, the default value is used.
+   * @throws Exception
+   */
+  public void loadParallelism(String inputWorkerPoolSize, String inputRequestParallelism) throws Exception {
+    int poolSize = loadNumber(inputWorkerPoolSize, Constants.DEFAULT_WORKER_POOL_SIZE, Constants.MAX_WORKER_POOL_SIZE);
+    int parallelism = loadNumber(inputRequestParallelism, Constants.DEFAULT_REQUEST_PARALLELISM, Constants.MAX_WORKER_POOL_SIZE);
+    workerPoolSize = poolSize;
+    requestParallelism = parallelism;
+  }
+  
+  /**
+   * It sets the minimal size of the response which is compressed
+   * @param inputCompressionThreshold the size in bytes. If it's empty, the default value is used.
+   * @throws Exception
+   */
+  public void loadCompressionThreshold(String inputCompressionThreshold) throws Exception {
+    compressionThreshold = loadNumber(inputCompressionThreshold, Constants.DEFAULT_COMPRESSION_THRESHOLD, Integer.MAX_VALUE);
+  }
+  
+  /**
+   * Parses the positive number which isn't bigger than the maximum
+   * @param input the number as String
+   * @param defaultValue the value which is returned if the input is empty
+   * @param maxValue the maximal allowed value
+   * @return the number
+   * @throws NumberFormatException the input isn't the positive number or it's bigger than the maximum
+   */
+  private int loadNumber(String input, int defaultValue, int maxValue) {
+    if (input == null || input.trim().isEmpty()) {
+      return defaultValue;
+    }
+    int value = Integer.parseInt(input.trim());
+    if (value < 1) {
+      throw new NumberFormatException("The value " + input + " isn't a positive number.");
+    }
+    if (value > maxValue) {
+      throw new NumberFormatException("The value " + input + " is bigger than the maximum " + maxValue + ".");
+    }
+    return value;
+  }
+  
   /**
    * Parses the value of argument input containing the list of projects/issue types separated by comma.
    * The set of project/issue types saves to argument filter
@@ -150,6 +211,18 @@ public class PluginConfig {
   public void setFilteredTypes(Set<Long> filteredTypes) {
     this.filteredTypes = filteredTypes;
   }
+
+  public int getWorkerPoolSize() {
+    return workerPoolSize;
+  }
+
+  public int getRequestParallelism() {
+    return requestParallelism;
+  }
+  
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
   
   
 }
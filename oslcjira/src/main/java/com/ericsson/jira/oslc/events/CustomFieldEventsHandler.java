@@ -0,0 +1,101 @@
+package com.ericsson.jira.oslc.events;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.atlassian.event.api.EventListener;
+import com.atlassian.event.api.EventPublisher;
+import com.atlassian.jira.event.ClearCacheEvent;
+import com.atlassian.jira.event.issue.field.CustomFieldCreatedEvent;
+import com.atlassian.jira.event.issue.field.CustomFieldDeletedEvent;
+import com.atlassian.jira.event.issue.field.CustomFieldUpdatedEvent;
+import com.ericsson.jira.oslc.utils.CustomFieldCache;
+
+/**
+ * 
+ * A Listener which is called whenever the custom fields are created, updated or deleted.
+ * It clears the cache of the relevant custom fields. JIRA doesn't fire any event when the context 
+ * of the custom field is edited, these changes are picked up when the cached fields expire (see CustomFieldCache).
+ */
+public class CustomFieldEventsHandler implements InitializingBean, DisposableBean {
+  private static Logger logger = LoggerFactory.getLogger(CustomFieldEventsHandler.class);
+  private static final String CURRENT_CLASS = "CustomFieldEventsHandler";
+  private final EventPublisher eventPublisher;
+
+  /**
+   * Constructor.
+   * 
+   * @param eventPublisher injected {@code EventPublisher} implementation.
+   */
+  public CustomFieldEventsHandler(EventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    this.eventPublisher.unregister(this);
+  }
+
+  @Override
+  public void afterPropertiesSet() throws Exception {
+    this.eventPublisher.register(this);
+  }
+
+  @EventListener
+  public void onCustomFieldCreated(CustomFieldCreatedEvent event) {
+    logger.debug(CURRENT_CLASS + ".onCustomFieldCreated");
+    CustomFieldCache.getInstance().clear();
+  }
+
+  @EventListener
+  public void onCustomFieldUpdated(CustomFieldUpdatedEvent event) {
+    logger.debug(CURRENT_CLASS + ".onCustomFieldUpdated");
+    CustomFieldCache.getInstance().clear();
+  }
+
+  @EventListener
+  public void onCustomFieldDeleted(CustomFieldDeletedEvent event) {
+    logger.debug(CURRENT_CLASS + ".onCustomFieldDeleted");
+    CustomFieldCache.getInstance().clear();
+  }
+
+  /**
+   * JIRA fires the event when all its caches are flushed (e.g. the system administrator flushes the caches 
+   * or the data are imported). It isn't fired when the context of the custom field is edited.
+   * @param event ClearCacheEvent
+   */
+  @EventListener
+  public void onClearCache(ClearCacheEvent event) {
+    logger.debug(CURRENT_CLASS + ".onClearCache");
+    CustomFieldCache.getInstance().clear();
+  }
+}
@@ -50,11 +50,13 @@ import com.ericsson.eif.leansync.mapping.data.SyncField;
 import com.ericsson.eif.leansync.mapping.data.SyncMapping;
 import com.ericsson.eif.leansync.mapping.data.SyncTemplate;
 import com.ericsson.eif.leansync.mapping.data.SyncXmlFieldConfig;
+import com.ericsson.jira.oslc.managers.TrsManager;
 import com.ericsson.jira.oslc.sync.JiraObjectMapping;
 import com.ericsson.jira.oslc.sync.OutboundSyncUtils;
 import com.ericsson.jira.oslc.sync.SyncConfig;
 import com.ericsson.jira.oslc.sync.SyncUtils;
 import com.ericsson.jira.oslc.utils.ErrorSyncHandler;
+import com.ericsson.jira.oslc.utils.RepresentationCache;
 /**
  * 
  * A Listener which is called whenever events occur on JIRA issue
@@ -99,6 +101,10 @@ public class IssueEventsHandler implements InitializingBean, DisposableBean {
     
     logger.debug(CURRENT_CLASS + ".onIssueEvent: IssueEvent for issue "
           + issue.getKey());
+    
+    //the issue was changed or deleted, the cached representations are obsolete
+    RepresentationCache.getInstance().invalidate(issue.getId());
+    recordTrsChange(issue, issueEvent);
 
       
     try {
@@ -129,6 +135,9 @@ public class IssueEventsHandler implements InitializingBean, DisposableBean {
            + issue.getKey());
      }
      
+     RepresentationCache.getInstance().invalidate(issue.getId());
+     TrsManager.recordChange(issue, TrsManager.CHANGE_MODIFICATION);
+     
 
      Project project = issue.getProjectObject();
      try {
@@ -138,6 +147,49 @@ public class IssueEventsHandler implements InitializingBean, DisposableBean {
      }
    }
    
+  /**
+   * Records the change event of the issue to the change log of the Tracked Resource Set.
+   * The moved issue has new URI, so the deletion of the old URI and the creation of the new one are recorded.
+   * @param issue JIRA issue which fires a event
+   * @param issueEvent the event which was fired
+   */
+  private void recordTrsChange(Issue issue, IssueEvent issueEvent) {
+    Long eventTypeId = issueEvent.getEventTypeId();
+    
+    if (EventType.ISSUE_CREATED_ID.equals(eventTypeId)) {
+      TrsManager.recordChange(issue, TrsManager.CHANGE_CREATION);
+    } else if (EventType.ISSUE_DELETED_ID.equals(eventTypeId)) {
+      TrsManager.recordChange(issue, TrsManager.CHANGE_DELETION);
+    } else if (EventType.ISSUE_MOVED_ID.equals(eventTypeId)) {
+      String oldKey = null;
+      Long oldProjectId = null;
+      try {
+        GenericValue changeLog = issueEvent.getChangeLog();
+        List<GenericValue> changeItemList = (changeLog != null) ? changeLog.getRelated("ChildChangeItem") : null;
+        if (changeItemList != null) {
+          for (GenericValue changeItem : changeItemList) {
+            if ("Key".equals(changeItem.getString("field"))) {
+              oldKey = changeItem.getString("oldstring");
+            } else if ("project".equals(changeItem.getString("field")) && changeItem.getString("oldvalue") != null) {
+              oldProjectId = Long.valueOf(changeItem.getString("oldvalue"));
+            }
+          }
+        }
+      } catch (Exception e) {
+        logger.error(CURRENT_CLASS + ".recordTrsChange", e);
+      }
+      
+      if (oldKey != null) {
+        TrsManager.recordChange((oldProjectId != null) ? oldProjectId : issue.getProjectObject().getId(), issue.getId(), oldKey, TrsManager.CHANGE_DELETION);
+        TrsManager.recordChange(issue, TrsManager.CHANGE_CREATION);
+      } else {
+        TrsManager.recordChange(issue, TrsManager.CHANGE_MODIFICATION);
+      }
+    } else {
+      TrsManager.recordChange(issue, TrsManager.CHANGE_MODIFICATION);
+    }
+  }
+   
   /**
    * It update the JIRA snapshot in a remote resource 
    * @param issue JIRA issue which fires a event
@@ -28,14 +28,27 @@ package com.ericsson.jira.oslc.managers;
 */
 
 import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.ofbiz.core.entity.EntityCondition;
+import org.ofbiz.core.entity.EntityConditionList;
+import org.ofbiz.core.entity.EntityExpr;
+import org.ofbiz.core.entity.EntityFieldMap;
+import org.ofbiz.core.entity.EntityFindOptions;
+import org.ofbiz.core.entity.EntityOperator;
+import org.ofbiz.core.entity.GenericValue;
+
 import com.atlassian.crowd.embedded.api.User;
 import com.atlassian.jira.bc.project.component.ProjectComponent;
 import com.atlassian.jira.component.ComponentAccessor;
@@ -50,6 +63,7 @@ import com.atlassian.jira.issue.label.LabelManager;
 import com.atlassian.jira.issue.priority.Priority;
 import com.atlassian.jira.issue.resolution.Resolution;
 import com.atlassian.jira.issue.status.Status;
+import com.atlassian.jira.ofbiz.OfBizListIterator;
 import com.atlassian.jira.issue.vote.VoteManager;
 import com.atlassian.jira.issue.watchers.WatcherManager;
 import com.atlassian.jira.project.Project;
@@ -63,13 +77,25 @@ import com.ericsson.jira.oslc.PluginConfig;
 import com.ericsson.jira.oslc.exceptions.NoResourceException;
 import com.ericsson.jira.oslc.exceptions.PermissionException;
 import com.ericsson.jira.oslc.resources.JiraChangeRequest;
+import com.ericsson.jira.oslc.resources.JiraCommentsRequest;
 import com.ericsson.jira.oslc.resources.JiraHistoryRequest;
+import com.ericsson.jira.oslc.resources.JiraIssueComment;
+import com.ericsson.jira.oslc.resources.JiraIssueHistoryItem;
+import com.ericsson.jira.oslc.resources.JiraIssueWorklog;
+import com.ericsson.jira.oslc.resources.JiraWorklogsRequest;
+import com.ericsson.jira.oslc.utils.RequestContext;
+import com.ericsson.jira.oslc.utils.UserCache;
 
 /**
  * A class offering the methods for operations with JIRA field
  *
  */
 public class FieldManager {
+  private static final String ENTITY_CHANGE_GROUP = "ChangeGroup";
+  //the join of ChangeGroup and ChangeItem, the id of ChangeGroup is "changegroupid"
+  private static final String VIEW_CHANGE_GROUP_ITEM = "ChangeGroupChangeItemView";
+  private static final String ENTITY_COMMENT = "Action";
+  private static final String ENTITY_WORKLOG = "Worklog";
   
   /**
    * It returns the name of priority according to ID
@@ -209,12 +235,280 @@ public class FieldManager {
 
     PermissionManager.checkPermission(request, issue, Permissions.BROWSE);
 
+    return getHistoryOfIssue(issue);
+  }
+  
+  /**
+   * Gets the history of the issue. The permissions have to be checked by the caller.
+   * @param issue JIRA issue
+   * @return the history of the issue
+   */
+  public static JiraHistoryRequest getHistoryOfIssue(final Issue issue) {
     ChangeHistoryManager hMngr = ComponentAccessor.getChangeHistoryManager();
     JiraHistoryRequest history = new JiraHistoryRequest(hMngr.getChangeHistories(issue));
 
     return history;
   }
   
+  /**
+   * Gets the page of the history of the issue. The changes are filtered and limited by the database query,
+   * so only the changes on the page are loaded. If the fields are specified, only the changes with the items 
+   * of these fields are paged. The permissions have to be checked by the caller. If there is a next page, the id of the last change on the page is set to the history 
+   * ({@link JiraHistoryRequest#getPageEndChangeId()}).
+   * @param issue JIRA issue
+   * @param since only the changes created after this time are returned. It can be null.
+   * @param fields only the items of these fields are returned. It can be null.
+   * @param afterChangeId only the changes with bigger id are returned (the id of last change of the previous page). It can be null.
+   * @param limit the maximum number of the changes on the page
+   * @return the page of the history of the issue
+   */
+  public static JiraHistoryRequest getHistoryOfIssue(final Issue issue, final Date since, final Set<String> fields, 
+      final Long afterChangeId, final int limit) {
+    boolean filtered = fields != null && !fields.isEmpty();
+    //the changes are selected by the items of the fields, so the page contains only the changes with such items
+    String entityName = filtered ? VIEW_CHANGE_GROUP_ITEM : ENTITY_CHANGE_GROUP;
+    String idField = filtered ? "changegroupid" : "id";
+    
+    List<EntityCondition> conditions = new ArrayList<EntityCondition>();
+    conditions.add(new EntityExpr("issue", EntityOperator.EQUALS, issue.getId()));
+    if (since != null) {
+      conditions.add(new EntityExpr("created", EntityOperator.GREATER_THAN, new Timestamp(since.getTime())));
+    }
+    if (afterChangeId != null) {
+      conditions.add(new EntityExpr(idField, EntityOperator.GREATER_THAN, afterChangeId));
+    }
+    if (filtered) {
+      conditions.add(new EntityExpr("field", EntityOperator.IN, new ArrayList<String>(fields)));
+    }
+    
+    //one more change than the page to find out if there is a next page
+    List<GenericValue> changes = find(entityName, new EntityConditionList(conditions, EntityOperator.AND), 
+        Arrays.asList(idField, "created"), idField + " ASC", limit + 1, filtered);
+    JiraHistoryRequest history = new JiraHistoryRequest();
+    if (changes.size() > limit) {
+      changes = changes.subList(0, limit);
+      history.setPageEndChangeId(changes.get(limit - 1).getLong(idField));
+    }
+    if (changes.isEmpty()) {
+      return history;
+    }
+    
+    Map<Long, Timestamp> created = new HashMap<Long, Timestamp>();
+    for (GenericValue change : changes) {
+      created.put(change.getLong(idField), change.getTimestamp("created"));
+    }
+    
+    List<EntityCondition> itemConditions = new ArrayList<EntityCondition>();
+    itemConditions.add(new EntityExpr("group", EntityOperator.IN, new ArrayList<Long>(created.keySet())));
+    if (fields != null && !fields.isEmpty()) {
+      itemConditions.add(new EntityExpr("field", EntityOperator.IN, new ArrayList<String>(fields)));
+    }
+    List<GenericValue> items = ComponentAccessor.getOfBizDelegator().findByCondition("ChangeItem", 
+        new EntityConditionList(itemConditions, EntityOperator.AND), null, Arrays.asList("group", "id"));
+    
+    for (GenericValue item : items) {
+      JiraIssueHistoryItem historyItem = new JiraIssueHistoryItem();
+      historyItem.setHistoryItemCreated(created.get(item.getLong("group")));
+      historyItem.setHistoryItemField(item.getString("field"));
+      historyItem.setHistoryItemFieldType(item.getString("fieldtype"));
+      historyItem.setHistoryItemFrom(item.getString("oldvalue"));
+      historyItem.setHistoryItemFromString(item.getString("oldstring"));
+      historyItem.setHistoryItemTo(item.getString("newvalue"));
+      historyItem.setHistoryItemToString(item.getString("newstring"));
+      history.getIssueHistoryItems().add(historyItem);
+    }
+    return history;
+  }
+  
+  /**
+   * Gets the id of the latest change of the issue. Each change of the history has bigger id than the previous one,
+   * so the id identifies the state of the history.
+   * @param issue JIRA issue
+   * @return the id of the latest change or 0 if the issue hasn't any change
+   */
+  public static long getLatestChangeId(final Issue issue) {
+    List<GenericValue> changes = find(ENTITY_CHANGE_GROUP, new EntityExpr("issue", EntityOperator.EQUALS, issue.getId()), 
+        Arrays.asList("id", "created"), "id DESC", 1);
+    return changes.isEmpty() ? 0L : changes.get(0).getLong("id");
+  }
+  
+  /**
+   * Gets the page of the comments of the issue. The comments are sorted by the id (the order of the creation).
+   * If there is the next page, the id of the last comment on the page is set ({@link JiraCommentsRequest#getPageEndId()}).
+   * @param issue JIRA issue
+   * @param afterId only the comments with bigger id are returned (the id of last comment of the previous page). It can be null.
+   * @param limit the maximum number of the comments on the page
+   * @return the page of the comments of the issue
+   */
+  public static JiraCommentsRequest getCommentsOfIssue(final Issue issue, final Long afterId, final int limit) {
+    List<GenericValue> values = findPage(ENTITY_COMMENT, getCommentsCondition(issue), afterId, limit);
+    JiraCommentsRequest comments = new JiraCommentsRequest();
+    if (values.size() > limit) {
+      values = values.subList(0, limit);
+      comments.setPageEndId(values.get(limit - 1).getLong("id"));
+    }
+    
+    UserCache users = new UserCache(ComponentAccessor.getUserManager());
+    for (GenericValue value : values) {
+      comments.getIssueComments().add(new JiraIssueComment(value, users));
+    }
+    return comments;
+  }
+  
+  /**
+   * Gets the page of the worklogs of the issue. The worklogs are sorted by the id (the order of the creation).
+   * If there is the next page, the id of the last worklog on the page is set ({@link JiraWorklogsRequest#getPageEndId()}).
+   * @param issue JIRA issue
+   * @param afterId only the worklogs with bigger id are returned (the id of last worklog of the previous page). It can be null.
+   * @param limit the maximum number of the worklogs on the page
+   * @return the page of the worklogs of the issue
+   */
+  public static JiraWorklogsRequest getWorklogsOfIssue(final Issue issue, final Long afterId, final int limit) {
+    List<GenericValue> values = findPage(ENTITY_WORKLOG, new EntityExpr("issue", EntityOperator.EQUALS, issue.getId()), afterId, limit);
+    JiraWorklogsRequest worklogs = new JiraWorklogsRequest();
+    if (values.size() > limit) {
+      values = values.subList(0, limit);
+      worklogs.setPageEndId(values.get(limit - 1).getLong("id"));
+    }
+    
+    UserCache users = new UserCache(ComponentAccessor.getUserManager());
+    for (GenericValue value : values) {
+      worklogs.getIssueWorklogs().add(new JiraIssueWorklog(value, users));
+    }
+    return worklogs;
+  }
+  
+  /**
+   * Gets ETag of the comments of the issue. It's created from the number of the comments 
+   * and the time of the last update of a comment, so it's changed when a comment is added, updated or deleted.
+   * @param issue JIRA issue
+   * @return ETag of the comments
+   */
+  public static String getCommentsETag(final Issue issue) {
+    return getETag(ENTITY_COMMENT, getCommentsFields(issue));
+  }
+  
+  /**
+   * Gets ETag of the worklogs of the issue. It's created from the number of the worklogs 
+   * and the time of the last update of a worklog, so it's changed when a worklog is added, updated or deleted.
+   * @param issue JIRA issue
+   * @return ETag of the worklogs
+   */
+  public static String getWorklogsETag(final Issue issue) {
+    Map<String, Object> fields = new HashMap<String, Object>();
+    fields.put("issue", issue.getId());
+    return getETag(ENTITY_WORKLOG, fields);
+  }
+  
+  /**
+   * Gets ETag of the items of the issue (comments, worklogs) from their number and the time of their last update.
+   * The items aren't loaded, the number is counted by the database and only the last updated item is read.
+   * @param entityName the entity of the items
+   * @param fields the values of the fields of the items of the issue
+   * @return ETag of the items
+   */
+  private static String getETag(final String entityName, final Map<String, Object> fields) {
+    long count = ComponentAccessor.getOfBizDelegator().getCount(entityName, fields);
+    long lastUpdate = 0L;
+    if (count > 0) {
+      //JIRA sets the time of the update when the item is created
+      List<GenericValue> values = find(entityName, new EntityFieldMap(fields, EntityOperator.AND), 
+          Arrays.asList("id", "created", "updated"), "updated DESC", 1);
+      for (GenericValue value : values) {
+        Timestamp updated = (value.getTimestamp("updated") != null) ? value.getTimestamp("updated") : value.getTimestamp("created");
+        if (updated != null) {
+          lastUpdate = updated.getTime();
+        }
+      }
+    }
+    return count + "-" + lastUpdate;
+  }
+  
+  /**
+   * Gets the values of the fields of the comments of the issue
+   * @param issue JIRA issue
+   * @return the values of the fields of the comments
+   */
+  private static Map<String, Object> getCommentsFields(final Issue issue) {
+    Map<String, Object> fields = new HashMap<String, Object>();
+    fields.put("issue", issue.getId());
+    fields.put("type", "comment");
+    return fields;
+  }
+  
+  /**
+   * Gets the condition of the comments of the issue
+   * @param issue JIRA issue
+   * @return the condition of the comments
+   */
+  private static EntityCondition getCommentsCondition(final Issue issue) {
+    return new EntityFieldMap(getCommentsFields(issue), EntityOperator.AND);
+  }
+  
+  /**
+   * Finds the page of the items of the issue sorted by the id. One more item than the page is returned 
+   * to find out if there is a next page.
+   * @param entityName the entity of the items
+   * @param condition the condition of the items of the issue
+   * @param afterId only the items with bigger id are returned. It can be null.
+   * @param limit the maximum number of the items on the page
+   * @return the items
+   */
+  private static List<GenericValue> findPage(final String entityName, final EntityCondition condition, final Long afterId, final int limit) {
+    EntityCondition pageCondition = condition;
+    if (afterId != null) {
+      pageCondition = new EntityConditionList(Arrays.asList(condition, new EntityExpr("id", EntityOperator.GREATER_THAN, afterId)), EntityOperator.AND);
+    }
+    return find(entityName, pageCondition, null, "id ASC", limit + 1);
+  }
+  
+  /**
+   * Finds the entities by the condition
+   * @param entityName the name of the entity (e.g. ChangeGroup)
+   * @param condition the condition of the entities
+   * @param fields the fields which are loaded, null means all fields
+   * @param orderBy the order of the entities
+   * @param maxResults the maximum number of the entities
+   * @return the entities
+   */
+  private static List<GenericValue> find(final String entityName, final EntityCondition condition, final List<String> fields, 
+      final String orderBy, final int maxResults) {
+    return find(entityName, condition, fields, orderBy, maxResults, false);
+  }
+  
+  /**
+   * Finds the entities by the condition
+   * @param entityName the name of the entity (e.g. ChangeGroup)
+   * @param condition the condition of the entities
+   * @param fields the fields which are loaded, null means all fields
+   * @param orderBy the order of the entities
+   * @param maxResults the maximum number of the entities
+   * @param distinct true if the same values of the fields are returned only once (e.g. the joined entities)
+   * @return the entities
+   */
+  private static List<GenericValue> find(final String entityName, final EntityCondition condition, final List<String> fields, 
+      final String orderBy, final int maxResults, final boolean distinct) {
+    EntityFindOptions options = new EntityFindOptions();
+    options.setDistinct(distinct);
+    if (maxResults < Integer.MAX_VALUE) {
+      options.setMaxResults(maxResults);
+    }
+    
+    List<GenericValue> values = new ArrayList<GenericValue>();
+    OfBizListIterator iterator = ComponentAccessor.getOfBizDelegator().findListIteratorByCondition(entityName, condition, null, 
+        fields, Arrays.asList(orderBy), options);
+    try {
+      GenericValue value = iterator.next();
+      while (value != null && values.size() < maxResults) {
+        values.add(value);
+        value = iterator.next();
+      }
+    } finally {
+      iterator.close();
+    }
+    return values;
+  }
+  
   /**
    * Function prepares list of components  to set to issue. Requested list is compared against
    * allowed project components. Components which are not allowed are ignored.
@@ -363,12 +657,13 @@ public class FieldManager {
    * @param issue the issue which will be updated
    * @param jcr JIRA Change request
    * @param user the updated will be done by the user
+   * @param context the context of the request
    */
-  public static void updateVoters(MutableIssue issue, JiraChangeRequest jcr, User user) {
+  public static void updateVoters(MutableIssue issue, JiraChangeRequest jcr, User user, RequestContext context) {
     List<String> names = jcr.getVoters();
     
     List<ApplicationUser> newVoters = new ArrayList<ApplicationUser>();
-    UserManager um = ComponentAccessor.getUserManager();
+    UserManager um = context.getUserManager();
     for (String name : names) {
       ApplicationUser u = um.getUserByName(name);
       if (u != null) {
@@ -376,8 +671,8 @@ public class FieldManager {
       }
     }
     
-    VoteManager vMngr = ComponentAccessor.getVoteManager();
-    List<ApplicationUser> voters = vMngr.getVotersFor(issue, ComponentAccessor.getJiraAuthenticationContext().getLocale());
+    VoteManager vMngr = context.getVoteManager();
+    List<ApplicationUser> voters = vMngr.getVotersFor(issue, context.getLocale());
     
     //remove existing voters, who aren't in incoming list
     for (ApplicationUser voter : voters) { 
@@ -397,12 +692,13 @@ public class FieldManager {
    * @param issue the issue which will be updated
    * @param jcr JIRA Change request
    * @param user the updated will be done by the user
+   * @param context the context of the request
    */
-  public static void updateWatchers(MutableIssue issue, JiraChangeRequest jcr, User user) {
+  public static void updateWatchers(MutableIssue issue, JiraChangeRequest jcr, User user, RequestContext context) {
     List<String> names = jcr.getWatchers();
     
     List<ApplicationUser> newWatchers = new ArrayList<ApplicationUser>();
-    UserManager um = ComponentAccessor.getUserManager();
+    UserManager um = context.getUserManager();
     for (String name : names) {
       ApplicationUser u = um.getUserByName(name);
       if (u != null) {
@@ -410,8 +706,8 @@ public class FieldManager {
       }
     }
     
-    WatcherManager watcherMngr = ComponentAccessor.getWatcherManager();
-    List<ApplicationUser> wList = watcherMngr.getWatchers(issue, ComponentAccessor.getJiraAuthenticationContext().getLocale());
+    WatcherManager watcherMngr = context.getWatcherManager();
+    List<ApplicationUser> wList = watcherMngr.getWatchers(issue, context.getLocale());
     
     //remove existing watchers, who aren't in incoming list
     for (ApplicationUser u : wList) { 
@@ -0,0 +1,369 @@
+package com.ericsson.jira.oslc.managers;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ofbiz.core.entity.EntityCondition;
+import org.ofbiz.core.entity.EntityConditionList;
+import org.ofbiz.core.entity.EntityExpr;
+import org.ofbiz.core.entity.EntityOperator;
+import org.ofbiz.core.entity.GenericValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.MutableIssue;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.link.IssueLinkType;
+import com.atlassian.jira.issue.link.IssueLinkTypeManager;
+import com.atlassian.jira.ofbiz.OfBizDelegator;
+import com.atlassian.jira.user.ApplicationUser;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.resources.ChangeRequestProjection;
+import com.ericsson.jira.oslc.resources.JiraIssueComment;
+import com.ericsson.jira.oslc.resources.JiraIssueInternalLink;
+import com.ericsson.jira.oslc.resources.JiraIssueWebLink;
+import com.ericsson.jira.oslc.resources.JiraIssueWorklog;
+import com.ericsson.jira.oslc.utils.RequestContext;
+import com.ericsson.jira.oslc.utils.UserCache;
+
+/**
+ * The relations of the issues of one page (comments, worklogs, watchers, voters, inside links, outside links
+ * and the value of OSLC links custom field) which are loaded by a few set-based queries instead of the queries 
+ * for each issue. Only the relations included in the projection are loaded. 
+ * The getters return null if the relation of the issue wasn't loaded, then the relation has to be read 
+ * from JIRA managers.
+ *
+ */
+public class IssuePreloader {
+  private static Logger logger = LoggerFactory.getLogger(IssuePreloader.class);
+  private static final String CURRENT_CLASS = "IssuePreloader";
+  
+  private static final String ENTITY_COMMENT = "Action";
+  private static final String ENTITY_WORKLOG = "Worklog";
+  private static final String ENTITY_USER_ASSOCIATION = "UserAssociation";
+  private static final String ENTITY_ISSUE_LINK = "IssueLink";
+  private static final String ENTITY_REMOTE_ISSUE_LINK = "RemoteIssueLink";
+  private static final String ENTITY_CUSTOM_FIELD_VALUE = "CustomFieldValue";
+  private static final String ASSOCIATION_WATCH = "WatchIssue";
+  private static final String ASSOCIATION_VOTE = "VoteIssue";
+  
+  private final Set<Long> issueIds;
+  private final RequestContext context;
+  private final OfBizDelegator delegator;
+  /** The users are resolved once for all issues */
+  private final UserCache users;
+  
+  private Map<Long, List<JiraIssueComment>> comments = null;
+  private Map<Long, List<JiraIssueWorklog>> worklogs = null;
+  private Map<Long, List<String>> watchers = null;
+  private Map<Long, List<String>> voters = null;
+  private Map<Long, List<JiraIssueInternalLink>> insideLinks = null;
+  private Map<Long, List<JiraIssueWebLink>> outsideLinks = null;
+  private Map<Long, String> oslcLinks = null;
+  
+  private IssuePreloader(Collection<Long> issueIds, RequestContext context) {
+    this.issueIds = new HashSet<Long>(issueIds);
+    this.context = context;
+    this.delegator = ComponentAccessor.getOfBizDelegator();
+    this.users = new UserCache(context.getUserManager());
+  }
+  
+  /**
+   * Loads the relations of the issues which are included in the projection
+   * @param issueIds the ids of the issues of the page
+   * @param projection the properties of change requests which have to be loaded
+   * @param context the context of the request
+   * @return the loaded relations
+   */
+  public static IssuePreloader load(Collection<Long> issueIds, ChangeRequestProjection projection, RequestContext context) {
+    IssuePreloader preloader = new IssuePreloader(issueIds, context);
+    if (issueIds.isEmpty()) {
+      return preloader;
+    }
+    
+    //if a query fails, the relation is read from JIRA managers for each issue
+    try {
+      if (projection.includes(Constants.JIRA_TYPE_COMMENT)) {
+        preloader.loadComments();
+      }
+      if (projection.includes(Constants.JIRA_TYPE_WORKLOG)) {
+        preloader.loadWorklogs();
+      }
+      if (projection.includes(Constants.JIRA_TYPE_WATCHER)) {
+        preloader.watchers = preloader.loadUserAssociations(ASSOCIATION_WATCH);
+      }
+      if (projection.includes(Constants.JIRA_TYPE_VOTER)) {
+        preloader.voters = preloader.loadUserAssociations(ASSOCIATION_VOTE);
+      }
+      if (projection.includes(Constants.JIRA_TYPE_INSIDE_LINK)) {
+        preloader.loadInsideLinks();
+      }
+      if (projection.includes(Constants.JIRA_TYPE_OUTSIDE_LINK)) {
+        preloader.loadOutsideLinks();
+      }
+      if (projection.includes(Constants.TYPE_RELATED_CHANGE_REQUEST)) {
+        preloader.loadOslcLinks();
+      }
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + ".load Exception: " + e.getMessage());
+    }
+    return preloader;
+  }
+  
+  public List<JiraIssueComment> getComments(Long issueId) {
+    return get(comments, issueId);
+  }
+  
+  public List<JiraIssueWorklog> getWorklogs(Long issueId) {
+    return get(worklogs, issueId);
+  }
+  
+  public List<String> getWatchers(Long issueId) {
+    return get(watchers, issueId);
+  }
+  
+  public List<String> getVoters(Long issueId) {
+    return get(voters, issueId);
+  }
+  
+  public List<JiraIssueInternalLink> getInsideLinks(Long issueId) {
+    return get(insideLinks, issueId);
+  }
+  
+  public List<JiraIssueWebLink> getOutsideLinks(Long issueId) {
+    return get(outsideLinks, issueId);
+  }
+  
+  /**
+   * Returns the value of OSLC links custom field
+   * @param issueId the id of the issue
+   * @return the value of OSLC links custom field or null if it wasn't loaded or it's empty
+   */
+  public String getOslcLinks(Long issueId) {
+    return (oslcLinks != null) ? oslcLinks.get(issueId) : null;
+  }
+  
+  /**
+   * Returns true if the value of OSLC links custom field of the issue was loaded
+   * @param issueId the id of the issue
+   * @return true if the value of OSLC links custom field of the issue was loaded
+   */
+  public boolean hasOslcLinks(Long issueId) {
+    return oslcLinks != null && issueIds.contains(issueId);
+  }
+  
+  /**
+   * Returns the loaded relation of the issue
+   * @param relation the relation of all issues. It's null if the relation wasn't loaded.
+   * @param issueId the id of the issue
+   * @return the relation of the issue, the empty list if the issue hasn't any, 
+   * null if the relation of the issue wasn't loaded
+   */
+  private <T> List<T> get(Map<Long, List<T>> relation, Long issueId) {
+    if (relation == null || !issueIds.contains(issueId)) {
+      return null;
+    }
+    List<T> values = relation.get(issueId);
+    return (values != null) ? values : Collections.<T>emptyList();
+  }
+  
+  /**
+   * Loads the comments of the issues
+   */
+  private void loadComments() {
+    List<GenericValue> values = find(ENTITY_COMMENT, 
+        new EntityConditionList(Arrays.asList((EntityCondition) in("issue", issueIds), new EntityExpr("type", EntityOperator.EQUALS, "comment")), EntityOperator.AND), 
+        Arrays.asList("created", "id"));
+    
+    Map<Long, List<JiraIssueComment>> result = new HashMap<Long, List<JiraIssueComment>>();
+    for (GenericValue value : values) {
+      add(result, value.getLong("issue"), new JiraIssueComment(value, users));
+    }
+    comments = result;
+  }
+  
+  /**
+   * Loads the worklogs of the issues
+   */
+  private void loadWorklogs() {
+    List<GenericValue> values = find(ENTITY_WORKLOG, in("issue", issueIds), Arrays.asList("created", "id"));
+    
+    Map<Long, List<JiraIssueWorklog>> result = new HashMap<Long, List<JiraIssueWorklog>>();
+    for (GenericValue value : values) {
+      add(result, value.getLong("issue"), new JiraIssueWorklog(value, users));
+    }
+    worklogs = result;
+  }
+  
+  /**
+   * Loads the users associated to the issues (watchers, voters). The users are sorted by the display name
+   * as JIRA managers do.
+   * @param associationType the type of the association
+   * @return the names of the users by the ids of the issues
+   */
+  private Map<Long, List<String>> loadUserAssociations(String associationType) {
+    List<GenericValue> values = find(ENTITY_USER_ASSOCIATION, 
+        new EntityConditionList(Arrays.asList((EntityCondition) in("sinkNodeId", issueIds), 
+            new EntityExpr("sinkNodeEntity", EntityOperator.EQUALS, "Issue"),
+            new EntityExpr("associationType", EntityOperator.EQUALS, associationType)), EntityOperator.AND), 
+        null);
+    
+    Map<Long, List<ApplicationUser>> usersByIssue = new HashMap<Long, List<ApplicationUser>>();
+    for (GenericValue value : values) {
+      ApplicationUser user = users.getUser(value.getString("sourceName"));
+      if (user != null) {
+        add(usersByIssue, value.getLong("sinkNodeId"), user);
+      }
+    }
+    
+    final Collator collator = Collator.getInstance(context.getLocale());
+    Comparator<ApplicationUser> comparator = new Comparator<ApplicationUser>() {
+      @Override
+      public int compare(ApplicationUser u1, ApplicationUser u2) {
+        return collator.compare(u1.getDisplayName(), u2.getDisplayName());
+      }
+    };
+    
+    Map<Long, List<String>> result = new HashMap<Long, List<String>>();
+    for (Map.Entry<Long, List<ApplicationUser>> entry : usersByIssue.entrySet()) {
+      List<ApplicationUser> issueUsers = entry.getValue();
+      Collections.sort(issueUsers, comparator);
+      List<String> names = new ArrayList<String>();
+      for (ApplicationUser user : issueUsers) {
+        names.add(user.getName());
+      }
+      result.put(entry.getKey(), names);
+    }
+    return result;
+  }
+  
+  /**
+   * Loads the links between the issues. The issues on the other side of the links are loaded at once.
+   */
+  private void loadInsideLinks() {
+    List<GenericValue> inwards = find(ENTITY_ISSUE_LINK, in("destination", issueIds), Arrays.asList("id"));
+    List<GenericValue> outwards = find(ENTITY_ISSUE_LINK, in("source", issueIds), Arrays.asList("id"));
+    
+    Set<Long> linkedIds = new HashSet<Long>();
+    for (GenericValue value : inwards) {
+      linkedIds.add(value.getLong("source"));
+    }
+    for (GenericValue value : outwards) {
+      linkedIds.add(value.getLong("destination"));
+    }
+    Map<Long, Issue> linkedIssues = new HashMap<Long, Issue>();
+    if (!linkedIds.isEmpty()) {
+      for (MutableIssue issue : ComponentAccessor.getIssueManager().getIssueObjects(linkedIds)) {
+        linkedIssues.put(issue.getId(), issue);
+      }
+    }
+    
+    IssueLinkTypeManager linkTypeManager = ComponentAccessor.getComponent(IssueLinkTypeManager.class);
+    Map<Long, List<JiraIssueInternalLink>> result = new HashMap<Long, List<JiraIssueInternalLink>>();
+    for (GenericValue value : inwards) {
+      Issue srcIssue = linkedIssues.get(value.getLong("source"));
+      IssueLinkType type = linkTypeManager.getIssueLinkType(value.getLong("linktype"));
+      if (srcIssue != null && type != null) {
+        add(result, value.getLong("destination"), new JiraIssueInternalLink(context.getRestUriForIssue(srcIssue), type.getInward(), "inward"));
+      }
+    }
+    for (GenericValue value : outwards) {
+      Issue dstIssue = linkedIssues.get(value.getLong("destination"));
+      IssueLinkType type = linkTypeManager.getIssueLinkType(value.getLong("linktype"));
+      if (dstIssue != null && type != null) {
+        add(result, value.getLong("source"), new JiraIssueInternalLink(context.getRestUriForIssue(dstIssue), type.getOutward(), "outward"));
+      }
+    }
+    insideLinks = result;
+  }
+  
+  /**
+   * Loads the remote links of the issues
+   */
+  private void loadOutsideLinks() {
+    List<GenericValue> values = find(ENTITY_REMOTE_ISSUE_LINK, in("issueid", issueIds), Arrays.asList("id"));
+    
+    Map<Long, List<JiraIssueWebLink>> result = new HashMap<Long, List<JiraIssueWebLink>>();
+    for (GenericValue value : values) {
+      add(result, value.getLong("issueid"), new JiraIssueWebLink(value.getString("url"), value.getString("title")));
+    }
+    outsideLinks = result;
+  }
+  
+  /**
+   * Loads the values of OSLC links custom field of the issues
+   */
+  private void loadOslcLinks() {
+    CustomField customField = context.getOslcLinksField();
+    if (customField == null) {
+      return;
+    }
+    
+    List<GenericValue> values = find(ENTITY_CUSTOM_FIELD_VALUE, 
+        new EntityConditionList(Arrays.asList((EntityCondition) in("issue", issueIds), 
+            new EntityExpr("customfield", EntityOperator.EQUALS, customField.getIdAsLong())), EntityOperator.AND), 
+        null);
+    
+    Map<Long, String> result = new HashMap<Long, String>();
+    for (GenericValue value : values) {
+      String text = value.getString("textvalue");
+      result.put(value.getLong("issue"), (text != null) ? text : value.getString("stringvalue"));
+    }
+    oslcLinks = result;
+  }
+  
+  private List<GenericValue> find(String entityName, EntityCondition condition, List<String> orderBy) {
+    return delegator.findByCondition(entityName, condition, null, orderBy);
+  }
+  
+  private static EntityExpr in(String field, Collection<Long> ids) {
+    return new EntityExpr(field, EntityOperator.IN, new ArrayList<Long>(ids));
+  }
+  
+  private static <T> void add(Map<Long, List<T>> relation, Long issueId, T value) {
+    List<T> values = relation.get(issueId);
+    if (values == null) {
+      values = new ArrayList<T>();
+      relation.put(issueId, values);
+    }
+    values.add(value);
+  }
+}
@@ -17,21 +17,39 @@
 
 package com.ericsson.jira.oslc.managers;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.WebApplicationException;
+import javax.xml.namespace.QName;
 
-import org.ofbiz.core.entity.GenericEntityException;
+import org.eclipse.lyo.core.query.OrderByClause;
+import org.eclipse.lyo.core.query.SimpleTerm;
+import org.eclipse.lyo.core.query.WhereClause;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,8 +60,10 @@ import com.atlassian.jira.bc.issue.IssueService.IssueResult;
 import com.atlassian.jira.bc.issue.IssueService.IssueValidationResult;
 import com.atlassian.jira.bc.issue.IssueService.TransitionValidationResult;
 import com.atlassian.jira.bc.issue.IssueService.UpdateValidationResult;
+import com.atlassian.jira.bc.issue.search.SearchService;
 import com.atlassian.jira.bc.project.component.ProjectComponent;
 import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.config.ConstantsManager;
 import com.atlassian.jira.config.properties.APKeys;
 import com.atlassian.jira.issue.Issue;
 import com.atlassian.jira.issue.IssueInputParameters;
@@ -51,8 +71,14 @@ import com.atlassian.jira.issue.IssueInputParametersImpl;
 import com.atlassian.jira.issue.IssueManager;
 import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.index.DocumentConstants;
+import com.atlassian.jira.issue.issuetype.IssueType;
+import com.atlassian.jira.issue.search.SearchException;
+import com.atlassian.jira.issue.search.SearchProvider;
+import com.atlassian.jira.issue.search.SearchResults;
 import com.atlassian.jira.issue.managers.DefaultCustomFieldManager;
 import com.atlassian.jira.issue.managers.DefaultIssueManager;
+import com.atlassian.jira.issue.priority.Priority;
 import com.atlassian.jira.issue.status.Status;
 import com.atlassian.jira.project.Project;
 import com.atlassian.jira.project.ProjectManager;
@@ -63,8 +89,11 @@ import com.atlassian.jira.user.ApplicationUser;
 import com.atlassian.jira.user.ApplicationUsers;
 import com.atlassian.jira.user.util.UserManager;
 import com.atlassian.jira.util.ErrorCollection;
+import com.atlassian.jira.web.bean.PagerFilter;
 import com.atlassian.jira.workflow.JiraWorkflow;
 import com.atlassian.jira.workflow.WorkflowManager;
+import com.atlassian.query.Query;
+import com.atlassian.query.order.SortOrder;
 import com.ericsson.eif.leansync.mapping.data.SyncConfiguration;
 import com.ericsson.jira.oslc.Constants;
 import com.ericsson.jira.oslc.PluginConfig;
@@ -76,14 +105,24 @@ import com.ericsson.jira.oslc.exceptions.IssueValidationException;
 import com.ericsson.jira.oslc.exceptions.NoResourceException;
 import com.ericsson.jira.oslc.exceptions.PermissionException;
 import com.ericsson.jira.oslc.exceptions.PreconditionException;
+import com.ericsson.jira.oslc.exceptions.QueryException;
 import com.ericsson.jira.oslc.exceptions.StatusException;
+import com.ericsson.jira.oslc.resources.ChangeRequestProjection;
+import com.ericsson.jira.oslc.resources.JiraBatchItem;
 import com.ericsson.jira.oslc.resources.JiraChangeRequest;
+import com.ericsson.jira.oslc.resources.JiraFacet;
+import com.ericsson.jira.oslc.resources.JiraFacetValue;
+import com.ericsson.jira.oslc.resources.JiraFacetsRequest;
 import com.ericsson.jira.oslc.services.ServiceHelper;
-import com.ericsson.jira.oslc.servlet.ServiceProviderCatalogSingleton;
 import com.ericsson.jira.oslc.sync.SyncUtils;
 import com.ericsson.jira.oslc.utils.AppLinksRepository;
+import com.ericsson.jira.oslc.utils.FacetCollector;
+import com.ericsson.jira.oslc.utils.IssueScoreCollector;
 import com.ericsson.jira.oslc.utils.JiraIssueInputParameters;
 import com.ericsson.jira.oslc.utils.OSLCUtils;
+import com.ericsson.jira.oslc.utils.PageCursor;
+import com.ericsson.jira.oslc.utils.RequestContext;
+import com.ericsson.jira.oslc.utils.WorkerPool;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.opensymphony.workflow.loader.ActionDescriptor;
@@ -97,23 +136,58 @@ import com.opensymphony.workflow.loader.StepDescriptor;
 public class JiraManager {
    private static final String CURRENT_CLASS = "JiraManager";
    private static Logger logger = LoggerFactory.getLogger(JiraManager.class);
+   //oslc:score extended property of the change requests found by full-text search
+   private static final QName SCORE_PROPERTY = new QName(OslcConstants.OSLC_CORE_NAMESPACE, "score", OslcConstants.OSLC_CORE_NAMESPACE_PREFIX);
+   //the values of the facet are sorted by the number of the issues (the biggest first), then by the title
+   private static final Comparator<JiraFacetValue> FACET_VALUE_ORDER = new Comparator<JiraFacetValue>() {
+     @Override
+     public int compare(JiraFacetValue v1, JiraFacetValue v2) {
+       int result = v2.getCount().compareTo(v1.getCount());
+       return (result != 0) ? result : v1.getTitle().compareTo(v2.getTitle());
+     }
+   };
    
 
   /**
-  * Get a list of Issues for a project ID using paging
+  * Get a list of Issues for a project ID using paging. The issues are searched by JIRA query created 
+  * from oslc.where clause and sorted by oslc.orderBy clause. If oslc.searchTerms is specified, the issues
+  * are ranked by the score of the full-text search instead (see {@link #getRankedIssues}). 
+  * Only the issues of the requested page are loaded and converted to change requests. If the whole query 
+  * is evaluated by JIRA, the change requests are created lazily while the result is iterated.
+  * The terms of oslc.where which can't be evaluated by JIRA are evaluated in memory. In this case
+  * the issues are read by batches until the requested page is filled.
+  * If the issues are sorted only by the issue key, the page can be given by the cursor pointing to the last issue
+  * of the previous page. Then only the issues after the cursor are searched, so the pages aren't shifted 
+  * by created or deleted issues and the issues before the page aren't read again.
+  * If there is a next page then the continuation token of the next page is set to the request attribute 
+  * {@link Constants#NEXT_PAGE_TOKEN} for the queries sorted by the issue key, otherwise the number of the next page 
+  * is set to the request attribute {@link Constants#NEXT_PAGE}
+  * The number of all issues matching the query is set to the request attribute {@link Constants#TOTAL_COUNT}.
+  * It's taken from the hit count of JIRA index. If some terms are evaluated in memory, it's set only if 
+  * all issues were read to fill the page. If the page size is 0, only the number of the issues is counted 
+  * by JIRA index and no change request is returned. The terms evaluated in memory can't be counted this way.
   * 
   * @param httpServletRequest HttpServletRequest
   * @param projectKeyString the key of project as String
-  * @return The list of change requests
+  * @param whereClause parsed oslc.where clause. It can be null.
+  * @param orderByClause parsed oslc.orderBy clause. It can be null.
+  * @param searchTerms parsed oslc.searchTerms. It can be null.
+  * @param projection the properties of change requests which have to be loaded
+  * @param cursor the position of the last issue of the previous page. It can be null.
+  * @param page the number of the requested page. The first page is 0. It's ignored if the cursor is specified.
+  * @param pageSize the maximum number of issues on the page. 0 means that only the issues are counted.
+  * @return The change requests on the requested page
   * @throws IOException
   * @throws ServletException
   * @throws URISyntaxException
   * @throws PermissionException 
+  * @throws NoResourceException 
+  * @throws QueryException 
+  * @throws SearchException 
   */
-  public static List<JiraChangeRequest> getIssuesByProject(final HttpServletRequest httpServletRequest,
-      final String projectKeyString) throws IOException, ServletException,
-      URISyntaxException, PermissionException {
-    String currentMethod = "getIssuesByProject";
+  public static Iterable<JiraChangeRequest> getIssuesByProject(final HttpServletRequest httpServletRequest,
+      final String projectKeyString, final WhereClause whereClause, final OrderByClause orderByClause, final List<String> searchTerms, final ChangeRequestProjection projection, final PageCursor cursor, final int page, final int pageSize) throws IOException, ServletException,
+      URISyntaxException, PermissionException, NoResourceException, QueryException, SearchException {
     String userName = PermissionManager.getUserName(httpServletRequest);
     
     UserManager um = ComponentAccessor.getComponent(UserManager.class);
@@ -124,49 +198,816 @@ public class JiraManager {
     long prjid = Long.parseLong(projectKeyString);
     Project prj = projectManager.getProjectObj(prjid);
     
+    if (prj == null) {
+      throw new NoResourceException("The project " + projectKeyString + " doesn't exist.");
+    }
+    
     ApplicationUser appUser = PermissionManager.getAppUserFromRequest(httpServletRequest);
     PermissionManager.checkPermission(appUser, prj, Permissions.BROWSE);
     
+    List<SimpleTerm> residualTerms = new ArrayList<SimpleTerm>();
+    Query query = QueryManager.createQuery(prj.getId(), whereClause, orderByClause, searchTerms, residualTerms);
+    //the properties evaluated in memory have to be loaded as well
+    ChangeRequestProjection loadedProperties = projection.withProperties(QueryManager.getProperties(residualTerms));
+    
+    SortOrder keyOrder = QueryManager.getKeySortOrder(orderByClause, searchTerms);
+    if (cursor != null && keyOrder == null) {
+      throw new QueryException("The continuation token can be used only if the issues are sorted by the issue key.");
+    }
+    //the issues before the cursor are filtered out by JIRA index
+    org.apache.lucene.search.Query keyRange = (cursor != null) ? QueryManager.createKeyRangeQuery(cursor, keyOrder) : null;
+    
+    List<JiraChangeRequest> results = new ArrayList<JiraChangeRequest>();
+    long from = (cursor != null) ? 0 : (long) page * pageSize;
+    if (from > Integer.MAX_VALUE) {
+      return results;
+    }
+    
+    IssueManager issueManager = ComponentAccessor.getIssueManager();
+    URI serviceProvider = RequestContext.get(httpServletRequest).getServiceProvider(projectKeyString);
+    
+    if (pageSize == 0) {
+      //counting the issues in memory would create the change requests of all issues of the project
+      if (!residualTerms.isEmpty()) {
+        throw new QueryException("The issues can't be counted for the terms of " + QueryManager.getProperties(residualTerms) 
+            + ", they aren't evaluated by JIRA search.");
+      }
+      setTotalCount(httpServletRequest, searchCount(user, query));
+      return results;
+    }
+    
+    if (searchTerms != null && !searchTerms.isEmpty()) {
+      return getRankedIssues(httpServletRequest, user, query, residualTerms, loadedProperties, projectKeyString, serviceProvider, page, pageSize);
+    }
+    
+    if (residualTerms.isEmpty()) {
+      //the whole query is evaluated by JIRA, only the requested page is loaded
+      SearchResults searchResults = search(user, query, keyRange, new PagerFilter((int) from, pageSize));
+      List<Long> issueIds = new ArrayList<Long>();
+      Issue lastIssue = null;
+      for (Issue issue : searchResults.getIssues()) {
+        issueIds.add(issue.getId());
+        lastIssue = issue;
+      }
+      
+      if (from + pageSize < searchResults.getTotal()) {
+        setNextPage(httpServletRequest, keyOrder, lastIssue, page);
+      }
+      //the hits after the cursor don't contain the issues of the previous pages, they are counted again
+      setTotalCount(httpServletRequest, (keyRange == null) ? searchResults.getTotal() : searchCount(user, query));
+      return new LazyChangeRequests(httpServletRequest, issueIds, null, loadedProperties, projectKeyString, serviceProvider);
+    }
+    
+    //some terms are evaluated in memory, the issues are read by batches until the page is filled
+    long toSkip = from;
+    int start = 0;
+    long matched = 0;
+    boolean hasNext = false;
+    Issue lastIssue = null;
+    SearchResults searchResults;
+    do {
+      searchResults = search(user, query, keyRange, new PagerFilter(start, Constants.MAX_PAGE_SIZE));
+      preload(httpServletRequest, searchResults.getIssues(), loadedProperties);
+      for (Issue issue : searchResults.getIssues()) {
+        JiraChangeRequest jcr = createChangeRequest(httpServletRequest, issueManager.getIssueObject(issue.getId()), loadedProperties, projectKeyString, serviceProvider);
+        if (!QueryManager.matches(jcr, residualTerms)) {
+          continue;
+        }
+        
+        matched++;
+        if (toSkip > 0) {
+          toSkip--;
+        } else if (results.size() < pageSize) {
+          results.add(jcr);
+          lastIssue = issue;
+        } else {
+          hasNext = true;
+          break;
+        }
+      }
+      start += Constants.MAX_PAGE_SIZE;
+    } while (!hasNext && start < searchResults.getTotal());
+    
+    if (hasNext) {
+      setNextPage(httpServletRequest, keyOrder, lastIssue, page);
+    } else if (keyRange == null) {
+      //all issues were read, so all matching issues were counted
+      setTotalCount(httpServletRequest, matched);
+    }
+    return results;
+  }
+  
+  /**
+   * Searches the issues by JIRA query. If the range of the issue keys is specified,
+   * only the issues matching to both queries are returned.
+   * @param user the user who searches the issues
+   * @param query JIRA query
+   * @param keyRange Lucene query of the range of the issue keys. It can be null.
+   * @param pager the requested page of the result
+   * @return the found issues
+   * @throws SearchException
+   */
+  static SearchResults search(final User user, final Query query, final org.apache.lucene.search.Query keyRange, final PagerFilter pager) throws SearchException {
+    if (keyRange == null) {
+      SearchService searchService = ComponentAccessor.getComponent(SearchService.class);
+      return searchService.search(user, query, pager);
+    }
+    SearchProvider searchProvider = ComponentAccessor.getComponent(SearchProvider.class);
+    return searchProvider.search(query, user, pager, keyRange);
+  }
+  
+  /**
+   * Returns the number of the issues found by JIRA query. Only the hit count of JIRA index is computed,
+   * the issues aren't loaded.
+   * @param user the user who searches the issues
+   * @param query JIRA query
+   * @return the number of the found issues
+   * @throws SearchException
+   */
+  private static long searchCount(final User user, final Query query) throws SearchException {
+    SearchProvider searchProvider = ComponentAccessor.getComponent(SearchProvider.class);
+    return searchProvider.searchCount(query, user);
+  }
+  
+  /**
+   * Sets the number of all issues matching the query to the request attribute {@link Constants#TOTAL_COUNT}
+   * @param httpServletRequest HttpServletRequest
+   * @param totalCount the number of the issues
+   */
+  private static void setTotalCount(final HttpServletRequest httpServletRequest, final long totalCount) {
+    httpServletRequest.setAttribute(Constants.TOTAL_COUNT, Integer.valueOf((int) Math.min(totalCount, Integer.MAX_VALUE)));
+  }
+  
+  /**
+   * Sets the next page to the request. The continuation token pointing to the last issue is set
+   * if the issues are sorted by the issue key, otherwise the number of the next page is set.
+   * @param httpServletRequest HttpServletRequest
+   * @param keyOrder the order of the issue key or null if the issues are sorted by other properties
+   * @param lastIssue the last issue of the current page
+   * @param page the number of the current page
+   */
+  private static void setNextPage(final HttpServletRequest httpServletRequest, final SortOrder keyOrder, final Issue lastIssue, final int page) {
+    if (keyOrder != null && lastIssue != null) {
+      httpServletRequest.setAttribute(Constants.NEXT_PAGE_TOKEN, PageCursor.fromIssue(lastIssue).encode());
+    } else {
+      httpServletRequest.setAttribute(Constants.NEXT_PAGE, page + 1);
+    }
+  }
+  
+  /**
+   * Returns the page of the issues found by the full-text search. The issues are ranked by the score
+   * (the best first), the issues with the same score are sorted by the id. The score is added to each
+   * change request as oslc:score extended property. If all terms are evaluated by JIRA, only the best hits 
+   * up to the requested page are kept in memory and the change requests of the page are created lazily 
+   * while the result is iterated. Otherwise the hits are converted by batches and the relations of the issues 
+   * of each batch are preloaded (see {@link IssuePreloader}).
+   * If there is a next page then its number is set to the request attribute {@link Constants#NEXT_PAGE}
+   * The number of all matching issues is set to the request attribute {@link Constants#TOTAL_COUNT}
+   * if all terms are evaluated by JIRA or if all hits were read to fill the page.
+   * 
+   * @param httpServletRequest HttpServletRequest
+   * @param user the user who searches the issues
+   * @param query JIRA query with the full-text search
+   * @param residualTerms the terms of oslc.where which are evaluated in memory
+   * @param projection the properties of change requests which have to be loaded
+   * @param projectKeyString the key of project as String
+   * @param serviceProvider the URI of service provider
+   * @param page the number of the requested page. The first page is 0
+   * @param pageSize the maximum number of issues on the page
+   * @return The change requests on the requested page
+   * @throws SearchException
+   * @throws QueryException
+   * @throws URISyntaxException
+   */
+  private static Iterable<JiraChangeRequest> getRankedIssues(final HttpServletRequest httpServletRequest, final User user, final Query query, 
+      final List<SimpleTerm> residualTerms, final ChangeRequestProjection projection, final String projectKeyString, final URI serviceProvider, 
+      final int page, final int pageSize) 
+      throws SearchException, QueryException, URISyntaxException {
+    long from = (long) page * pageSize;
+    //one more hit than the page to find out if there is a next page
+    int maxHits = residualTerms.isEmpty() ? (int) Math.min(from + pageSize + 1, Integer.MAX_VALUE) : Integer.MAX_VALUE;
+    
+    IssueScoreCollector collector = new IssueScoreCollector(maxHits);
+    SearchProvider searchProvider = ComponentAccessor.getComponent(SearchProvider.class);
+    searchProvider.search(query, user, collector);
+    
+    List<IssueScoreCollector.Hit> hits = collector.getHits();
+    
+    if (residualTerms.isEmpty()) {
+      //the whole query is evaluated by JIRA, only the hits of the requested page are loaded
+      List<Long> issueIds = new ArrayList<Long>();
+      Map<Long, Float> scores = new HashMap<Long, Float>();
+      for (int i = (int) Math.min(from, hits.size()); i < hits.size() && issueIds.size() < pageSize; i++) {
+        IssueScoreCollector.Hit hit = hits.get(i);
+        issueIds.add(hit.getIssueId());
+        scores.put(hit.getIssueId(), hit.getScore());
+      }
+      
+      if (from + pageSize < collector.getTotalHits()) {
+        httpServletRequest.setAttribute(Constants.NEXT_PAGE, page + 1);
+      }
+      setTotalCount(httpServletRequest, collector.getTotalHits());
+      return new LazyChangeRequests(httpServletRequest, issueIds, scores, projection, projectKeyString, serviceProvider);
+    }
+    
+    //some terms are evaluated in memory, the hits are converted by batches until the page is filled
     IssueManager issueManager = ComponentAccessor.getIssueManager();
-    IssueService issueService = ComponentAccessor.getIssueService(); 
-    Collection<Long> ids;
+    List<JiraChangeRequest> results = new ArrayList<JiraChangeRequest>();
+    long toSkip = from;
+    long matched = 0;
+    boolean hasNext = false;
+    
+    for (int start = 0; start < hits.size() && !hasNext; start += Constants.MAX_PAGE_SIZE) {
+      List<IssueScoreCollector.Hit> batch = hits.subList(start, Math.min(start + Constants.MAX_PAGE_SIZE, hits.size()));
+      Map<Long, MutableIssue> issues = new HashMap<Long, MutableIssue>();
+      for (IssueScoreCollector.Hit hit : batch) {
+        MutableIssue issue = issueManager.getIssueObject(hit.getIssueId());
+        if (issue != null) {
+          issues.put(issue.getId(), issue);
+        }
+      }
+      preload(httpServletRequest, new ArrayList<Issue>(issues.values()), projection);
+      
+      for (IssueScoreCollector.Hit hit : batch) {
+        MutableIssue issue = issues.get(hit.getIssueId());
+        if (issue == null) {
+          continue;
+        }
+        
+        JiraChangeRequest jcr = createChangeRequest(httpServletRequest, issue, projection, projectKeyString, serviceProvider);
+        if (!QueryManager.matches(jcr, residualTerms)) {
+          continue;
+        }
+        
+        matched++;
+        if (toSkip > 0) {
+          toSkip--;
+        } else if (results.size() < pageSize) {
+          jcr.getExtendedProperties().put(SCORE_PROPERTY, hit.getScore());
+          results.add(jcr);
+        } else {
+          hasNext = true;
+          break;
+        }
+      }
+    }
+    
+    if (hasNext) {
+      httpServletRequest.setAttribute(Constants.NEXT_PAGE, page + 1);
+    } else {
+      setTotalCount(httpServletRequest, matched);
+    }
+    return results;
+  }
+  
+  /**
+  * Returns the numbers of the issues of the project grouped by the values of the properties (facets). 
+  * The issues are searched by JIRA query created from oslc.where clause and oslc.searchTerms. They are counted 
+  * by {@link FacetCollector} from the values stored in JIRA index, so neither the issues nor the change requests 
+  * are loaded. Therefore all terms of oslc.where have to be evaluated by JIRA.
+  * 
+  * @param httpServletRequest HttpServletRequest
+  * @param projectKeyString the key of project as String
+  * @param whereClause parsed oslc.where clause. It can be null.
+  * @param searchTerms parsed oslc.searchTerms. It can be null.
+  * @param properties the properties which the issues are grouped by (see {@link QueryManager#parseFacetProperties})
+  * @return the facets of the properties in the order of the properties
+  * @throws PermissionException 
+  * @throws NoResourceException 
+  * @throws QueryException some terms of oslc.where can't be evaluated by JIRA
+  * @throws SearchException 
+  * @throws URISyntaxException
+  */
+  public static JiraFacetsRequest getFacets(final HttpServletRequest httpServletRequest, final String projectKeyString, 
+      final WhereClause whereClause, final List<String> searchTerms, final List<String> properties) 
+      throws PermissionException, NoResourceException, QueryException, SearchException, URISyntaxException {
+    String userName = PermissionManager.getUserName(httpServletRequest);
+    
+    UserManager um = ComponentAccessor.getComponent(UserManager.class);
+    User user = ApplicationUsers.toDirectoryUser(um.getUserByName(userName));
+    
+    ProjectManager projectManager = ComponentAccessor.getProjectManager();
+    Project prj = projectManager.getProjectObj(Long.parseLong(projectKeyString));
+    
+    if (prj == null) {
+      throw new NoResourceException("The project " + projectKeyString + " doesn't exist.");
+    }
+    
+    ApplicationUser appUser = PermissionManager.getAppUserFromRequest(httpServletRequest);
+    PermissionManager.checkPermission(appUser, prj, Permissions.BROWSE);
+    
+    List<SimpleTerm> residualTerms = new ArrayList<SimpleTerm>();
+    Query query = QueryManager.createQuery(prj.getId(), whereClause, null, searchTerms, residualTerms);
+    if (!residualTerms.isEmpty()) {
+      throw new QueryException("The facets can't be computed for the terms of " + QueryManager.getProperties(residualTerms) 
+          + ", they aren't evaluated by JIRA search.");
+    }
+    
+    List<String> singleValueFields = new ArrayList<String>();
+    List<String> multiValueFields = new ArrayList<String>();
+    for (String property : properties) {
+      if (QueryManager.isMultiValue(property)) {
+        multiValueFields.add(QueryManager.getFacetField(property));
+      } else {
+        singleValueFields.add(QueryManager.getFacetField(property));
+      }
+    }
+    
+    FacetCollector collector = new FacetCollector(singleValueFields, multiValueFields);
+    SearchProvider searchProvider = ComponentAccessor.getComponent(SearchProvider.class);
+    searchProvider.search(query, user, collector);
+    
+    //the components are indexed by the id, but the change requests contain their names
+    Map<String, String> componentNames = new HashMap<String, String>();
+    for (ProjectComponent component : prj.getProjectComponents()) {
+      componentNames.put(component.getId().toString(), component.getName());
+    }
+    
+    JiraFacetsRequest facets = new JiraFacetsRequest();
+    facets.setTotalCount(collector.getTotalHits());
+    for (String property : properties) {
+      JiraFacet facet = new JiraFacet(new URI(property));
+      for (Map.Entry<String, Integer> count : collector.getCounts(QueryManager.getFacetField(property)).entrySet()) {
+        facet.getValues().add(createFacetValue(property, count.getKey(), count.getValue(), componentNames));
+      }
+      Collections.sort(facet.getValues(), FACET_VALUE_ORDER);
+      facets.getFacets().add(facet);
+    }
+    return facets;
+  }
+  
+  /**
+   * Creates the value of the facet. The value stored in JIRA index is converted to the value 
+   * of change request property and the title of the value is resolved.
+   * @param property the property which the issues are grouped by
+   * @param indexValue the value stored in JIRA index
+   * @param count the number of the issues with the value
+   * @param componentNames the names of the components of the project, the key is the id of the component
+   * @return the value of the facet
+   */
+  private static JiraFacetValue createFacetValue(final String property, final String indexValue, final int count, final Map<String, String> componentNames) {
+    //JIRA indexes the unassigned issue with its own value
+    if (Constants.JIRA_TYPE_ASIGNEE.equals(property) 
+        && (FacetCollector.NO_VALUE.equals(indexValue) || DocumentConstants.ISSUE_UNASSIGNED.equals(indexValue))) {
+      return new JiraFacetValue(null, "Unassigned", count);
+    }
+    if (FacetCollector.NO_VALUE.equals(indexValue)) {
+      return new JiraFacetValue(null, "None", count);
+    }
+    
+    String value = indexValue;
+    String title = null;
+    ConstantsManager constantsManager = ComponentAccessor.getConstantsManager();
+    if ((Constants.JIRA_NAMESPACE + "issueStatus").equals(property)) {
+      Status status = constantsManager.getStatusObject(indexValue);
+      title = (status != null) ? status.getName() : null;
+    } else if ((Constants.JIRA_NAMESPACE + "issuePriority").equals(property)) {
+      Priority priority = constantsManager.getPriorityObject(indexValue);
+      title = (priority != null) ? priority.getName() : null;
+    } else if ((Constants.JIRA_NAMESPACE + "issueType").equals(property)) {
+      IssueType issueType = constantsManager.getIssueTypeObject(indexValue);
+      title = (issueType != null) ? issueType.getName() : null;
+    } else if (Constants.JIRA_TYPE_ASIGNEE.equals(property)) {
+      ApplicationUser assignee = ComponentAccessor.getUserManager().getUserByKey(indexValue);
+      title = (assignee != null) ? assignee.getDisplayName() : null;
+    } else if (Constants.JIRA_TYPE_COMPONENT.equals(property) && componentNames.containsKey(indexValue)) {
+      value = componentNames.get(indexValue);
+      title = value;
+    }
+    return new JiraFacetValue(value, (title != null) ? title : value, count);
+  }
+  
+  /**
+   * Get the change requests by the list of issue ids or keys. The user is resolved once and all issues 
+   * are loaded before the change requests are created. The change requests are created lazily 
+   * while the result is iterated. The issue which doesn't exist in the project or which the user can't browse
+   * is returned as {@link JiraBatchItem} with the status code 404 or 403.
+   * 
+   * @param httpServletRequest HttpServletRequest
+   * @param projectKeyString the key of project as String
+   * @param issueIds the ids or the keys of the issues
+   * @param projection the properties of change requests which have to be loaded
+   * @return the change requests and the batch items of the issues which can't be returned, in the order of the ids 
+   * @throws PermissionException the user isn't defined
+   * @throws UnsupportedEncodingException 
+   */
+  public static Iterable<AbstractResource> getIssuesByIds(final HttpServletRequest httpServletRequest, final String projectKeyString, 
+      final List<String> issueIds, final ChangeRequestProjection projection) throws PermissionException, UnsupportedEncodingException {
+    ApplicationUser appUser = PermissionManager.getUserForPermissions(httpServletRequest);
+    URI serviceProvider = RequestContext.get(httpServletRequest).getServiceProvider(projectKeyString);
+    
+    List<MutableIssue> issues = loadIssues(issueIds);
+    
+    List<Object> items = new ArrayList<Object>();
+    String changeRequestsUri = ServiceHelper.getOslcBaseUri(httpServletRequest) + "/" + projectKeyString + "/changeRequests/";
+    for (int i = 0; i < issueIds.size(); i++) {
+      String issueId = issueIds.get(i);
+      MutableIssue issue = issues.get(i);
+      URI about = URI.create(changeRequestsUri + URLEncoder.encode(issueId, "UTF-8"));
+      
+      if (issue == null || !isIssueOfProject(issue, projectKeyString)) {
+        items.add(new JiraBatchItem(about, i, HttpServletResponse.SC_NOT_FOUND, "The issue " + issueId + " doesn't exist in the project."));
+      } else if (!PermissionManager.hasPermission(appUser, issue, Permissions.BROWSE)) {
+        items.add(new JiraBatchItem(about, i, HttpServletResponse.SC_FORBIDDEN, "The user can't browse the issue " + issueId + "."));
+      } else {
+        items.add(issue);
+      }
+    }
+    return new LazyBatchItems(httpServletRequest, items, projection, projectKeyString, serviceProvider);
+  }
+  
+  /**
+   * Loads the issues by the ids or the keys. The issues are loaded by the ids at once, 
+   * the keys are resolved one by one.
+   * @param issueIds the ids or the keys of the issues
+   * @return the issues in the order of the ids. The issue which doesn't exist is null.
+   */
+  private static List<MutableIssue> loadIssues(final List<String> issueIds) {
+    IssueManager issueManager = ComponentAccessor.getIssueManager();
+    List<Long> numericIds = new ArrayList<Long>();
+    for (String issueId : issueIds) {
+      Long numericId = parseIssueId(issueId);
+      if (numericId != null) {
+        numericIds.add(numericId);
+      }
+    }
+    Map<Long, MutableIssue> issuesById = new HashMap<Long, MutableIssue>();
+    if (!numericIds.isEmpty()) {
+      for (MutableIssue issue : issueManager.getIssueObjects(numericIds)) {
+        issuesById.put(issue.getId(), issue);
+      }
+    }
+    
+    List<MutableIssue> issues = new ArrayList<MutableIssue>();
+    for (String issueId : issueIds) {
+      MutableIssue issue;
+      if (issueId.matches("\\d+")) {
+        //the number which is too big for the id doesn't identify any issue
+        issue = issuesById.get(parseIssueId(issueId));
+      } else {
+        issue = issueManager.getIssueObject(issueId);
+      }
+      issues.add(issue);
+    }
+    return issues;
+  }
+  
+  /**
+   * Checks if the issue belongs to the project
+   * @param issue the issue
+   * @param projectIdString the id of the project
+   * @return true if the issue belongs to the project, otherwise false
+   */
+  private static boolean isIssueOfProject(final Issue issue, final String projectIdString) {
+    Project project = issue.getProjectObject();
+    return project != null && String.valueOf(project.getId()).equals(projectIdString);
+  }
+  
+  /**
+   * Parses the numeric id of the issue
+   * @param issueId the id or the key of the issue
+   * @return the id of the issue or null if it isn't a number
+   */
+  private static Long parseIssueId(final String issueId) {
+    if (!issueId.matches("\\d+")) {
+      return null;
+    }
     try {
-      ids = issueManager.getIssueIdsForProject(prj.getId());
-    } 
-    catch (GenericEntityException e1) {
-      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e1.getMessage());
+      return Long.valueOf(issueId);
+    } catch (NumberFormatException e) {
       return null;
     }
+  }
+  
+  /**
+   * The items of batch request. The issues are converted to the change requests lazily during the iteration,
+   * the other items (e.g. the issues which don't exist) are returned as they are.
+   */
+  private static class LazyBatchItems implements Iterable<AbstractResource> {
+    private final HttpServletRequest httpServletRequest;
+    private final List<Object> items;
+    private final ChangeRequestProjection projection;
+    private final String projectKeyString;
+    private final URI serviceProvider;
     
-    List<JiraChangeRequest> results = new ArrayList<JiraChangeRequest>();
-    Iterator<Long> it = ids.iterator();
-    while (it.hasNext())
-    {
-      final IssueService.IssueResult issueResult = issueService.getIssue(user, it.next());
-      final MutableIssue issue = issueResult.getIssue();
+    LazyBatchItems(HttpServletRequest httpServletRequest, List<Object> items, ChangeRequestProjection projection, 
+        String projectKeyString, URI serviceProvider) {
+      this.httpServletRequest = httpServletRequest;
+      this.items = items;
+      this.projection = projection;
+      this.projectKeyString = projectKeyString;
+      this.serviceProvider = serviceProvider;
+    }
+    
+    @Override
+    public Iterator<AbstractResource> iterator() {
+      List<Issue> issues = new ArrayList<Issue>();
+      for (Object item : items) {
+        if (item instanceof MutableIssue) {
+          issues.add((MutableIssue) item);
+        }
+      }
+      preload(httpServletRequest, issues, projection);
       
-      if(!PermissionManager.hasPermission(appUser, issue, Permissions.BROWSE)){
-        continue;
+      final Iterator<Object> iterator = items.iterator();
+      
+      return new Iterator<AbstractResource>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+        
+        @Override
+        public AbstractResource next() {
+          Object item = iterator.next();
+          if (!(item instanceof MutableIssue)) {
+            return (AbstractResource) item;
+          }
+          try {
+            return createChangeRequest(httpServletRequest, (MutableIssue) item, projection, projectKeyString, serviceProvider);
+          } catch (URISyntaxException e) {
+            logger.error(CURRENT_CLASS + ".LazyBatchItems Exception: " + e.getMessage());
+            throw new WebApplicationException(e);
+          }
+        }
+        
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+  
+  /**
+   * The change requests which are created from the issues lazily during the iteration.
+   * Only one change request has to be kept in memory when the response is written.
+   * If the parallelism of the request is bigger than 1, the next issues are converted by {@link WorkerPool}
+   * in advance, at most the parallelism of the request at the same time. The change requests are returned 
+   * in the order of the issues.
+   */
+  private static class LazyChangeRequests implements Iterable<JiraChangeRequest> {
+    private final List<Long> issueIds;
+    private final Map<Long, Float> scores;
+    private final ChangeRequestProjection projection;
+    private final String projectKeyString;
+    private final URI serviceProvider;
+    private final String oslcBaseUri;
+    private final RequestContext context;
+    
+    /**
+     * Constructor
+     * @param httpServletRequest HttpServletRequest
+     * @param issueIds the ids of the issues of the page
+     * @param scores the scores of the full-text search by the issue id, they are added as oslc:score. It can be null.
+     * @param projection the properties of change requests which have to be loaded
+     * @param projectKeyString the key of project as String
+     * @param serviceProvider the URI of service provider
+     */
+    LazyChangeRequests(HttpServletRequest httpServletRequest, List<Long> issueIds, Map<Long, Float> scores, ChangeRequestProjection projection, 
+        String projectKeyString, URI serviceProvider) {
+      this.issueIds = issueIds;
+      this.scores = scores;
+      this.projection = projection;
+      this.projectKeyString = projectKeyString;
+      this.serviceProvider = serviceProvider;
+      //the request isn't used by the workers, the values are resolved in the thread of the request
+      this.oslcBaseUri = ServiceHelper.getOslcBaseUri(httpServletRequest);
+      this.context = RequestContext.get(httpServletRequest);
+    }
+    
+    @Override
+    public Iterator<JiraChangeRequest> iterator() {
+      context.setPreloader(IssuePreloader.load(issueIds, projection, context));
+      
+      //the issues are converted one by one if the plugin is being disabled
+      WorkerPool pool = WorkerPool.getInstance();
+      int parallelism = (pool != null) ? pool.getRequestParallelism() : 1;
+      if (parallelism > 1 && issueIds.size() > 1) {
+        return new ParallelIterator(pool, Math.min(parallelism, issueIds.size()));
       }
       
-      JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue);
-      jcr.setServiceProvider(ServiceProviderCatalogSingleton.getServiceProvider(httpServletRequest, projectKeyString).getAbout());
+      final Iterator<Long> ids = issueIds.iterator();
+      final IssueManager issueManager = ComponentAccessor.getIssueManager();
       
-      URI about;
-      try {
-        about = new URI(ServiceHelper.getOslcBaseUri(httpServletRequest) + "/" + projectKeyString + "/changeRequests/" + jcr.getIdentifier());
-      } 
-      catch (URISyntaxException e) {
-        logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
-        throw new WebApplicationException(e);
+      return new Iterator<JiraChangeRequest>() {
+        private MutableIssue nextIssue = null;
+        
+        @Override
+        public boolean hasNext() {
+          //the issue could be deleted after the search
+          while (nextIssue == null && ids.hasNext()) {
+            nextIssue = issueManager.getIssueObject(ids.next());
+          }
+          return nextIssue != null;
+        }
+        
+        @Override
+        public JiraChangeRequest next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          MutableIssue issue = nextIssue;
+          nextIssue = null;
+          try {
+            return toChangeRequest(issue);
+          } catch (URISyntaxException e) {
+            logger.error(CURRENT_CLASS + ".LazyChangeRequests Exception: " + e.getMessage());
+            throw new WebApplicationException(e);
+          }
+        }
+        
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+    
+    /**
+     * Converts the issue to the change request, the score of the full-text search is added if it's known
+     * @param issue the issue
+     * @return the change request
+     * @throws URISyntaxException
+     */
+    private JiraChangeRequest toChangeRequest(MutableIssue issue) throws URISyntaxException {
+      JiraChangeRequest jcr = createChangeRequest(oslcBaseUri, context, issue, projection, projectKeyString, serviceProvider);
+      Float score = (scores != null) ? scores.get(issue.getId()) : null;
+      if (score != null) {
+        jcr.getExtendedProperties().put(SCORE_PROPERTY, score);
+      }
+      return jcr;
+    }
+    
+    /**
+     * The iterator which keeps the conversions of the next issues running in {@link WorkerPool}.
+     * The result of the conversion is null if the issue was deleted after the search.
+     * The conversions which weren't started are cancelled when the iterator is closed 
+     * (see {@link com.ericsson.jira.oslc.provider.ResponseArrayWrapper#close(Iterator)}), e.g. when the client disconnected.
+     */
+    private class ParallelIterator implements Iterator<JiraChangeRequest>, Closeable {
+      private final Iterator<Long> ids = issueIds.iterator();
+      private final LinkedList<Future<JiraChangeRequest>> pending = new LinkedList<Future<JiraChangeRequest>>();
+      private final WorkerPool pool;
+      private final int parallelism;
+      private final ApplicationUser user;
+      private JiraChangeRequest nextChangeRequest = null;
+      
+      ParallelIterator(WorkerPool pool, int parallelism) {
+        this.pool = pool;
+        this.parallelism = parallelism;
+        this.user = context.getUser();
+      }
+      
+      @Override
+      public boolean hasNext() {
+        while (nextChangeRequest == null) {
+          fill();
+          if (pending.isEmpty()) {
+            return false;
+          }
+          nextChangeRequest = get(pending.removeFirst());
+        }
+        return true;
+      }
+      
+      @Override
+      public JiraChangeRequest next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        JiraChangeRequest jcr = nextChangeRequest;
+        nextChangeRequest = null;
+        return jcr;
+      }
+      
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
       }
       
-      jcr.setAbout(about);
-      results.add(jcr);
+      @Override
+      public void close() {
+        cancel();
+      }
+      
+      /**
+       * Submits the conversions of the next issues until the parallelism of the request is reached
+       */
+      private void fill() {
+        while (pending.size() < parallelism && ids.hasNext()) {
+          final Long issueId = ids.next();
+          pending.add(pool.submit(user, new Callable<JiraChangeRequest>() {
+            @Override
+            public JiraChangeRequest call() throws Exception {
+              MutableIssue issue = ComponentAccessor.getIssueManager().getIssueObject(issueId);
+              if (issue == null) {
+                return null;
+              }
+              return toChangeRequest(issue);
+            }
+          }));
+        }
+      }
+      
+      /**
+       * Waits for the result of the conversion
+       * @param future the conversion
+       * @return the change request or null if the issue doesn't exist
+       */
+      private JiraChangeRequest get(Future<JiraChangeRequest> future) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          cancel();
+          throw new WebApplicationException(e);
+        } catch (ExecutionException e) {
+          cancel();
+          Throwable cause = e.getCause();
+          logger.error(CURRENT_CLASS + ".LazyChangeRequests Exception: " + cause.getMessage());
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new WebApplicationException(cause);
+        }
+      }
+      
+      /**
+       * Cancels the conversions which weren't finished
+       */
+      private void cancel() {
+        for (Future<JiraChangeRequest> future : pending) {
+          future.cancel(false);
+        }
+        pending.clear();
+      }
     }
+  }
+  
+  /**
+   * Loads the relations of the issues (e.g. comments, worklogs, links) at once, so they aren't loaded 
+   * for each issue during the conversion to the change requests
+   * @param httpServletRequest HttpServletRequest
+   * @param issues the issues of the page
+   * @param projection the properties of change requests which have to be loaded
+   */
+  private static void preload(final HttpServletRequest httpServletRequest, final Collection<Issue> issues, final ChangeRequestProjection projection) {
+    List<Long> issueIds = new ArrayList<Long>();
+    for (Issue issue : issues) {
+      issueIds.add(issue.getId());
+    }
+    RequestContext context = RequestContext.get(httpServletRequest);
+    context.setPreloader(IssuePreloader.load(issueIds, projection, context));
+  }
+  
+  /**
+   * Converts the issue to the change request with the links to the service provider and to the change request itself
+   * @param httpServletRequest HttpServletRequest
+   * @param issue the issue
+   * @param projection the properties of change request which have to be loaded
+   * @param projectKeyString the key of project as String
+   * @param serviceProvider the URI of service provider
+   * @return the change request
+   * @throws URISyntaxException
+   */
+  private static JiraChangeRequest createChangeRequest(final HttpServletRequest httpServletRequest, final MutableIssue issue, 
+      final ChangeRequestProjection projection, final String projectKeyString, final URI serviceProvider) throws URISyntaxException {
+    return createChangeRequest(ServiceHelper.getOslcBaseUri(httpServletRequest), RequestContext.get(httpServletRequest), 
+        issue, projection, projectKeyString, serviceProvider);
+  }
+  
+  /**
+   * Converts the issue to the change request with the links to the service provider and to the change request itself.
+   * The request isn't used, so the method can be called from the threads of {@link WorkerPool}.
+   * @param oslcBaseUri the base URI of OSLC REST services
+   * @param context the context of the request
+   * @param issue the issue
+   * @param projection the properties of change request which have to be loaded
+   * @param projectKeyString the key of project as String
+   * @param serviceProvider the URI of service provider
+   * @return the change request
+   * @throws URISyntaxException
+   */
+  private static JiraChangeRequest createChangeRequest(final String oslcBaseUri, final RequestContext context, final MutableIssue issue, 
+      final ChangeRequestProjection projection, final String projectKeyString, final URI serviceProvider) throws URISyntaxException {
+    String currentMethod = "createChangeRequest";
     
-    return results;
-   }
+    JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue, projection, context);
+    jcr.setServiceProvider(serviceProvider);
+    
+    URI about;
+    try {
+      about = new URI(oslcBaseUri + "/" + projectKeyString + "/changeRequests/" + jcr.getIdentifier());
+    } 
+    catch (URISyntaxException e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      throw new WebApplicationException(e);
+    }
+    
+    jcr.setAbout(about);
+    return jcr;
+  }
 
 
    /**
@@ -184,7 +1025,7 @@ public class JiraManager {
       final IssueManager issueManager = ComponentAccessor.getIssueManager();
       final MutableIssue issue = issueManager.getIssueObject(issueId); 
 
-      JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue);
+      JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue, ChangeRequestProjection.ALL, RequestContext.get(request));
       return jcr;
    }
    
@@ -201,7 +1042,40 @@ public class JiraManager {
     */
    public static JiraChangeRequest getIssueById(final HttpServletRequest request, final String issueId)
          throws IOException, ServletException, URISyntaxException, PermissionException, NoResourceException {
-     
+      return getIssueById(request, issueId, ChangeRequestProjection.ALL);
+   }
+   
+   /**
+    * Get a Jira Issue by id. Only the properties included in the projection are loaded.
+    * 
+    * @param request
+    * @param IssueIdString
+    * @param projection the properties of change request which have to be loaded
+    * @return Issue
+    * @throws IOException
+    * @throws ServletException
+    * @throws PermissionException 
+    * @throws NoResourceException 
+    */
+   public static JiraChangeRequest getIssueById(final HttpServletRequest request, final String issueId, final ChangeRequestProjection projection)
+         throws IOException, ServletException, URISyntaxException, PermissionException, NoResourceException {
+      final MutableIssue issue = getReadableIssue(request, issueId);
+      
+      JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue, projection, RequestContext.get(request));
+      return jcr;
+   }
+   
+   /**
+    * Get a Jira Issue by id and check that the user can browse it. The issue isn't converted
+    * to the change request, so it can be used for cheap checks (e.g. the time of last update).
+    * 
+    * @param request
+    * @param issueId the id or the key of the issue
+    * @return Issue
+    * @throws PermissionException 
+    * @throws NoResourceException 
+    */
+   public static MutableIssue getReadableIssue(final HttpServletRequest request, final String issueId) throws PermissionException, NoResourceException {
       final IssueManager issueManager = ComponentAccessor.getIssueManager();
       final MutableIssue issue = issueManager.getIssueObject(issueId); 
       
@@ -210,9 +1084,7 @@ public class JiraManager {
       }
 
       PermissionManager.checkPermission(request, issue, Permissions.BROWSE);
-      
-      JiraChangeRequest jcr = JiraChangeRequest.fromJiraIssue(issue);
-      return jcr;
+      return issue;
    }
 
    /**
@@ -349,6 +1221,133 @@ public class JiraManager {
       return null;
     }
 
+    /**
+     * Create new JIRA issues from JiraChangeRequests. All change requests are validated first and then 
+     * the valid ones are created. The user, the project, the issue types, the components and the versions 
+     * are resolved once for all change requests. The components and the versions are set during 
+     * the creation of the issue.
+     * 
+     * @param httpServletRequest
+     * @param jcrs the change requests which will be created
+     * @param projectIdString the id of project
+     * @return the results of the change requests in the same order. The created issue has the status code 201 
+     *  and the URI of the new change request, the invalid one has the status code 400 and the validation message.
+     * @throws Exception the project doesn't exist or the user can't create the issues in the project
+     */
+    public static List<JiraBatchItem> createIssues(HttpServletRequest httpServletRequest, final List<JiraChangeRequest> jcrs, final String projectIdString) throws Exception {
+      logger.debug("JiraManager - createIssues");
+      
+      String userName = PermissionManager.getUserName(httpServletRequest);
+      UserManager um = ComponentAccessor.getComponent(UserManager.class);
+      ApplicationUser appUser = um.getUserByName(userName);
+      User user = ApplicationUsers.toDirectoryUser(appUser);
+      ComponentAccessor.getJiraAuthenticationContext().setLoggedInUser(appUser);
+      
+      ProjectManager projectManager = ComponentAccessor.getComponent(ProjectManager.class);
+      Project p = projectManager.getProjectObj(new Long(projectIdString));
+      if (p == null) {
+        logger.warn("Project does not exist!");
+        throw new PreconditionException("Project with id " + projectIdString + " does not exist!");
+      }
+      
+      PermissionManager.checkPermission(appUser, p, Permissions.CREATE_ISSUE);
+      
+      //shared lookups of the project
+      Set<String> issueTypeIds = new HashSet<String>();
+      for (IssueType issueType : p.getIssueTypes()) {
+        issueTypeIds.add(issueType.getId());
+      }
+      Map<String, Long> componentIds = new HashMap<String, Long>();
+      for (ProjectComponent component : p.getProjectComponents()) {
+        componentIds.put(component.getName(), component.getId());
+      }
+      Map<String, Long> versionIds = new HashMap<String, Long>();
+      for (Version version : p.getVersions()) {
+        versionIds.put(version.getName(), version.getId());
+      }
+      
+      IssueService issueService = ComponentAccessor.getComponent(IssueService.class);
+      RequestContext context = RequestContext.get(httpServletRequest);
+      String changeRequestsUri = ServiceHelper.getOslcBaseUri(httpServletRequest) + "/" + projectIdString + "/changeRequests/";
+      
+      //validation of all change requests before the first issue is created
+      List<JiraBatchItem> results = new ArrayList<JiraBatchItem>();
+      List<CreateValidationResult> validationResults = new ArrayList<CreateValidationResult>();
+      for (int i = 0; i < jcrs.size(); i++) {
+        JiraChangeRequest jcr = jcrs.get(i);
+        JiraBatchItem result = new JiraBatchItem(null, i, HttpServletResponse.SC_BAD_REQUEST, null);
+        result.setSource(jcr.getAbout());
+        results.add(result);
+        validationResults.add(null);
+        
+        jcr.setProjectId(p.getId());
+        jcr.setProject(p.getKey());
+        if (jcr.getReporter() == null || jcr.getReporter().isEmpty()) {
+          jcr.setReporter(user.getName());
+        }
+        
+        try {
+          IssueInputParameters issueInputParams = JiraChangeRequest.toIssueParameters(jcr, null, null, null, null, p, context).getIssueInputParameters();
+          if (issueInputParams.getIssueTypeId() != null && !issueTypeIds.contains(issueInputParams.getIssueTypeId())) {
+            result.setMessage("The issue type " + issueInputParams.getIssueTypeId() + " isn't valid for the project " + p.getKey() + ".");
+            continue;
+          }
+          issueInputParams.setComponentIds(namesToIds(componentIds, jcr.getComponents()));
+          issueInputParams.setAffectedVersionIds(namesToIds(versionIds, jcr.getAffectsVersions()));
+          issueInputParams.setFixVersionIds(namesToIds(versionIds, jcr.getFixVersions()));
+          
+          CreateValidationResult validationResult = issueService.validateCreate(user, issueInputParams);
+          if (validationResult.isValid()) {
+            validationResults.set(i, validationResult);
+          } else {
+            result.setMessage(getErrorMessage(validationResult.getErrorCollection()));
+          }
+        } catch (Exception e) {
+          logger.warn("Create issues - the change request " + i + " is not valid: " + e.getMessage());
+          result.setMessage(e.getMessage());
+        }
+      }
+      
+      for (int i = 0; i < jcrs.size(); i++) {
+        CreateValidationResult validationResult = validationResults.get(i);
+        if (validationResult == null) {
+          continue;
+        }
+        
+        JiraBatchItem result = results.get(i);
+        IssueResult issueResult = issueService.create(user, validationResult);
+        if (issueResult.isValid() && issueResult.getIssue() != null) {
+          String key = issueResult.getIssue().getKey();
+          result.setAbout(URI.create(changeRequestsUri + URLEncoder.encode(key, "UTF-8")));
+          result.setStatusCode(String.valueOf(HttpServletResponse.SC_CREATED));
+        } else {
+          logger.warn("Error during creating issue");
+          result.setMessage(getErrorMessage(issueResult.getErrorCollection()));
+        }
+      }
+      
+      return results;
+    }
+    
+    /**
+     * Returns the ids of the names. The names which don't exist are ignored.
+     * @param ids the ids by the names
+     * @param names the names
+     * @return the ids of the names
+     */
+    private static Long[] namesToIds(final Map<String, Long> ids, final List<String> names) {
+      List<Long> result = new ArrayList<Long>();
+      if (names != null) {
+        for (String name : names) {
+          Long id = ids.get(name);
+          if (id != null) {
+            result.add(id);
+          }
+        }
+      }
+      return result.toArray(new Long[result.size()]);
+    }
+
     /**
      * Returns the list of projects where the users has Browse permission. The list is filtered by defined filter
      * in the plugin configuration
@@ -680,11 +1679,14 @@ public class JiraManager {
       selectedProperties = null;
     }
     
-    // If user has the permission to edit issue (checked above), there still could be restrictions
-    // to edit certain field (e.g. user can't change reporter). So following statement checks
-    // also for some of sub-permissions.
-    if (selectedProperties != null && syncType == null) {
-      PermissionManager.checkUpdatePermissions(appUser, issue, jcr, selectedProperties);
+    if (syncType == null) {
+      try {
+        updateIssue(appUser, user, issueService, issue, jcr, selectedProperties, RequestContext.get(httpServletRequest));
+      } catch (Exception e) {
+        logger.error("Error", e);
+        throw e;
+      }
+      return;
     }
 
     // check configuration. If occurs error => not possible to set to ErrorSnapshot. Unknown "projectId"  
@@ -726,45 +1728,9 @@ public class JiraManager {
         }
       }
 
-      IssueValidationResult validationResult = issueService.validateUpdate(user, issue.getId(), issueInputParams);
-      if (!validationResult.isValid()) {
-        logger.warn("Update issue - parameters are not valid.");
-        ErrorCollection errorCollection = validationResult.getErrorCollection();
-        throwErrorException(errorCollection);
-      }
-
-      IssueService.IssueResult issueResult = issueService.update(user, (UpdateValidationResult)validationResult);
-      if (!issueResult.isValid()) {
-        logger.warn("Error during updating issue");
-        ErrorCollection errorCollection = issueResult.getErrorCollection();
-        throwErrorException(errorCollection);
-      }
-
-      //after successful update, check if there is also request for change state
-      MutableIssue updatedIssue = issueResult.getIssue();
-      if (updatedIssue != null && syncType == null) {
-        String statusId = issueInputParams.getStatusId();
-        if (statusId != null) {
-          changeIssueState(issueResult.getIssue(), statusId);
-        }
-
-        if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_LABEL)) {
-          FieldManager.updateLabels(updatedIssue, jcr, user);
-        }
-
-        if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_VOTER)) {
-          FieldManager.updateVoters(updatedIssue, jcr, user);
-        }
-
-        if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_WATCHER)) {
-          FieldManager.updateWatchers(updatedIssue, jcr, user);
-        }
-      }
+      validateAndUpdate(user, issueService, issue, issueInputParams);
     } catch (Exception e) {
       logger.error("Error", e);
-      if (syncType == null) {
-        throw e;
-      }
       //continue for LeanSync
       generateStatusLog = true; // occurs error => generate snapshot and status information
       jiraIssueInputParams.getErrorSyncHandler().addMessage(e.getMessage());
@@ -788,12 +1754,166 @@ public class JiraManager {
 
   }
   
+  /**
+   * Updates the issue by the change request without LeanSync. The user has to have the permission 
+   * to edit the issue.
+   * @param appUser the user who updates the issue
+   * @param user the user who updates the issue
+   * @param issueService IssueService
+   * @param issue the issue which will be updated
+   * @param jcr the change request with the new values
+   * @param selectedProperties the properties which will be updated. If it's null, all properties will be updated.
+   * @param context the context of the request
+   * @throws Exception
+   */
+  private static void updateIssue(final ApplicationUser appUser, final User user, final IssueService issueService, final MutableIssue issue, 
+      final JiraChangeRequest jcr, final Map<String, Object> selectedProperties, final RequestContext context) throws Exception {
+    // If user has the permission to edit issue, there still could be restrictions
+    // to edit certain field (e.g. user can't change reporter). So following statement checks
+    // also for some of sub-permissions.
+    if (selectedProperties != null) {
+      PermissionManager.checkUpdatePermissions(appUser, issue, jcr, selectedProperties);
+    }
+    
+    IssueInputParameters issueInputParams = JiraChangeRequest.toIssueParameters(jcr, issue, selectedProperties, null, null, issue.getProjectObject(), context).getIssueInputParameters();
+    MutableIssue updatedIssue = validateAndUpdate(user, issueService, issue, issueInputParams);
+    
+    //after successful update, check if there is also request for change state
+    if (updatedIssue != null) {
+      String statusId = issueInputParams.getStatusId();
+      if (statusId != null) {
+        changeIssueState(updatedIssue, statusId);
+      }
+
+      if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_LABEL)) {
+        FieldManager.updateLabels(updatedIssue, jcr, user);
+      }
+
+      if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_VOTER)) {
+        FieldManager.updateVoters(updatedIssue, jcr, user, context);
+      }
+
+      if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_WATCHER)) {
+        FieldManager.updateWatchers(updatedIssue, jcr, user, context);
+      }
+    }
+  }
+  
+  /**
+   * Validates the parameters of the issue and updates the issue
+   * @param user the user who updates the issue
+   * @param issueService IssueService
+   * @param issue the issue which will be updated
+   * @param issueInputParams the new values of the issue
+   * @return the updated issue
+   * @throws IssueValidationException the parameters aren't valid or the update failed
+   */
+  private static MutableIssue validateAndUpdate(final User user, final IssueService issueService, final MutableIssue issue, 
+      final IssueInputParameters issueInputParams) throws IssueValidationException {
+    IssueValidationResult validationResult = issueService.validateUpdate(user, issue.getId(), issueInputParams);
+    if (!validationResult.isValid()) {
+      logger.warn("Update issue - parameters are not valid.");
+      ErrorCollection errorCollection = validationResult.getErrorCollection();
+      throwErrorException(errorCollection);
+    }
+
+    IssueService.IssueResult issueResult = issueService.update(user, (UpdateValidationResult)validationResult);
+    if (!issueResult.isValid()) {
+      logger.warn("Error during updating issue");
+      ErrorCollection errorCollection = issueResult.getErrorCollection();
+      throwErrorException(errorCollection);
+    }
+    return issueResult.getIssue();
+  }
+  
+  /**
+   * Updates more issues by the change requests without LeanSync. The user and the issues are loaded once 
+   * for all change requests. The failure of one issue doesn't stop the update of the other ones.
+   * 
+   * @param httpServletRequest HttpServletRequest
+   * @param jcrs the change requests with the new values
+   * @param issueIds the ids or the keys of the issues which will be updated, in the order of the change requests
+   * @param selectedProperties the properties which will be updated. If it's null, all properties will be updated.
+   * @param projectKeyString the key of project as String
+   * @return the results of the change requests in the same order. The updated issue has the status code 200, 
+   *  the failed one has the status code (400, 403, 404 or 500) and the message. The issue of other project has the status code 404.
+   * @throws UnsupportedEncodingException
+   */
+  public static List<JiraBatchItem> updateIssues(final HttpServletRequest httpServletRequest, final List<JiraChangeRequest> jcrs, 
+      final List<String> issueIds, Map<String, Object> selectedProperties, final String projectKeyString) throws UnsupportedEncodingException {
+    logger.debug("JiraManager - updateIssues");
+    
+    String userName = PermissionManager.getUserName(httpServletRequest);
+    UserManager um = ComponentAccessor.getComponent(UserManager.class);
+    ApplicationUser appUser = um.getUserByName(userName);
+    ComponentAccessor.getJiraAuthenticationContext().setLoggedInUser(appUser);
+    User user = ApplicationUsers.toDirectoryUser(appUser);
+    IssueService issueService = ComponentAccessor.getIssueService();
+    
+    if (selectedProperties != null && selectedProperties.isEmpty()) {
+      selectedProperties = null;
+    }
+    
+    List<MutableIssue> issues = loadIssues(issueIds);
+    RequestContext context = RequestContext.get(httpServletRequest);
+    List<JiraBatchItem> results = new ArrayList<JiraBatchItem>();
+    String changeRequestsUri = ServiceHelper.getOslcBaseUri(httpServletRequest) + "/" + projectKeyString + "/changeRequests/";
+    
+    for (int i = 0; i < jcrs.size(); i++) {
+      String issueId = issueIds.get(i);
+      MutableIssue issue = issues.get(i);
+      JiraBatchItem result = new JiraBatchItem(URI.create(changeRequestsUri + URLEncoder.encode(issueId, "UTF-8")), i, HttpServletResponse.SC_OK, null);
+      result.setSource(jcrs.get(i).getAbout());
+      results.add(result);
+      
+      if (issue == null || !isIssueOfProject(issue, projectKeyString)) {
+        result.setStatusCode(String.valueOf(HttpServletResponse.SC_NOT_FOUND));
+        result.setMessage("Issue with id " + issueId + " does not exist in the project!");
+        continue;
+      }
+      if (!PermissionManager.hasPermission(appUser, issue, Permissions.EDIT_ISSUE)) {
+        result.setStatusCode(String.valueOf(HttpServletResponse.SC_FORBIDDEN));
+        //the anonymous user or the user which doesn't exist in JIRA
+        String name = (appUser != null) ? appUser.getName() : userName;
+        result.setMessage("User " + name + " has not permission to edit the issue " + issueId + "!");
+        continue;
+      }
+      
+      try {
+        updateIssue(appUser, user, issueService, issue, jcrs.get(i), selectedProperties, context);
+      } catch (PermissionException e) {
+        result.setStatusCode(String.valueOf(HttpServletResponse.SC_FORBIDDEN));
+        result.setMessage(e.getMessage());
+      } catch (IssueValidationException e) {
+        result.setStatusCode(String.valueOf(HttpServletResponse.SC_BAD_REQUEST));
+        result.setMessage(e.getMessage());
+      } catch (Exception e) {
+        logger.error("Error", e);
+        result.setStatusCode(String.valueOf(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        result.setMessage(e.getMessage());
+      }
+    }
+    
+    return results;
+  }
+  
   /**
    * It prepares error message from Error Collection and then throws IssueValidationException
    * @param errorCollection collection of errors
    * @throws IssueValidationException if the errors is not empty then throws IssueValidationException
    */
   private static void throwErrorException(ErrorCollection errorCollection) throws IssueValidationException{
+    String message = getErrorMessage(errorCollection);
+    logger.warn("Validation result: " + message);
+    throw new IssueValidationException(message);
+  }
+  
+  /**
+   * Returns the errors and the error messages of the collection as the message
+   * @param errorCollection the collection of errors
+   * @return the message containing all errors
+   */
+  private static String getErrorMessage(ErrorCollection errorCollection) {
     StringBuilder sb = new StringBuilder();
     
     Map<String, String> errors = errorCollection.getErrors();
@@ -805,9 +1925,7 @@ public class JiraManager {
     if (errorMessages != null && !errorMessages.isEmpty()) {
       sb.append(errorMessages.toString());
     }
-    String message = sb.toString();
-    logger.warn("Validation result: " + message);
-    throw new IssueValidationException(message);
+    return sb.toString();
   }
 
 
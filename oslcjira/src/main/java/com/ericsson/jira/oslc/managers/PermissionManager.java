@@ -48,6 +48,7 @@ import com.ericsson.jira.oslc.resources.JiraChangeRequest;
 import com.ericsson.jira.oslc.resources.JiraIssueStatus;
 import com.ericsson.jira.oslc.servlet.CredentialsFilter;
 import com.ericsson.jira.oslc.utils.OSLCUtils;
+import com.ericsson.jira.oslc.utils.RequestContext;
 
 
 /**
@@ -65,6 +66,22 @@ public class PermissionManager {
    * @throws PermissionException if the user doesn't have the permission the exception will be thrown
    */
   public static void checkPermission(final HttpServletRequest request, final Issue issue, int permission) throws PermissionException {
+    ApplicationUser appUser = getUserForPermissions(request);
+
+    boolean allowed = hasPermission(appUser, issue, permission);
+    if (!allowed) {
+      throw new PermissionException();
+    }
+  }
+  
+  /**
+   * Returns the user whose permissions are checked. It's the user from the request or the logged user.
+   * It can be used to resolve the user once when the permissions of many issues are checked.
+   * @param request HttpServletRequest
+   * @return the user whose permissions are checked
+   * @throws PermissionException if the user isn't defined
+   */
+  public static ApplicationUser getUserForPermissions(final HttpServletRequest request) throws PermissionException {
     ApplicationUser appUser = null;
     if (request != null) {
       appUser = getAppUserFromRequest(request);
@@ -75,11 +92,7 @@ public class PermissionManager {
         throw new PermissionException("User is not defined.");
       }
     }
-
-    boolean allowed = hasPermission(appUser, issue, permission);
-    if (!allowed) {
-      throw new PermissionException();
-    }
+    return appUser;
   }
 
   /**
@@ -241,15 +254,7 @@ public class PermissionManager {
    * @return logged user
    */
   public static ApplicationUser getAppUserFromRequest(final HttpServletRequest request){
-    String userName = getUserName(request);
-    
-    if(userName != null && !userName.trim().isEmpty()){
-      UserManager um = ComponentAccessor.getComponent(UserManager.class);
-      ApplicationUser appUser = um.getUserByName(userName);
-      return appUser;
-    }
-    
-    return null;
+    return RequestContext.get(request).getUser();
   }
   
   /**
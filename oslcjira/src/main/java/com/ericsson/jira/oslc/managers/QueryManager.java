@@ -0,0 +1,738 @@
+package com.ericsson.jira.oslc.managers;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.eclipse.lyo.core.query.BooleanValue;
+import org.eclipse.lyo.core.query.ComparisonTerm;
+import org.eclipse.lyo.core.query.DecimalValue;
+import org.eclipse.lyo.core.query.InTerm;
+import org.eclipse.lyo.core.query.LangedStringValue;
+import org.eclipse.lyo.core.query.OrderByClause;
+import org.eclipse.lyo.core.query.PName;
+import org.eclipse.lyo.core.query.SimpleSortTerm;
+import org.eclipse.lyo.core.query.SimpleTerm;
+import org.eclipse.lyo.core.query.SortTerm;
+import org.eclipse.lyo.core.query.StringValue;
+import org.eclipse.lyo.core.query.TypedValue;
+import org.eclipse.lyo.core.query.UriRefValue;
+import org.eclipse.lyo.core.query.Value;
+import org.eclipse.lyo.core.query.WhereClause;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Link;
+import org.apache.lucene.document.NumberTools;
+import org.apache.lucene.search.TermRangeQuery;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.atlassian.jira.issue.index.DocumentConstants;
+import com.atlassian.jira.jql.builder.JqlClauseBuilder;
+import com.atlassian.jira.jql.builder.JqlOrderByBuilder;
+import com.atlassian.jira.jql.builder.JqlQueryBuilder;
+import com.atlassian.query.Query;
+import com.atlassian.query.clause.Clause;
+import com.atlassian.query.clause.OrClause;
+import com.atlassian.query.clause.TerminalClauseImpl;
+import com.atlassian.query.operand.EmptyOperand;
+import com.atlassian.query.operand.MultiValueOperand;
+import com.atlassian.query.operand.Operand;
+import com.atlassian.query.operand.SingleValueOperand;
+import com.atlassian.query.operator.Operator;
+import com.atlassian.query.order.SortOrder;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+import com.ericsson.jira.oslc.resources.JiraChangeRequest;
+import com.ericsson.jira.oslc.utils.PageCursor;
+
+/**
+ * It contains the methods for translation of OSLC query (oslc.where, oslc.orderBy, oslc.searchTerms) to JIRA query (JQL).
+ * The terms which can't be evaluated by JIRA index exactly are evaluated in memory over the change requests.
+ *
+ */
+public class QueryManager {
+  private static final String CURRENT_CLASS = "QueryManager";
+  private static Logger logger = LoggerFactory.getLogger(QueryManager.class);
+  
+  private static final String JQL_ISSUE_KEY = "issuekey";
+  //JQL field for the search in summary, description, environment, comments and text custom fields
+  private static final String JQL_TEXT = "text";
+  private static final String JQL_DATE_FORMAT = "yyyy/MM/dd HH:mm";
+  private static final long MINUTE_IN_MILLIS = 60L * 1000;
+  private static final long DAY_IN_MILLIS = 24L * 60 * MINUTE_IN_MILLIS;
+  
+  /**
+   * The kind of JIRA field. It determines how the term is translated to JQL.
+   */
+  private enum FieldKind {
+    /** Text field, JQL supports only "contains" operator */
+    TEXT,
+    /** Date field, JQL supports the dates with minute precision */
+    DATE,
+    /** Field with a value identified by id or name (status, priority, issue type) */
+    OPTION,
+    /** Single value field */
+    VALUE,
+    /** Multi value field (components, versions, labels) */
+    MULTI_VALUE
+  }
+  
+  /**
+   * JIRA field which the property of change request is mapped to
+   */
+  private static class JqlField {
+    private final String name;
+    private final FieldKind kind;
+    //the field can be empty (e.g. unassigned issue)
+    private final boolean nullable;
+    
+    JqlField(String name, FieldKind kind) {
+      this(name, kind, true);
+    }
+    
+    JqlField(String name, FieldKind kind, boolean nullable) {
+      this.name = name;
+      this.kind = kind;
+      this.nullable = nullable;
+    }
+  }
+  
+  private static final Map<String, JqlField> JQL_FIELDS = new HashMap<String, JqlField>();
+  static {
+    JQL_FIELDS.put(Constants.DCTERMS_TITLE, new JqlField("summary", FieldKind.TEXT));
+    JQL_FIELDS.put(OslcConstants.DCTERMS_NAMESPACE + "modified", new JqlField("updated", FieldKind.DATE));
+    JQL_FIELDS.put(OslcConstants.DCTERMS_NAMESPACE + "created", new JqlField("created", FieldKind.DATE));
+    JQL_FIELDS.put(Constants.DCTERMS_IDENTIFIER, new JqlField(JQL_ISSUE_KEY, FieldKind.VALUE, false));
+    JQL_FIELDS.put(Constants.JIRA_NAMESPACE + "issueStatus", new JqlField("status", FieldKind.OPTION, false));
+    JQL_FIELDS.put(Constants.JIRA_NAMESPACE + "issuePriority", new JqlField("priority", FieldKind.OPTION));
+    JQL_FIELDS.put(Constants.JIRA_NAMESPACE + "issueType", new JqlField("issuetype", FieldKind.OPTION, false));
+    JQL_FIELDS.put(Constants.JIRA_TYPE_ASIGNEE, new JqlField("assignee", FieldKind.VALUE));
+    JQL_FIELDS.put(Constants.JIRA_TYPE_COMPONENT, new JqlField("component", FieldKind.MULTI_VALUE));
+    JQL_FIELDS.put(Constants.JIRA_TYPE_AFFECTS_VERSION, new JqlField("affectedVersion", FieldKind.MULTI_VALUE));
+    JQL_FIELDS.put(Constants.JIRA_TYPE_FIX_VERSION, new JqlField("fixVersion", FieldKind.MULTI_VALUE));
+    JQL_FIELDS.put(Constants.JIRA_TYPE_LABEL, new JqlField("labels", FieldKind.MULTI_VALUE));
+  }
+  
+  //the JIRA fields which the change requests can be sorted by
+  private static final Map<String, String> SORT_FIELDS = new HashMap<String, String>();
+  static {
+    SORT_FIELDS.put(Constants.DCTERMS_TITLE, "summary");
+    SORT_FIELDS.put(Constants.DCTERMS_IDENTIFIER, JQL_ISSUE_KEY);
+    SORT_FIELDS.put(OslcConstants.DCTERMS_NAMESPACE + "modified", "updated");
+    SORT_FIELDS.put(OslcConstants.DCTERMS_NAMESPACE + "created", "created");
+    SORT_FIELDS.put(OslcConstants.DCTERMS_NAMESPACE + "resolutionDate", "resolutiondate");
+    SORT_FIELDS.put(Constants.DCTERMS_DUEDATE, "duedate");
+    SORT_FIELDS.put(Constants.JIRA_NAMESPACE + "issueStatus", "status");
+    SORT_FIELDS.put(Constants.JIRA_NAMESPACE + "issuePriority", "priority");
+    SORT_FIELDS.put(Constants.JIRA_NAMESPACE + "issueType", "issuetype");
+    SORT_FIELDS.put(Constants.JIRA_TYPE_ASIGNEE, "assignee");
+    SORT_FIELDS.put(Constants.JIRA_TYPE_REPORTER, "reporter");
+    SORT_FIELDS.put(Constants.JIRA_TYPE_COMPONENT, "component");
+    SORT_FIELDS.put(Constants.JIRA_TYPE_AFFECTS_VERSION, "affectedVersion");
+    SORT_FIELDS.put(Constants.JIRA_TYPE_FIX_VERSION, "fixVersion");
+  }
+  
+  //the index fields of the properties which the issues can be grouped by (facets)
+  private static final Map<String, String> FACET_FIELDS = new HashMap<String, String>();
+  static {
+    FACET_FIELDS.put(Constants.JIRA_NAMESPACE + "issueStatus", DocumentConstants.ISSUE_STATUS);
+    FACET_FIELDS.put(Constants.JIRA_NAMESPACE + "issuePriority", DocumentConstants.ISSUE_PRIORITY);
+    FACET_FIELDS.put(Constants.JIRA_NAMESPACE + "issueType", DocumentConstants.ISSUE_TYPE);
+    FACET_FIELDS.put(Constants.JIRA_TYPE_ASIGNEE, DocumentConstants.ISSUE_ASSIGNEE);
+    FACET_FIELDS.put(Constants.JIRA_TYPE_COMPONENT, DocumentConstants.ISSUE_COMPONENT);
+  }
+  
+  //the getters of change request properties, the key is the property definition (namespace + name)
+  private static final Map<String, Method> PROPERTY_GETTERS = new HashMap<String, Method>();
+  static {
+    for (Method method : JiraChangeRequest.class.getMethods()) {
+      OslcPropertyDefinition definition = method.getAnnotation(OslcPropertyDefinition.class);
+      if (definition != null && method.getParameterTypes().length == 0) {
+        PROPERTY_GETTERS.put(definition.value(), method);
+      }
+    }
+  }
+  
+  /**
+   * Creates JIRA query which returns the issues of the project matching to oslc.where clause
+   * sorted by oslc.orderBy clause. The terms which can't be evaluated by JIRA exactly are added to the list of residual terms.
+   * These terms have to be evaluated by {@link #matches(JiraChangeRequest, List)} over the found issues.
+   * 
+   * @param projectId the id of the project
+   * @param whereClause parsed oslc.where clause. It can be null.
+   * @param orderByClause parsed oslc.orderBy clause. It can be null.
+   * @param searchTerms parsed oslc.searchTerms. The issues containing at least one of the terms 
+   * in the summary, description, environment or comments are returned. It can be null.
+   * @param residualTerms the list which the terms evaluated in memory are added to
+   * @return JIRA query
+   * @throws QueryException the clause contains unknown property or unsupported term, or both oslc.orderBy 
+   * and oslc.searchTerms are specified (the issues found by oslc.searchTerms are ranked by the score)
+   */
+  public static Query createQuery(final Long projectId, final WhereClause whereClause, final OrderByClause orderByClause, final List<String> searchTerms, final List<SimpleTerm> residualTerms) throws QueryException {
+    JqlQueryBuilder builder = JqlQueryBuilder.newBuilder();
+    JqlClauseBuilder where = builder.where().project(projectId);
+    
+    if (whereClause != null) {
+      for (SimpleTerm term : whereClause.children()) {
+        if (!translateTerm(term, where)) {
+          residualTerms.add(term);
+        }
+      }
+    }
+    
+    if (searchTerms != null && !searchTerms.isEmpty()) {
+      if (orderByClause != null && !orderByClause.children().isEmpty()) {
+        throw new QueryException("oslc.orderBy can't be used with oslc.searchTerms, the issues are ranked by the score of the full-text search.");
+      }
+      
+      List<Clause> textClauses = new ArrayList<Clause>();
+      for (String searchTerm : searchTerms) {
+        String phrase = toPhrase(searchTerm);
+        if (!phrase.isEmpty()) {
+          textClauses.add(new TerminalClauseImpl(JQL_TEXT, Operator.LIKE, phrase));
+        }
+      }
+      if (textClauses.isEmpty()) {
+        throw new QueryException("oslc.searchTerms doesn't contain any term.");
+      }
+      where.and().addClause(textClauses.size() == 1 ? textClauses.get(0) : new OrClause(textClauses));
+    }
+    
+    JqlOrderByBuilder orderBy = builder.orderBy();
+    Set<String> sortFields = new HashSet<String>();
+    if (orderByClause != null) {
+      for (SortTerm sortTerm : orderByClause.children()) {
+        if (sortTerm.type() != SortTerm.Type.SIMPLE) {
+          throw new QueryException("Scoped sort terms aren't supported: " + sortTerm);
+        }
+        
+        SimpleSortTerm simpleSortTerm = (SimpleSortTerm) sortTerm;
+        String field = SORT_FIELDS.get(getPropertyKey(simpleSortTerm.identifier()));
+        if (field == null) {
+          throw new QueryException("Sorting by the property " + simpleSortTerm.identifier() + " isn't supported.");
+        }
+        
+        if (sortFields.add(field)) {
+          orderBy.add(field, simpleSortTerm.ascending() ? SortOrder.ASC : SortOrder.DESC);
+        }
+      }
+    }
+    
+    //issue key as the tie-breaker, the order of issues with the same values is stable for paging.
+    //The key is unique and it follows the order of issue ids within the project.
+    if (sortFields.add(JQL_ISSUE_KEY)) {
+      orderBy.add(JQL_ISSUE_KEY, SortOrder.ASC);
+    }
+    return builder.buildQuery();
+  }
+  
+  /**
+   * Returns the order of the issue key if the issues are sorted only by the issue key (oslc.orderBy 
+   * is missing or it contains only dcterms:identifier) and they aren't ranked by the full-text search.
+   * Only such query results can be read by the continuation tokens (see {@link PageCursor}).
+   * @param orderByClause parsed oslc.orderBy clause. It can be null.
+   * @param searchTerms parsed oslc.searchTerms. It can be null.
+   * @return the order of the issue key or null if the issues are sorted by other properties
+   */
+  public static SortOrder getKeySortOrder(final OrderByClause orderByClause, final List<String> searchTerms) {
+    if (searchTerms != null && !searchTerms.isEmpty()) {
+      return null;
+    }
+    if (orderByClause == null || orderByClause.children().isEmpty()) {
+      return SortOrder.ASC;
+    }
+    
+    SortOrder order = null;
+    for (SortTerm sortTerm : orderByClause.children()) {
+      if (sortTerm.type() != SortTerm.Type.SIMPLE) {
+        return null;
+      }
+      SimpleSortTerm simpleSortTerm = (SimpleSortTerm) sortTerm;
+      if (!JQL_ISSUE_KEY.equals(SORT_FIELDS.get(getPropertyKey(simpleSortTerm.identifier())))) {
+        return null;
+      }
+      //the first occurrence of the key determines the order
+      if (order == null) {
+        order = simpleSortTerm.ascending() ? SortOrder.ASC : SortOrder.DESC;
+      }
+    }
+    return order;
+  }
+  
+  /**
+   * Creates Lucene query which matches the issues after the cursor. The issues are compared
+   * by the number of the issue key, so the query works even if the issue of the cursor was deleted.
+   * @param cursor the position of the last issue of the previous page
+   * @param order the order of the issue key
+   * @return Lucene query which matches the issues after the cursor
+   */
+  public static org.apache.lucene.search.Query createKeyRangeQuery(final PageCursor cursor, final SortOrder order) {
+    String keyNumber = NumberTools.longToString(cursor.getKeyNumber());
+    if (order == SortOrder.DESC) {
+      return new TermRangeQuery(DocumentConstants.ISSUE_KEY_NUM_PART_RANGE, null, keyNumber, false, false);
+    }
+    return new TermRangeQuery(DocumentConstants.ISSUE_KEY_NUM_PART_RANGE, keyNumber, null, false, false);
+  }
+  
+  /**
+   * Parses the list of the properties which the issues are grouped by, e.g. "jira:issueStatus,jira:assignee".
+   * @param groupBy the prefixed names of the properties separated by comma
+   * @param prefixMap the prefixes, the key is the prefix
+   * @return the properties (namespace + name) in the order of the list
+   * @throws QueryException the property has unknown prefix or the issues can't be grouped by it
+   */
+  public static List<String> parseFacetProperties(final String groupBy, final Map<String, String> prefixMap) throws QueryException {
+    List<String> properties = new ArrayList<String>();
+    if (groupBy == null || groupBy.trim().isEmpty()) {
+      throw new QueryException("The properties which the issues are grouped by have to be specified.");
+    }
+    
+    for (String name : groupBy.split(",")) {
+      String trimmed = name.trim();
+      int colon = trimmed.indexOf(':');
+      String namespace = (colon > 0) ? prefixMap.get(trimmed.substring(0, colon)) : null;
+      if (namespace == null) {
+        throw new QueryException("Invalid property " + trimmed + ". The property has to be a prefixed name.");
+      }
+      
+      String key = normalizePropertyKey(namespace + trimmed.substring(colon + 1));
+      if (!FACET_FIELDS.containsKey(key)) {
+        throw new QueryException("The issues can't be grouped by " + trimmed + ".");
+      }
+      if (!properties.contains(key)) {
+        properties.add(key);
+      }
+    }
+    return properties;
+  }
+  
+  /**
+   * Returns the index field of the property which the issues are grouped by
+   * @param property the property (namespace + name)
+   * @return the index field or null if the issues can't be grouped by the property
+   */
+  public static String getFacetField(final String property) {
+    return FACET_FIELDS.get(property);
+  }
+  
+  /**
+   * Checks if the issue can have more values of the property (e.g. components)
+   * @param property the property (namespace + name)
+   * @return true if the property is multi value field, otherwise false
+   */
+  public static boolean isMultiValue(final String property) {
+    JqlField field = JQL_FIELDS.get(property);
+    return field != null && field.kind == FieldKind.MULTI_VALUE;
+  }
+  
+  /**
+   * Checks if the change request matches to all terms
+   * @param changeRequest the change request
+   * @param terms the terms of oslc.where clause
+   * @return true if the change request matches to all terms, otherwise false
+   * @throws QueryException
+   */
+  public static boolean matches(final JiraChangeRequest changeRequest, final List<SimpleTerm> terms) throws QueryException {
+    String currentMethod = "matches";
+    
+    for (SimpleTerm term : terms) {
+      Method getter = PROPERTY_GETTERS.get(getPropertyKey(term.property()));
+      Object propertyValue;
+      try {
+        propertyValue = getter.invoke(changeRequest);
+      } catch (Exception e) {
+        logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+        throw new QueryException("The property " + term.property() + " can't be evaluated.", e);
+      }
+      
+      if (!matchesTerm(term, toCollection(propertyValue))) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * Returns the properties of the terms (namespace + name)
+   * @param terms the terms of oslc.where clause
+   * @return the properties of the terms
+   */
+  public static Set<String> getProperties(final List<SimpleTerm> terms) {
+    Set<String> properties = new HashSet<String>();
+    for (SimpleTerm term : terms) {
+      properties.add(getPropertyKey(term.property()));
+    }
+    return properties;
+  }
+  
+  /**
+   * Translates the term to JQL clause and adds it to the query. The term can be translated
+   * only partially (e.g. dates have minute precision in JQL). In this case the clause selects 
+   * a superset of matching issues and the term has to be evaluated in memory as well.
+   * @param term the term of oslc.where
+   * @param where JQL clause builder
+   * @return true if the term is evaluated by JQL exactly, otherwise false
+   * @throws QueryException
+   */
+  static boolean translateTerm(final SimpleTerm term, final JqlClauseBuilder where) throws QueryException {
+    if (term.type() == SimpleTerm.Type.NESTED) {
+      throw new QueryException("Nested terms aren't supported: " + term);
+    }
+    
+    String propertyKey = getPropertyKey(term.property());
+    JqlField field = JQL_FIELDS.get(propertyKey);
+    if (field == null) {
+      if (!PROPERTY_GETTERS.containsKey(propertyKey)) {
+        throw new QueryException("Unknown property: " + term.property());
+      }
+      return false;
+    }
+    
+    if (term.type() == SimpleTerm.Type.IN_TERM) {
+      if (field.kind == FieldKind.TEXT || field.kind == FieldKind.DATE) {
+        return false;
+      }
+      List<Value> values = ((InTerm) term).values();
+      Operand[] operands = new Operand[values.size()];
+      for (int i = 0; i < values.size(); i++) {
+        operands[i] = toOperand(values.get(i), field.kind);
+      }
+      where.and().addClause(new TerminalClauseImpl(field.name, Operator.IN, new MultiValueOperand(operands)));
+      return true;
+    }
+    
+    ComparisonTerm comparison = (ComparisonTerm) term;
+    ComparisonTerm.Operator operator = comparison.operator();
+    
+    switch (field.kind) {
+      case TEXT:
+        if (operator == ComparisonTerm.Operator.EQUALS) {
+          //the phrase search returns also the issues which contain the value. The exact value is checked in memory.
+          String phrase = toPhrase(getValueString(comparison.operand()));
+          if (!phrase.isEmpty()) {
+            where.and().addClause(new TerminalClauseImpl(field.name, Operator.LIKE, phrase));
+          }
+        }
+        return false;
+        
+      case DATE:
+        translateDateTerm(field.name, operator, parseDate(getValueString(comparison.operand())), where);
+        return false;
+        
+      case MULTI_VALUE:
+        //JQL "!=" doesn't select issues without a value, it's checked in memory
+        if (operator == ComparisonTerm.Operator.EQUALS) {
+          where.and().addClause(new TerminalClauseImpl(field.name, Operator.EQUALS, toOperand(comparison.operand(), field.kind)));
+          return true;
+        }
+        return false;
+        
+      default:
+        if (operator == ComparisonTerm.Operator.EQUALS) {
+          where.and().addClause(new TerminalClauseImpl(field.name, Operator.EQUALS, toOperand(comparison.operand(), field.kind)));
+          return true;
+        }
+        if (operator == ComparisonTerm.Operator.NOT_EQUALS) {
+          Clause notEquals = new TerminalClauseImpl(field.name, Operator.NOT_EQUALS, toOperand(comparison.operand(), field.kind));
+          if (field.nullable) {
+            //JQL "!=" doesn't select issues without a value, but they don't have the value of the term
+            notEquals = new OrClause(notEquals, new TerminalClauseImpl(field.name, Operator.IS, EmptyOperand.EMPTY));
+          }
+          where.and().addClause(notEquals);
+          return true;
+        }
+        return false;
+    }
+  }
+  
+  /**
+   * Adds the date range to the query. JQL dates have minute precision and they are interpreted 
+   * in the time zone of the user. Therefore the range is widened by one day on each side 
+   * and the exact comparison is done in memory.
+   * @param fieldName the name of JIRA field
+   * @param operator the operator of the term
+   * @param date the date of the term
+   * @param where JQL clause builder
+   */
+  private static void translateDateTerm(final String fieldName, final ComparisonTerm.Operator operator, final Date date, final JqlClauseBuilder where) {
+    long minute = date.getTime() - (date.getTime() % MINUTE_IN_MILLIS);
+    SimpleDateFormat formatter = new SimpleDateFormat(JQL_DATE_FORMAT);
+    String lower = formatter.format(new Date(minute - DAY_IN_MILLIS));
+    String upper = formatter.format(new Date(minute + MINUTE_IN_MILLIS + DAY_IN_MILLIS));
+    
+    if (operator == ComparisonTerm.Operator.EQUALS || operator == ComparisonTerm.Operator.GREATER_THAN || operator == ComparisonTerm.Operator.GREATER_EQUALS) {
+      where.and().addClause(new TerminalClauseImpl(fieldName, Operator.GREATER_THAN_EQUALS, lower));
+    }
+    if (operator == ComparisonTerm.Operator.EQUALS || operator == ComparisonTerm.Operator.LESS_THAN || operator == ComparisonTerm.Operator.LESS_EQUALS) {
+      where.and().addClause(new TerminalClauseImpl(fieldName, Operator.LESS_THAN, upper));
+    }
+  }
+  
+  /**
+   * Converts the value of the term to JQL operand. The options (status, priority, issue type)
+   * can be identified by URI of the resource, id or name.
+   * @param value the value of the term
+   * @param kind the kind of JIRA field
+   * @return JQL operand
+   */
+  private static Operand toOperand(final Value value, final FieldKind kind) {
+    String valueString = getValueString(value);
+    if (kind == FieldKind.OPTION) {
+      if (value.type() == Value.Type.URI_REF) {
+        valueString = getLastSegment(valueString);
+      }
+      if (valueString.matches("\\d+")) {
+        return new SingleValueOperand(Long.valueOf(valueString));
+      }
+    }
+    return new SingleValueOperand(valueString);
+  }
+  
+  /**
+   * Checks if one of the values of the property matches to the term
+   * @param term the term of oslc.where
+   * @param values the values of the property
+   * @return true if the values match to the term, otherwise false
+   * @throws QueryException
+   */
+  private static boolean matchesTerm(final SimpleTerm term, final Collection<?> values) throws QueryException {
+    if (term.type() == SimpleTerm.Type.IN_TERM) {
+      for (Value value : ((InTerm) term).values()) {
+        for (Object propertyValue : values) {
+          Integer result = compare(propertyValue, value);
+          if (result != null && result.intValue() == 0) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+    
+    ComparisonTerm comparison = (ComparisonTerm) term;
+    ComparisonTerm.Operator operator = comparison.operator();
+    if (operator == ComparisonTerm.Operator.NOT_EQUALS) {
+      for (Object propertyValue : values) {
+        Integer result = compare(propertyValue, comparison.operand());
+        if (result != null && result.intValue() == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+    
+    for (Object propertyValue : values) {
+      Integer result = compare(propertyValue, comparison.operand());
+      if (result == null) {
+        continue;
+      }
+      int r = result.intValue();
+      switch (operator) {
+        case EQUALS:
+          if (r == 0) return true;
+          break;
+        case LESS_THAN:
+          if (r < 0) return true;
+          break;
+        case LESS_EQUALS:
+          if (r <= 0) return true;
+          break;
+        case GREATER_THAN:
+          if (r > 0) return true;
+          break;
+        case GREATER_EQUALS:
+          if (r >= 0) return true;
+          break;
+        default:
+          break;
+      }
+    }
+    return false;
+  }
+  
+  /**
+   * Compares the value of the property with the value of the term
+   * @param propertyValue the value of the property
+   * @param value the value of the term
+   * @return negative number, zero or positive number if the value of the property is less than, equal to 
+   * or greater than the value of the term. Null if the values can't be compared.
+   * @throws QueryException
+   */
+  private static Integer compare(final Object propertyValue, final Value value) throws QueryException {
+    String valueString = getValueString(value);
+    
+    if (propertyValue instanceof Date) {
+      return ((Date) propertyValue).compareTo(parseDate(valueString));
+    }
+    if (propertyValue instanceof Number) {
+      try {
+        return new BigDecimal(propertyValue.toString()).compareTo(new BigDecimal(valueString));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+    if (propertyValue instanceof Boolean) {
+      return ((Boolean) propertyValue).compareTo(Boolean.valueOf(valueString));
+    }
+    
+    String propertyString;
+    if (propertyValue instanceof AbstractResource) {
+      URI about = ((AbstractResource) propertyValue).getAbout();
+      if (about == null) {
+        return null;
+      }
+      propertyString = about.toString();
+      //the resource can be identified by id as well
+      if (value.type() != Value.Type.URI_REF && getLastSegment(propertyString).equals(valueString)) {
+        return 0;
+      }
+    } else if (propertyValue instanceof Link) {
+      URI uri = ((Link) propertyValue).getValue();
+      if (uri == null) {
+        return null;
+      }
+      propertyString = uri.toString();
+    } else {
+      propertyString = propertyValue.toString();
+    }
+    return propertyString.compareTo(valueString);
+  }
+  
+  /**
+   * Returns the value of the term as string
+   * @param value the value of the term
+   * @return the value as string
+   */
+  private static String getValueString(final Value value) {
+    switch (value.type()) {
+      case URI_REF:
+        return ((UriRefValue) value).value();
+      case STRING:
+        return ((StringValue) value).value();
+      case TYPED_STRING:
+        return ((TypedValue) value).value();
+      case LANGED_STRING:
+        return ((LangedStringValue) value).value();
+      case DECIMAL:
+        return String.valueOf(((DecimalValue) value).value());
+      case BOOLEAN:
+        return String.valueOf(((BooleanValue) value).value());
+      default:
+        return value.toString();
+    }
+  }
+  
+  /**
+   * Parses the date in xsd:dateTime format
+   * @param value the date as string
+   * @return parsed date
+   * @throws QueryException the value isn't valid date
+   */
+  private static Date parseDate(final String value) throws QueryException {
+    try {
+      return DatatypeConverter.parseDateTime(value).getTime();
+    } catch (IllegalArgumentException e) {
+      throw new QueryException("Invalid date: " + value, e);
+    }
+  }
+  
+  /**
+   * Converts the text to the phrase for JQL text search. The characters which can't be escaped in the phrase are removed.
+   * @param text the text
+   * @return the phrase in quotes or empty string if the text is empty
+   */
+  private static String toPhrase(final String text) {
+    String phrase = text.replaceAll("[\"\\\\]", " ").trim();
+    return phrase.isEmpty() ? phrase : "\"" + phrase + "\"";
+  }
+  
+  /**
+   * Returns the key of the property (namespace + name). The key jira:priority is accepted as well as jira:issuePriority.
+   * @param property the property of the term
+   * @return the key of the property
+   */
+  private static String getPropertyKey(final PName property) {
+    return normalizePropertyKey(property.namespace + property.local);
+  }
+  
+  /**
+   * Returns the key of the property. The key jira:priority is replaced by jira:issuePriority.
+   * @param key the key of the property (namespace + name)
+   * @return the key of the property
+   */
+  private static String normalizePropertyKey(final String key) {
+    if ((Constants.JIRA_NAMESPACE + "priority").equals(key)) {
+      return Constants.JIRA_NAMESPACE + "issuePriority";
+    }
+    return key;
+  }
+  
+  /**
+   * Returns the last segment of URI
+   * @param uri URI
+   * @return the last segment of URI
+   */
+  private static String getLastSegment(final String uri) {
+    String trimmed = uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+  }
+  
+  /**
+   * Converts the value of the property to the collection
+   * @param propertyValue the value of the property
+   * @return the collection of the values. Empty collection if the value is null.
+   */
+  private static Collection<?> toCollection(final Object propertyValue) {
+    if (propertyValue == null) {
+      return Collections.emptyList();
+    }
+    if (propertyValue instanceof Collection) {
+      return (Collection<?>) propertyValue;
+    }
+    if (propertyValue instanceof Object[]) {
+      return Arrays.asList((Object[]) propertyValue);
+    }
+    return Collections.singletonList(propertyValue);
+  }
+}
@@ -0,0 +1,370 @@
+package com.ericsson.jira.oslc.managers;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.lyo.core.query.SimpleTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.atlassian.crowd.embedded.api.User;
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.search.SearchResults;
+import com.atlassian.jira.project.Project;
+import com.atlassian.jira.security.Permissions;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.user.ApplicationUsers;
+import com.atlassian.jira.web.bean.PagerFilter;
+import com.atlassian.query.Query;
+import com.atlassian.query.order.SortOrder;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+import com.ericsson.jira.oslc.resources.ao.AOManager;
+import com.ericsson.jira.oslc.resources.ao.TrsChangeEntity;
+import com.ericsson.jira.oslc.services.ServiceHelper;
+import com.ericsson.jira.oslc.utils.PageCursor;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.RDF;
+
+/**
+ * It contains the methods for the Tracked Resource Set (OSLC TRS 2.0) of the change requests. 
+ * The base is built from the ids of the issues, the change log from the change events 
+ * which are recorded by IssueEventsHandler.
+ *
+ */
+public class TrsManager {
+  private static Logger logger = LoggerFactory.getLogger(TrsManager.class);
+  private static final String CURRENT_CLASS = "TrsManager";
+  
+  public static final String CHANGE_CREATION = "Creation";
+  public static final String CHANGE_MODIFICATION = "Modification";
+  public static final String CHANGE_DELETION = "Deletion";
+  
+  /** The rollover of the change log is checked after this number of change events */
+  private static final int ROLLOVER_INTERVAL = 1000;
+  
+  //the order of the change event which triggered the last rollover. The orders can have gaps, 
+  //so the rollover is triggered by the distance from the last one, not by the multiples of the interval.
+  private static volatile int lastRolloverOrder = 0;
+  
+  private static final Comparator<Project> PROJECT_ORDER = new Comparator<Project>() {
+    @Override
+    public int compare(Project p1, Project p2) {
+      return p1.getId().compareTo(p2.getId());
+    }
+  };
+  
+  /**
+   * Records the change event of the issue. The oldest change events are removed when 
+   * the change log contains more than {@link Constants#TRS_CHANGE_LOG_MAX_SIZE} events.
+   * The failure is only logged, it doesn't affect the change of the issue.
+   * @param projectId the id of the project of the issue
+   * @param issueId the id of the issue
+   * @param issueKey the key of the issue
+   * @param changeType the type of the change (Creation, Modification, Deletion)
+   */
+  public static void recordChange(final Long projectId, final Long issueId, final String issueKey, final String changeType) {
+    if (projectId == null || issueId == null || issueKey == null) {
+      logger.debug(CURRENT_CLASS + ".recordChange: the issue isn't complete, the change isn't recorded");
+      return;
+    }
+    
+    try {
+      AOManager aoManager = AOManager.getInstance();
+      int order = aoManager.createTrsChangeEntity(changeType, projectId, issueId, issueKey);
+      if (order - lastRolloverOrder >= ROLLOVER_INTERVAL && order > Constants.TRS_CHANGE_LOG_MAX_SIZE) {
+        lastRolloverOrder = order;
+        aoManager.removeTrsChangeEntities(order - Constants.TRS_CHANGE_LOG_MAX_SIZE);
+      }
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + ".recordChange Exception: " + e.getMessage());
+    }
+  }
+  
+  /**
+   * Records the change event of the issue
+   * @param issue the changed issue
+   * @param changeType the type of the change (Creation, Modification, Deletion)
+   */
+  public static void recordChange(final Issue issue, final String changeType) {
+    Long projectId = (issue.getProjectObject() != null) ? issue.getProjectObject().getId() : null;
+    recordChange(projectId, issue.getId(), issue.getKey(), changeType);
+  }
+  
+  /**
+   * Returns the Tracked Resource Set. It contains the link to the base and the newest page of the change log.
+   * @param request HttpServletRequest
+   * @return the model of the Tracked Resource Set
+   * @throws Exception
+   */
+  public static Model getTrackedResourceSet(final HttpServletRequest request) throws Exception {
+    String trsUri = getTrsUri(request);
+    Model model = createModel();
+    
+    Resource trs = model.createResource(trsUri, model.createResource(Constants.TRS_NAMESPACE + "TrackedResourceSet"));
+    trs.addProperty(trsProperty(model, "base"), model.createResource(trsUri + "/base"));
+    
+    Resource changeLog = model.createResource(model.createResource(Constants.TRS_NAMESPACE + "ChangeLog"));
+    trs.addProperty(trsProperty(model, "changeLog"), changeLog);
+    addChanges(request, model, changeLog, null);
+    
+    return model;
+  }
+  
+  /**
+   * Returns the page of the change log with the change events older than the order.
+   * @param request HttpServletRequest
+   * @param beforeOrder the order of the last change event on the previous page
+   * @return the model of the page of the change log
+   * @throws Exception
+   */
+  public static Model getChangeLog(final HttpServletRequest request, final int beforeOrder) throws Exception {
+    Model model = createModel();
+    Resource changeLog = model.createResource(getTrsUri(request) + "/changeLog?page=" + beforeOrder, 
+        model.createResource(Constants.TRS_NAMESPACE + "ChangeLog"));
+    addChanges(request, model, changeLog, beforeOrder);
+    return model;
+  }
+  
+  /**
+   * Returns the page of the base. The members are the change requests which the user can browse, 
+   * ordered by the id of the project and by the number of the issue key. The page is read by JIRA index search, 
+   * only the issues after the position of the previous page (see {@link BasePosition}) are searched.
+   * The first page contains the cutoff event, the newest change event which is reflected in the base.
+   * @param request HttpServletRequest
+   * @param page the position of the last issue on the previous page. If it's null, the first page is returned.
+   * @return the model of the page of the base
+   * @throws Exception
+   */
+  public static Model getBase(final HttpServletRequest request, final String page) throws Exception {
+    String trsUri = getTrsUri(request);
+    Model model = createModel();
+    Resource base = model.createResource(trsUri + "/base", model.createResource(Constants.LDP_NAMESPACE + "Container"));
+    BasePosition after = (page != null) ? BasePosition.decode(page) : null;
+    
+    //the cutoff event is read before the issues, so the base reflects all changes up to it
+    if (after == null) {
+      List<TrsChangeEntity> newest = AOManager.getInstance().getTrsChangeEntities(null, 1);
+      Resource cutoffEvent = newest.isEmpty() ? RDF.nil : model.createResource(getChangeEventUri(trsUri, newest.get(0).getID()));
+      base.addProperty(trsProperty(model, "cutoffEvent"), cutoffEvent);
+    }
+    
+    List<Project> projects = new ArrayList<Project>();
+    Project[] browsableProjects = JiraManager.getProjects(request);
+    if (browsableProjects != null) {
+      for (Project project : browsableProjects) {
+        if (after == null || project.getId() >= after.projectId) {
+          projects.add(project);
+        }
+      }
+    }
+    Collections.sort(projects, PROJECT_ORDER);
+    
+    //the search checks the permissions of the user to the issues
+    User user = ApplicationUsers.toDirectoryUser(PermissionManager.getAppUserFromRequest(request));
+    Property member = model.createProperty(Constants.LDP_NAMESPACE, "member");
+    int remaining = Constants.TRS_PAGE_SIZE;
+    BasePosition last = null;
+    boolean hasNext = false;
+    
+    for (int i = 0; i < projects.size(); i++) {
+      Project project = projects.get(i);
+      if (remaining == 0) {
+        hasNext = true;
+        break;
+      }
+      
+      Query query = QueryManager.createQuery(project.getId(), null, null, null, new ArrayList<SimpleTerm>());
+      org.apache.lucene.search.Query keyRange = null;
+      if (after != null && project.getId().longValue() == after.projectId) {
+        keyRange = QueryManager.createKeyRangeQuery(new PageCursor(after.keyNumber, 0), SortOrder.ASC);
+      }
+      
+      SearchResults results = JiraManager.search(user, query, keyRange, new PagerFilter(0, remaining));
+      for (Issue issue : results.getIssues()) {
+        base.addProperty(member, model.createResource(getChangeRequestUri(request, project.getId(), issue.getKey())));
+        last = new BasePosition(project.getId(), PageCursor.fromIssue(issue).getKeyNumber());
+      }
+      remaining -= results.getIssues().size();
+      
+      if (results.getTotal() > results.getIssues().size()) {
+        hasNext = true;
+        break;
+      }
+    }
+    
+    String pageUri = (page == null) ? trsUri + "/base" : trsUri + "/base?page=" + page;
+    Resource pageResource = model.createResource(pageUri, model.createResource(Constants.LDP_NAMESPACE + "Page"));
+    pageResource.addProperty(model.createProperty(Constants.LDP_NAMESPACE, "pageOf"), base);
+    Resource nextPage = (hasNext && last != null) ? model.createResource(trsUri + "/base?page=" + last.encode()) : RDF.nil;
+    pageResource.addProperty(model.createProperty(Constants.LDP_NAMESPACE, "nextPage"), nextPage);
+    
+    return model;
+  }
+  
+  /**
+   * The position of the issue in the base. The issues are ordered by the id of the project 
+   * and by the number of the issue key. The position is encoded as "projectId-keyNumber".
+   */
+  private static class BasePosition {
+    private final long projectId;
+    private final long keyNumber;
+    
+    BasePosition(long projectId, long keyNumber) {
+      this.projectId = projectId;
+      this.keyNumber = keyNumber;
+    }
+    
+    /**
+     * Decodes the position from the page parameter
+     * @param page the page parameter
+     * @return the position
+     * @throws QueryException the page parameter isn't valid
+     */
+    static BasePosition decode(String page) throws QueryException {
+      String[] parts = page.trim().split("-");
+      try {
+        if (parts.length != 2) {
+          throw new NumberFormatException();
+        }
+        return new BasePosition(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+      } catch (NumberFormatException e) {
+        throw new QueryException("Invalid page: " + page);
+      }
+    }
+    
+    String encode() {
+      return projectId + "-" + keyNumber;
+    }
+  }
+  
+  /**
+   * Adds the page of the change events to the change log. Only the change events of the issues 
+   * which the user can browse are added, the same issues as in the base. The permissions of the deleted issue 
+   * can't be checked, its change event is added if the user can browse the project.
+   * @param request HttpServletRequest
+   * @param model the model of the change log
+   * @param changeLog the change log
+   * @param beforeOrder only the change events older than the order are added. If it's null, the newest events are added. 
+   * @throws Exception
+   */
+  private static void addChanges(final HttpServletRequest request, final Model model, final Resource changeLog, 
+      final Integer beforeOrder) throws Exception {
+    String trsUri = getTrsUri(request);
+    Set<Long> projectIds = new HashSet<Long>();
+    Project[] projects = JiraManager.getProjects(request);
+    if (projects != null) {
+      for (Project project : projects) {
+        projectIds.add(project.getId());
+      }
+    }
+    
+    List<TrsChangeEntity> changes = AOManager.getInstance().getTrsChangeEntities(beforeOrder, Constants.TRS_PAGE_SIZE);
+    
+    //the issues of the page are loaded at once, the issue security level is checked for each of them
+    Set<Long> issueIds = new HashSet<Long>();
+    for (TrsChangeEntity entity : changes) {
+      if (projectIds.contains(entity.getProjectId())) {
+        issueIds.add(entity.getIssueId());
+      }
+    }
+    Map<Long, Issue> issues = new HashMap<Long, Issue>();
+    if (!issueIds.isEmpty()) {
+      for (Issue issue : ComponentAccessor.getIssueManager().getIssueObjects(issueIds)) {
+        issues.put(issue.getId(), issue);
+      }
+    }
+    ApplicationUser appUser = PermissionManager.getAppUserFromRequest(request);
+    
+    Property change = trsProperty(model, "change");
+    Property changed = trsProperty(model, "changed");
+    Property order = trsProperty(model, "order");
+    
+    for (TrsChangeEntity entity : changes) {
+      if (!projectIds.contains(entity.getProjectId())) {
+        continue;
+      }
+      Issue issue = issues.get(entity.getIssueId());
+      if (issue != null && !PermissionManager.hasPermission(appUser, issue, Permissions.BROWSE)) {
+        continue;
+      }
+      Resource event = model.createResource(getChangeEventUri(trsUri, entity.getID()), 
+          model.createResource(Constants.TRS_NAMESPACE + entity.getChangeType()));
+      event.addProperty(changed, model.createResource(getChangeRequestUri(request, entity.getProjectId(), entity.getIssueKey())));
+      event.addProperty(order, model.createTypedLiteral(BigInteger.valueOf(entity.getID())));
+      changeLog.addProperty(change, event);
+    }
+    
+    if (changes.size() == Constants.TRS_PAGE_SIZE) {
+      int lastOrder = changes.get(changes.size() - 1).getID();
+      changeLog.addProperty(trsProperty(model, "previous"), model.createResource(trsUri + "/changeLog?page=" + lastOrder));
+    }
+  }
+  
+  /**
+   * Creates the model with the prefixes of TRS
+   * @return new model
+   */
+  private static Model createModel() {
+    Model model = ModelFactory.createDefaultModel();
+    model.setNsPrefix(Constants.TRS_NAMESPACE_PREFIX, Constants.TRS_NAMESPACE);
+    model.setNsPrefix(Constants.LDP_NAMESPACE_PREFIX, Constants.LDP_NAMESPACE);
+    return model;
+  }
+  
+  private static Property trsProperty(final Model model, final String name) {
+    return model.createProperty(Constants.TRS_NAMESPACE, name);
+  }
+  
+  private static String getTrsUri(final HttpServletRequest request) {
+    return ServiceHelper.getOslcBaseUri(request) + "/trs";
+  }
+  
+  private static String getChangeEventUri(final String trsUri, final int order) {
+    return trsUri + "/changeLog#" + order;
+  }
+  
+  private static String getChangeRequestUri(final HttpServletRequest request, final long projectId, final String issueKey) {
+    return ServiceHelper.getOslcBaseUri(request) + "/" + projectId + "/changeRequests/" + issueKey;
+  }
+}
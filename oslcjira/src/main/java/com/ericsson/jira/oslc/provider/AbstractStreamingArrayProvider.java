@@ -0,0 +1,163 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
+import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.eclipse.lyo.oslc4j.provider.jena.AbstractOslcRdfXmlProvider;
+import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
+
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.ModelFactory;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.vocabulary.RDFS;
+
+/**
+ * The base of the providers which write the query result by {@link StreamingRdfWriter}.
+ * The resources are converted and written one by one while they are iterated, 
+ * so the whole result isn't kept in memory.
+ *
+ */
+public abstract class AbstractStreamingArrayProvider extends AbstractOslcRdfXmlProvider
+{
+    /**
+     * Writes the query result. The models of the resources are created and written 
+     * one by one while the resources are iterated, then the response info is written.
+     * @param objects the resources
+     * @param writer the writer of the document
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    protected void writeStreaming(final ResponseArrayWrapper<?> objects, final StreamingRdfWriter writer) throws Exception
+    {
+        String descriptionURI = null;
+        String responseInfoURI = null;
+        
+        if ("GET".equals(httpServletRequest.getMethod()))
+        {
+            descriptionURI = OSLC4JUtils.resolveURI(httpServletRequest, true);
+            responseInfoURI = descriptionURI;
+            
+            final String queryString = httpServletRequest.getQueryString();
+            
+            if ((queryString != null) &&
+                (isOslcQuery(queryString)))
+            {
+                responseInfoURI += "?" + queryString;
+            }
+        }
+        
+        final Map<String, Object> properties = (Map<String, Object>) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES);
+        final String nextPageURI = (String) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_NEXT_PAGE);
+        final Integer totalCount = (Integer) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_TOTAL_COUNT);
+        
+        final Iterator<?> resources = objects.getResources().iterator();
+        try
+        {
+            while (resources.hasNext())
+            {
+                final Object resource = resources.next();
+                final Model model = JenaModelHelper.createJenaModel(null, null, null, new Object[] { resource }, properties);
+                
+                if (!writer.isStarted())
+                {
+                    writer.start(getPrefixes(model));
+                }
+                
+                writer.writeModel(model);
+                
+                if ((descriptionURI != null) &&
+                    (resource instanceof AbstractResource) &&
+                    (((AbstractResource) resource).getAbout() != null))
+                {
+                    final Model memberModel = ModelFactory.createDefaultModel();
+                    memberModel.createResource(descriptionURI).addProperty(RDFS.member, 
+                        memberModel.createResource(((AbstractResource) resource).getAbout().toString()));
+                    writer.writeModel(memberModel);
+                }
+            }
+        }
+        finally
+        {
+            ResponseArrayWrapper.close(resources);
+        }
+        
+        if (!writer.isStarted())
+        {
+            writer.start(getPrefixes(ModelFactory.createDefaultModel()));
+        }
+        
+        if (responseInfoURI != null)
+        {
+            final Model responseInfoModel = ModelFactory.createDefaultModel();
+            final Resource responseInfo = responseInfoModel.createResource(responseInfoURI, 
+                responseInfoModel.createResource(OslcConstants.OSLC_CORE_NAMESPACE + "ResponseInfo"));
+            
+            if (totalCount != null)
+            {
+                responseInfo.addProperty(responseInfoModel.createProperty(OslcConstants.OSLC_CORE_NAMESPACE, "totalCount"), 
+                    responseInfoModel.createTypedLiteral(totalCount));
+            }
+            if (nextPageURI != null)
+            {
+                responseInfo.addProperty(responseInfoModel.createProperty(OslcConstants.OSLC_CORE_NAMESPACE, "nextPage"), 
+                    responseInfoModel.createResource(nextPageURI));
+            }
+            writer.writeModel(responseInfoModel);
+        }
+        
+        writer.end();
+    }
+    
+    /**
+     * Returns the prefixes of the namespaces declared in the document. They are the prefixes 
+     * of the first resource and the prefixes used by the query result.
+     * @param model the model of the first resource
+     * @return the prefixes, the key is the prefix
+     */
+    static Map<String, String> getPrefixes(final Model model)
+    {
+        final Map<String, String> prefixes = new HashMap<String, String>(model.getNsPrefixMap());
+        
+        if (!prefixes.containsValue(OslcConstants.RDFS_NAMESPACE))
+        {
+            prefixes.put(OslcConstants.RDFS_NAMESPACE_PREFIX, OslcConstants.RDFS_NAMESPACE);
+        }
+        if (!prefixes.containsValue(OslcConstants.OSLC_CORE_NAMESPACE))
+        {
+            prefixes.put(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX, OslcConstants.OSLC_CORE_NAMESPACE);
+        }
+        return prefixes;
+    }
+}
@@ -24,6 +24,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Map;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -34,17 +36,24 @@ import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 
+import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
+import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
 import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
 import org.eclipse.lyo.oslc4j.provider.json4j.AbstractOslcRdfJsonProvider;
+import org.eclipse.lyo.oslc4j.provider.json4j.JsonHelper;
+
+import com.ericsson.jira.oslc.Constants;
 
 @Provider
-@Produces(OslcMediaType.APPLICATION_JSON)
+@Produces({OslcMediaType.APPLICATION_JSON, Constants.APPLICATION_JSON_STREAM})
 @Consumes(OslcMediaType.APPLICATION_JSON)
 public class OslcRdfJsonArrayProvider
        extends AbstractOslcRdfJsonProvider
        implements MessageBodyReader<Object[]>, 
                   MessageBodyWriter<ResponseArrayWrapper<?>>
 {
+    private static final MediaType APPLICATION_JSON_STREAM_TYPE = MediaType.valueOf(Constants.APPLICATION_JSON_STREAM);
+    
     public OslcRdfJsonArrayProvider()
     {
         super();
@@ -71,6 +80,10 @@ public class OslcRdfJsonArrayProvider
           (isWriteable(
                annotations,
                OslcMediaType.APPLICATION_JSON_TYPE,
+               mediaType)) ||
+          (isWriteable(
+               annotations,
+               APPLICATION_JSON_STREAM_TYPE,
                mediaType)); 
       }
       return false;
@@ -112,14 +125,81 @@ public class OslcRdfJsonArrayProvider
            throws IOException,
                   WebApplicationException
     {
+      // the streamed JSON is written resource by resource, application/json is written from the whole JSON tree
+      if (APPLICATION_JSON_STREAM_TYPE.isCompatible(mediaType)) {
+        writeStreaming(objects, outputStream);
+        return;
+      }
       
-      Object[] resources =objects.getResource();
+      Object[] resources =objects.toArray();
         writeTo(true,
             resources,
                 mediaType,
                 map,
                 outputStream);
     }
+    
+    /**
+     * Writes the query result as OSLC RDF/JSON. The JSON objects of the resources are created 
+     * and written one by one while the resources are iterated, then the response info is written.
+     * @param objects the resources
+     * @param outputStream the output stream
+     * @throws WebApplicationException
+     */
+    @SuppressWarnings("unchecked")
+    private void writeStreaming(final ResponseArrayWrapper<?> objects, final OutputStream outputStream) throws WebApplicationException
+    {
+        String descriptionURI = null;
+        String responseInfoURI = null;
+        
+        if ("GET".equals(httpServletRequest.getMethod()))
+        {
+            descriptionURI = OSLC4JUtils.resolveURI(httpServletRequest, true);
+            responseInfoURI = descriptionURI;
+            
+            final String queryString = httpServletRequest.getQueryString();
+            
+            if ((queryString != null) &&
+                (isOslcQuery(queryString)))
+            {
+                responseInfoURI += "?" + queryString;
+            }
+        }
+        
+        final Map<String, Object> properties = (Map<String, Object>) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES);
+        final String nextPageURI = (String) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_NEXT_PAGE);
+        final Integer totalCount = (Integer) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_TOTAL_COUNT);
+        
+        try
+        {
+            final StreamingRdfJsonWriter writer = new StreamingRdfJsonWriter(outputStream);
+            writer.start(descriptionURI);
+            
+            final Iterator<?> resources = objects.getResources().iterator();
+            try
+            {
+                while (resources.hasNext())
+                {
+                    writer.writeResource(JsonHelper.createJSON(null, null, null, new Object[] { resources.next() }, properties));
+                }
+            }
+            finally
+            {
+                ResponseArrayWrapper.close(resources);
+            }
+            
+            writer.end(responseInfoURI, totalCount, nextPageURI);
+        }
+        catch (final WebApplicationException exception)
+        {
+            throw exception;
+        }
+        catch (final Exception exception)
+        {
+            throw new WebApplicationException(exception);
+        }
+    }
+    
     @Override
     public boolean isReadable(final Class<?>   type,
                   final Type     genericType,
@@ -0,0 +1,119 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * The provider which writes the query result as Turtle or N-Triples. The resources are converted 
+ * and written one by one while they are iterated, so the whole result isn't kept in memory.
+ *
+ */
+@Provider
+@Produces({OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
+public class OslcTriplesArrayProvider
+       extends AbstractStreamingArrayProvider
+       implements MessageBodyWriter<ResponseArrayWrapper<?>>
+{
+    public OslcTriplesArrayProvider()
+    {
+        super();
+    }
+
+    @Override
+    public long getSize(final ResponseArrayWrapper<?> objects,
+                        final Class<?>                type,
+                        final Type                    genericType,
+                        final Annotation[]            annotations,
+                        final MediaType               mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?>     type,
+                               final Type         genericType,
+                               final Annotation[] annotations,
+                               final MediaType    mediaType)
+    {
+        if (ResponseArrayWrapper.class.isAssignableFrom(type))
+        {
+            return OslcXmlRdfArrayProvider.isWriteable(annotations,
+                                                       mediaType,
+                                                       OslcMediaType.TEXT_TURTLE_TYPE,
+                                                       OslcTriplesProvider.APPLICATION_N_TRIPLES_TYPE);
+        }
+        return false;
+    }
+
+    /**
+     * Writes the query result by {@link StreamingNTriplesWriter} or {@link StreamingTurtleWriter}
+     */
+    @Override
+    public void writeTo(final ResponseArrayWrapper<?>        objects,
+                        final Class<?>                       type,
+                        final Type                           genericType,
+                        final Annotation[]                   annotations,
+                        final MediaType                      mediaType,
+                        final MultivaluedMap<String, Object> map,
+                        final OutputStream                   outputStream)
+           throws IOException,
+                  WebApplicationException
+    {
+        try
+        {
+            writeStreaming(objects, OslcTriplesProvider.createWriter(mediaType, outputStream));
+        }
+        catch (final WebApplicationException exception)
+        {
+            throw exception;
+        }
+        catch (final IOException exception)
+        {
+            throw exception;
+        }
+        catch (final Exception exception)
+        {
+            throw new WebApplicationException(exception);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
+import org.eclipse.lyo.oslc4j.provider.jena.AbstractOslcRdfXmlProvider;
+import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
+
+import com.ericsson.jira.oslc.Constants;
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * The provider which writes the single resource (e.g. the change request, the service provider 
+ * or the service provider catalog) as Turtle or N-Triples.
+ *
+ */
+@Provider
+@Produces({OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
+public class OslcTriplesProvider
+       extends AbstractOslcRdfXmlProvider
+       implements MessageBodyWriter<AbstractResource>
+{
+    static final MediaType APPLICATION_N_TRIPLES_TYPE = MediaType.valueOf(Constants.APPLICATION_N_TRIPLES);
+    
+    public OslcTriplesProvider()
+    {
+        super();
+    }
+
+    @Override
+    public long getSize(final AbstractResource object,
+                        final Class<?>         type,
+                        final Type             genericType,
+                        final Annotation[]     annotations,
+                        final MediaType        mediaType)
+    {
+        return -1;
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?>     type,
+                               final Type         genericType,
+                               final Annotation[] annotations,
+                               final MediaType    mediaType)
+    {
+        if (AbstractResource.class.isAssignableFrom(type) && !ResponseArrayWrapper.class.isAssignableFrom(type))
+        {
+            return isWriteable(type,
+                               annotations,
+                               mediaType,
+                               OslcMediaType.TEXT_TURTLE_TYPE,
+                               APPLICATION_N_TRIPLES_TYPE);
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void writeTo(final AbstractResource               object,
+                        final Class<?>                       type,
+                        final Type                           genericType,
+                        final Annotation[]                   annotations,
+                        final MediaType                      mediaType,
+                        final MultivaluedMap<String, Object> map,
+                        final OutputStream                   outputStream)
+           throws IOException,
+                  WebApplicationException
+    {
+        boolean isClientSide = false;
+        
+        try {
+          httpServletRequest.getMethod();
+        } catch (RuntimeException e) {
+          isClientSide = true;
+        }
+        
+        final Map<String, Object> properties = isClientSide ? null : (Map<String, Object>) httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES);
+        
+        try
+        {
+            final Model model = JenaModelHelper.createJenaModel(null, null, null, new Object[] { object }, properties);
+            final StreamingNTriplesWriter writer = createWriter(mediaType, outputStream);
+            
+            writer.start(model.getNsPrefixMap());
+            writer.writeModel(model);
+            writer.end();
+        }
+        catch (final WebApplicationException exception)
+        {
+            throw exception;
+        }
+        catch (final IOException exception)
+        {
+            throw exception;
+        }
+        catch (final Exception exception)
+        {
+            throw new WebApplicationException(exception);
+        }
+    }
+    
+    /**
+     * Creates the writer of the media type
+     * @param mediaType the media type, N-Triples or Turtle
+     * @param outputStream the output stream
+     * @return the writer of the media type
+     * @throws IOException
+     */
+    static StreamingNTriplesWriter createWriter(final MediaType mediaType, final OutputStream outputStream) throws IOException
+    {
+        if (APPLICATION_N_TRIPLES_TYPE.isCompatible(mediaType))
+        {
+            return new StreamingNTriplesWriter(outputStream);
+        }
+        return new StreamingTurtleWriter(outputStream);
+    }
+}
@@ -36,13 +36,12 @@ import javax.ws.rs.ext.Provider;
 
 import org.eclipse.lyo.oslc4j.core.annotation.OslcNotQueryResult;
 import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
-import org.eclipse.lyo.oslc4j.provider.jena.AbstractOslcRdfXmlProvider;
 
 @Provider
 @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.TEXT_XML})
 @Consumes({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.TEXT_XML})
 public class OslcXmlRdfArrayProvider
-       extends AbstractOslcRdfXmlProvider
+       extends AbstractStreamingArrayProvider
        implements MessageBodyReader<Object[]>,
                   MessageBodyWriter<ResponseArrayWrapper<?>>
 {
@@ -124,16 +123,50 @@ public class OslcXmlRdfArrayProvider
         if(type != null && type.getComponentType() != null){
           notQueryResult = type.getComponentType().getAnnotation(OslcNotQueryResult.class);
         }
+        boolean queryResult = notQueryResult != null && notQueryResult.value() ? false : true;
         
-        Object[] resources =objects.getResource();
+        // RDF/XML query result is streamed resource by resource, other formats are written from the whole model
+        if (queryResult && OslcMediaType.APPLICATION_RDF_XML_TYPE.isCompatible(mediaType)) {
+          writeStreaming(objects, outputStream);
+          return;
+        }
+        
+        Object[] resources =objects.toArray();
         
-        writeTo(notQueryResult != null && notQueryResult.value() ? false : true,
+        writeTo(queryResult,
             resources,
                 mediaType,
                 map,
                 outputStream);
     }
     
+    /**
+     * Writes the query result as RDF/XML by {@link StreamingRdfXmlWriter}
+     * @param objects the resources
+     * @param outputStream the output stream
+     * @throws IOException
+     * @throws WebApplicationException
+     */
+    private void writeStreaming(final ResponseArrayWrapper<?> objects, final OutputStream outputStream) throws IOException, WebApplicationException
+    {
+        try
+        {
+            writeStreaming(objects, new StreamingRdfXmlWriter(outputStream));
+        }
+        catch (final WebApplicationException exception)
+        {
+            throw exception;
+        }
+        catch (final IOException exception)
+        {
+            throw exception;
+        }
+        catch (final Exception exception)
+        {
+            throw new WebApplicationException(exception);
+        }
+    }
+    
     @Override
     public boolean isReadable(final Class<?>   type,
                   final Type     genericType,
@@ -27,14 +27,24 @@ package com.ericsson.jira.oslc.provider;
 * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 
 /**
  * It's a wrapper for our resources which are used by RS MessageWriter. 
- * It's used for a array of Jira Change Requests
+ * It's used for a array of Jira Change Requests. The resources can be set as the array 
+ * or as the iterable which creates the resources lazily while the response is written.
  */
 public class ResponseArrayWrapper<T> extends AbstractResource{
     private T[] resource;
+    private Iterable<T> resources;
 
     public T[] getResource() {
       return resource;
@@ -42,7 +52,61 @@ public class ResponseArrayWrapper<T> extends AbstractResource{
 
     public void setResource(T[] resource) {
       this.resource = resource;
+      this.resources = null;
+    }
+    
+    /**
+     * Returns the resources. If the resources were set as the iterable, 
+     * they can be created during the iteration.
+     * @return the resources
+     */
+    public Iterable<T> getResources() {
+      if (resources != null) {
+        return resources;
+      }
+      if (resource == null) {
+        return Collections.<T>emptyList();
+      }
+      return Arrays.asList(resource);
     }
     
+    /**
+     * Sets the resources which are iterated while the response is written
+     * @param resources the resources
+     */
+    public void setResources(Iterable<T> resources) {
+      this.resources = resources;
+      this.resource = null;
+    }
     
+    /**
+     * Closes the iterator of the resources if it's {@link Closeable}. The iterator which creates 
+     * the resources in the background (e.g. in parallel) stops the work which wasn't finished. 
+     * It has to be called when the writing of the response ends, also when it fails (e.g. the client disconnected).
+     * @param iterator the iterator of the resources
+     */
+    public static void close(Iterator<?> iterator) {
+      if (iterator instanceof Closeable) {
+        try {
+          ((Closeable) iterator).close();
+        } catch (IOException e) {
+          //nothing is written by the iterator, the unfinished work is only stopped
+        }
+      }
+    }
+    
+    /**
+     * Returns all resources as the array. The iterable resources are iterated and kept in memory.
+     * @return the resources
+     */
+    public Object[] toArray() {
+      if (resource != null) {
+        return resource;
+      }
+      List<Object> list = new ArrayList<Object>();
+      for (T r : getResources()) {
+        list.add(r);
+      }
+      return list.toArray();
+    }
 }
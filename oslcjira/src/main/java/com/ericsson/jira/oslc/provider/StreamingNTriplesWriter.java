@@ -0,0 +1,230 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.Statement;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+
+/**
+ * Writer of N-Triples document which writes the models one by one. Every statement is written 
+ * as one line with the full IRIs, so only one model (e.g. one change request) has to be kept 
+ * in memory and the client can parse the document line by line.
+ *
+ */
+public class StreamingNTriplesWriter implements StreamingRdfWriter {
+  private final Writer writer;
+  private boolean started = false;
+  private int blankNodeCounter = 0;
+  
+  /**
+   * Constructor
+   * @param outputStream the stream which the document is written to
+   * @throws IOException
+   */
+  public StreamingNTriplesWriter(OutputStream outputStream) throws IOException {
+    this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+  }
+  
+  /**
+   * Writes the start of the document. N-Triples has no header, the prefixes are used 
+   * by the subclasses only.
+   * @param prefixes the prefixes of the namespaces, the key is the prefix
+   * @throws IOException
+   */
+  @Override
+  public void start(Map<String, String> prefixes) throws IOException {
+    started = true;
+  }
+  
+  /**
+   * Checks if the start of the document has been written
+   * @return true if the start of the document has been written
+   */
+  @Override
+  public boolean isStarted() {
+    return started;
+  }
+  
+  /**
+   * Writes all statements of the model, one statement per line, and flushes them to the output stream
+   * @param model the model
+   * @throws IOException
+   */
+  @Override
+  public void writeModel(Model model) throws IOException {
+    //blank nodes are identified by the ids unique in whole document
+    Map<AnonId, String> blankNodes = new HashMap<AnonId, String>();
+    
+    StmtIterator statements = model.listStatements();
+    try {
+      while (statements.hasNext()) {
+        Statement statement = statements.nextStatement();
+        write(formatResource(statement.getSubject(), blankNodes));
+        write(" ");
+        write(formatPredicate(statement.getPredicate()));
+        write(" ");
+        write(formatNode(statement.getObject(), blankNodes));
+        write(" .\n");
+      }
+    } finally {
+      statements.close();
+    }
+    
+    writer.flush();
+  }
+  
+  /**
+   * Flushes the end of the document to the output stream
+   * @throws IOException
+   */
+  @Override
+  public void end() throws IOException {
+    writer.flush();
+  }
+  
+  /**
+   * Writes the text to the document
+   * @param text the text
+   * @throws IOException
+   */
+  protected void write(String text) throws IOException {
+    writer.write(text);
+  }
+  
+  /**
+   * Returns the term of the predicate
+   * @param predicate the predicate
+   * @return the term of the predicate
+   */
+  protected String formatPredicate(Resource predicate) {
+    return formatIRI(predicate.getURI());
+  }
+  
+  /**
+   * Returns the term of the IRI
+   * @param uri the IRI
+   * @return the IRI enclosed in angle brackets
+   */
+  protected String formatIRI(String uri) {
+    StringBuilder sb = new StringBuilder(uri.length() + 2);
+    sb.append('<');
+    for (int i = 0; i < uri.length(); i++) {
+      char c = uri.charAt(i);
+      if (c <= 0x20 || c == '<' || c == '>' || c == '"' || c == '{' || c == '}' || c == '|' || c == '^' || c == '`' || c == '\\') {
+        sb.append(String.format("\\u%04X", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    sb.append('>');
+    return sb.toString();
+  }
+  
+  /**
+   * Returns the term of the literal. The language tag or the datatype is appended to the string.
+   * @param literal the literal
+   * @return the term of the literal
+   */
+  protected String formatLiteral(Literal literal) {
+    String lexicalForm = literal.getLexicalForm();
+    StringBuilder sb = new StringBuilder(lexicalForm.length() + 2);
+    sb.append('"');
+    for (int i = 0; i < lexicalForm.length(); i++) {
+      char c = lexicalForm.charAt(i);
+      switch (c) {
+        case '"': sb.append("\\\""); break;
+        case '\\': sb.append("\\\\"); break;
+        case '\n': sb.append("\\n"); break;
+        case '\r': sb.append("\\r"); break;
+        case '\t': sb.append("\\t"); break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04X", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    sb.append('"');
+    
+    String language = literal.getLanguage();
+    String datatype = literal.getDatatypeURI();
+    if (language != null && !language.isEmpty()) {
+      sb.append('@').append(language);
+    } else if (datatype != null) {
+      sb.append("^^").append(formatIRI(datatype));
+    }
+    return sb.toString();
+  }
+  
+  /**
+   * Returns the term of the node which is the object of the statement
+   * @param node the node
+   * @param blankNodes the ids of the blank nodes
+   * @return the term of the node
+   */
+  private String formatNode(RDFNode node, Map<AnonId, String> blankNodes) {
+    if (node.isLiteral()) {
+      return formatLiteral(node.asLiteral());
+    }
+    return formatResource(node.asResource(), blankNodes);
+  }
+  
+  /**
+   * Returns the term of the resource. The blank nodes are written with the labels 
+   * which are unique in whole document.
+   * @param resource the resource
+   * @param blankNodes the ids of the blank nodes
+   * @return the term of the resource
+   */
+  private String formatResource(Resource resource, Map<AnonId, String> blankNodes) {
+    if (resource.isAnon()) {
+      AnonId id = resource.getId();
+      String nodeId = blankNodes.get(id);
+      if (nodeId == null) {
+        nodeId = "b" + (blankNodeCounter++);
+        blankNodes.put(id, nodeId);
+      }
+      return "_:" + nodeId;
+    }
+    return formatIRI(resource.getURI());
+  }
+}
@@ -0,0 +1,175 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writer of the query result in OSLC RDF/JSON format which writes the resources one by one.
+ * The resources are converted to JSON objects by Lyo (one resource at once) and they are written
+ * to the output stream by pull-style JSON writer, so the JSON tree of whole query result is never created.
+ * The shape of the document is the same as the shape created by Lyo. Only the prefixes are written 
+ * at the end of the document, because they are known when all resources are written.
+ *
+ */
+public class StreamingRdfJsonWriter {
+  private static final String PREFIXES = "prefixes";
+  private static final String DELIMITER = ":";
+  
+  private final JsonWriter writer;
+  private final Map<String, String> prefixes = new TreeMap<String, String>();
+  
+  /**
+   * Constructor
+   * @param outputStream the stream which the document is written to
+   * @throws IOException
+   */
+  public StreamingRdfJsonWriter(OutputStream outputStream) throws IOException {
+    this.writer = new JsonWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+    prefixes.put(OslcConstants.RDF_NAMESPACE_PREFIX, OslcConstants.RDF_NAMESPACE);
+    prefixes.put(OslcConstants.RDFS_NAMESPACE_PREFIX, OslcConstants.RDFS_NAMESPACE);
+  }
+  
+  /**
+   * Writes the start of the document and the start of the array of the members
+   * @param descriptionURI the URI of the query result, it's the rdf:about of the document
+   * @throws IOException
+   */
+  public void start(String descriptionURI) throws IOException {
+    writer.beginObject();
+    if (descriptionURI != null) {
+      writer.name(OslcConstants.RDF_NAMESPACE_PREFIX + DELIMITER + "about").value(descriptionURI);
+    }
+    writer.name(OslcConstants.RDFS_NAMESPACE_PREFIX + DELIMITER + "member");
+    writer.beginArray();
+  }
+  
+  /**
+   * Writes the resource as the member of the query result and flushes it to the output stream.
+   * The prefixes of the resource are remembered and they are written at the end of the document.
+   * @param resource the JSON object of the resource created by Lyo
+   * @throws IOException
+   */
+  public void writeResource(Map<?, ?> resource) throws IOException {
+    writer.beginObject();
+    for (Map.Entry<?, ?> entry : resource.entrySet()) {
+      String name = String.valueOf(entry.getKey());
+      if (PREFIXES.equals(name)) {
+        if (entry.getValue() instanceof Map<?, ?>) {
+          for (Map.Entry<?, ?> prefix : ((Map<?, ?>) entry.getValue()).entrySet()) {
+            prefixes.put(String.valueOf(prefix.getKey()), String.valueOf(prefix.getValue()));
+          }
+        }
+        continue;
+      }
+      writer.name(name);
+      writeValue(entry.getValue());
+    }
+    writer.endObject();
+    writer.flush();
+  }
+  
+  /**
+   * Writes the end of the array of the members, the response info and the prefixes. 
+   * Then the document is flushed to the output stream.
+   * @param responseInfoURI the URI of the response info. If it's null, the response info isn't written.
+   * @param totalCount the number of all members of the query result or null if it isn't known
+   * @param nextPageURI the URI of the next page or null if there is no next page
+   * @throws IOException
+   */
+  public void end(String responseInfoURI, Integer totalCount, String nextPageURI) throws IOException {
+    writer.endArray();
+    
+    if (responseInfoURI != null) {
+      prefixes.put(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX, OslcConstants.OSLC_CORE_NAMESPACE);
+      
+      writer.name(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX + DELIMITER + "responseInfo");
+      writer.beginObject();
+      writer.name(OslcConstants.RDF_NAMESPACE_PREFIX + DELIMITER + "about").value(responseInfoURI);
+      if (totalCount != null) {
+        writer.name(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX + DELIMITER + "totalCount").value(totalCount.longValue());
+      }
+      if (nextPageURI != null) {
+        writer.name(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX + DELIMITER + "nextPage");
+        writer.beginObject();
+        writer.name(OslcConstants.RDF_NAMESPACE_PREFIX + DELIMITER + "resource").value(nextPageURI);
+        writer.endObject();
+      }
+      writer.endObject();
+    }
+    
+    writer.name(PREFIXES);
+    writer.beginObject();
+    for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+      writer.name(prefix.getKey()).value(prefix.getValue());
+    }
+    writer.endObject();
+    
+    writer.endObject();
+    writer.flush();
+  }
+  
+  /**
+   * Writes the value of JSON tree created by Lyo
+   * @param value the value - JSON object, JSON array or primitive value
+   * @throws IOException
+   */
+  private void writeValue(Object value) throws IOException {
+    if (value == null) {
+      writer.nullValue();
+    } else if (value instanceof Map<?, ?>) {
+      writer.beginObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        writer.name(String.valueOf(entry.getKey()));
+        writeValue(entry.getValue());
+      }
+      writer.endObject();
+    } else if (value instanceof Collection<?>) {
+      writer.beginArray();
+      for (Object item : (Collection<?>) value) {
+        writeValue(item);
+      }
+      writer.endArray();
+    } else if (value instanceof Boolean) {
+      writer.value(((Boolean) value).booleanValue());
+    } else if (value instanceof Number) {
+      writer.value((Number) value);
+    } else {
+      writer.value(value.toString());
+    }
+  }
+}
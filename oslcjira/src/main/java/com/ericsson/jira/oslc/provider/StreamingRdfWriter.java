@@ -0,0 +1,68 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * Writer of RDF document which writes the models one by one, so only one model 
+ * (e.g. one change request) has to be kept in memory. 
+ * The query result is written by {@link AbstractStreamingArrayProvider}.
+ *
+ */
+public interface StreamingRdfWriter {
+  
+  /**
+   * Writes the start of the document
+   * @param prefixes the prefixes of the namespaces, the key is the prefix
+   * @throws IOException
+   */
+  public void start(Map<String, String> prefixes) throws IOException;
+  
+  /**
+   * Checks if the start of the document has been written
+   * @return true if the start of the document has been written
+   */
+  public boolean isStarted();
+  
+  /**
+   * Writes all statements of the model and flushes them to the output stream
+   * @param model the model
+   * @throws IOException
+   */
+  public void writeModel(Model model) throws IOException;
+  
+  /**
+   * Writes the end of the document and flushes it to the output stream
+   * @throws IOException
+   */
+  public void end() throws IOException;
+}
@@ -0,0 +1,239 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.hp.hpl.jena.rdf.model.AnonId;
+import com.hp.hpl.jena.rdf.model.Literal;
+import com.hp.hpl.jena.rdf.model.Model;
+import com.hp.hpl.jena.rdf.model.Property;
+import com.hp.hpl.jena.rdf.model.RDFNode;
+import com.hp.hpl.jena.rdf.model.ResIterator;
+import com.hp.hpl.jena.rdf.model.Resource;
+import com.hp.hpl.jena.rdf.model.StmtIterator;
+import com.hp.hpl.jena.rdf.model.Statement;
+
+/**
+ * Writer of RDF/XML document which writes the models one by one. The document is written 
+ * as flat list of rdf:Description elements, so only one model (e.g. one change request) 
+ * has to be kept in memory and the first bytes are sent before the whole response is prepared.
+ *
+ */
+public class StreamingRdfXmlWriter implements StreamingRdfWriter {
+  private static Logger logger = LoggerFactory.getLogger(StreamingRdfXmlWriter.class);
+  
+  private static final String RDF_PREFIX = "rdf";
+  private static final String GENERATED_PREFIX = "ns";
+  
+  private final XMLStreamWriter writer;
+  private final OutputStream outputStream;
+  private boolean started = false;
+  private int prefixCounter = 0;
+  private int blankNodeCounter = 0;
+  
+  /**
+   * Constructor
+   * @param outputStream the stream which the document is written to
+   * @throws XMLStreamException
+   */
+  public StreamingRdfXmlWriter(OutputStream outputStream) throws XMLStreamException {
+    this.outputStream = outputStream;
+    this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, "UTF-8");
+  }
+  
+  /**
+   * Writes the start of the document (rdf:RDF element) with the namespace declarations.
+   * The namespaces which aren't declared here are declared on the elements where they are used.
+   * @param prefixes the prefixes of the namespaces, the key is the prefix
+   * @throws IOException
+   */
+  @Override
+  public void start(Map<String, String> prefixes) throws IOException {
+    try {
+      writer.writeStartDocument("UTF-8", "1.0");
+      writer.writeStartElement(RDF_PREFIX, "RDF", OslcConstants.RDF_NAMESPACE);
+      writer.writeNamespace(RDF_PREFIX, OslcConstants.RDF_NAMESPACE);
+      writer.setPrefix(RDF_PREFIX, OslcConstants.RDF_NAMESPACE);
+      
+      for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+        if (!RDF_PREFIX.equals(prefix.getKey()) && !prefix.getKey().isEmpty()) {
+          writer.writeNamespace(prefix.getKey(), prefix.getValue());
+          writer.setPrefix(prefix.getKey(), prefix.getValue());
+        }
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+    started = true;
+  }
+  
+  /**
+   * Checks if the start of the document has been written
+   * @return true if the start of the document has been written
+   */
+  @Override
+  public boolean isStarted() {
+    return started;
+  }
+  
+  /**
+   * Writes all statements of the model as rdf:Description elements and flushes them to the output stream
+   * @param model the model
+   * @throws IOException
+   */
+  @Override
+  public void writeModel(Model model) throws IOException {
+    //blank nodes are identified by the ids unique in whole document
+    Map<AnonId, String> blankNodes = new HashMap<AnonId, String>();
+    
+    ResIterator subjects = model.listSubjects();
+    try {
+      while (subjects.hasNext()) {
+        Resource subject = subjects.nextResource();
+        
+        writer.writeStartElement(RDF_PREFIX, "Description", OslcConstants.RDF_NAMESPACE);
+        writeNodeAttribute(subject, "about", blankNodes);
+        
+        StmtIterator statements = subject.listProperties();
+        try {
+          while (statements.hasNext()) {
+            writeStatement(statements.nextStatement(), blankNodes);
+          }
+        } finally {
+          statements.close();
+        }
+        
+        writer.writeEndElement();
+      }
+      
+      writer.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    } finally {
+      subjects.close();
+    }
+  }
+  
+  /**
+   * Writes the end of the document and flushes it to the output stream
+   * @throws IOException
+   */
+  @Override
+  public void end() throws IOException {
+    try {
+      writer.writeEndElement();
+      writer.writeEndDocument();
+      writer.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+    outputStream.flush();
+  }
+  
+  /**
+   * Writes the statement as the property element
+   * @param statement the statement
+   * @param blankNodes the ids of the blank nodes
+   * @throws XMLStreamException
+   */
+  private void writeStatement(Statement statement, Map<AnonId, String> blankNodes) throws XMLStreamException {
+    Property predicate = statement.getPredicate();
+    String namespace = predicate.getNameSpace();
+    String localName = predicate.getLocalName();
+    if (namespace == null || localName == null || localName.isEmpty()) {
+      logger.warn("The property " + predicate.getURI() + " can't be written as RDF/XML element. It's skipped.");
+      return;
+    }
+    
+    String prefix = writer.getPrefix(namespace);
+    boolean declare = (prefix == null);
+    if (declare) {
+      prefix = GENERATED_PREFIX + (prefixCounter++);
+    }
+    
+    RDFNode object = statement.getObject();
+    if (object.isLiteral()) {
+      writer.writeStartElement(prefix, localName, namespace);
+      if (declare) {
+        writer.writeNamespace(prefix, namespace);
+      }
+      
+      Literal literal = object.asLiteral();
+      String language = literal.getLanguage();
+      if (language != null && !language.isEmpty()) {
+        writer.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "lang", language);
+      }
+      String datatype = literal.getDatatypeURI();
+      if (datatype != null) {
+        writer.writeAttribute(RDF_PREFIX, OslcConstants.RDF_NAMESPACE, "datatype", datatype);
+      }
+      writer.writeCharacters(literal.getLexicalForm());
+      writer.writeEndElement();
+    } else {
+      writer.writeEmptyElement(prefix, localName, namespace);
+      if (declare) {
+        writer.writeNamespace(prefix, namespace);
+      }
+      writeNodeAttribute(object.asResource(), "resource", blankNodes);
+    }
+  }
+  
+  /**
+   * Writes the attribute which identifies the resource (rdf:about or rdf:resource). 
+   * The blank nodes are identified by rdf:nodeID attribute.
+   * @param resource the resource
+   * @param attribute the name of the attribute for the resource with URI 
+   * @param blankNodes the ids of the blank nodes
+   * @throws XMLStreamException
+   */
+  private void writeNodeAttribute(Resource resource, String attribute, Map<AnonId, String> blankNodes) throws XMLStreamException {
+    if (resource.isAnon()) {
+      AnonId id = resource.getId();
+      String nodeId = blankNodes.get(id);
+      if (nodeId == null) {
+        nodeId = "b" + (blankNodeCounter++);
+        blankNodes.put(id, nodeId);
+      }
+      writer.writeAttribute(RDF_PREFIX, OslcConstants.RDF_NAMESPACE, "nodeID", nodeId);
+    } else {
+      writer.writeAttribute(RDF_PREFIX, OslcConstants.RDF_NAMESPACE, attribute, resource.getURI());
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.ericsson.jira.oslc.provider;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.hp.hpl.jena.rdf.model.Resource;
+
+/**
+ * Writer of Turtle document which writes the models one by one. The prefixes are declared 
+ * at the start of the document, then the statements are written one per line like N-Triples. 
+ * The IRIs in the declared namespaces are shortened to the prefixed names.
+ *
+ */
+public class StreamingTurtleWriter extends StreamingNTriplesWriter {
+  private static final Pattern PREFIX_PATTERN = Pattern.compile("([A-Za-z]([A-Za-z0-9_\\-.]*[A-Za-z0-9_\\-])?)?");
+  private static final Pattern LOCAL_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]([A-Za-z0-9_\\-.]*[A-Za-z0-9_\\-])?");
+  private static final String RDF_TYPE = OslcConstants.RDF_NAMESPACE + "type";
+  
+  //the key is the namespace
+  private final Map<String, String> namespaces = new HashMap<String, String>();
+  
+  /**
+   * Constructor
+   * @param outputStream the stream which the document is written to
+   * @throws IOException
+   */
+  public StreamingTurtleWriter(OutputStream outputStream) throws IOException {
+    super(outputStream);
+  }
+  
+  /**
+   * Writes the prefix declarations. The namespaces which aren't declared here are written as full IRIs.
+   * @param prefixes the prefixes of the namespaces, the key is the prefix
+   * @throws IOException
+   */
+  @Override
+  public void start(Map<String, String> prefixes) throws IOException {
+    for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+      if (PREFIX_PATTERN.matcher(prefix.getKey()).matches() && !namespaces.containsKey(prefix.getValue())) {
+        write("@prefix " + prefix.getKey() + ": " + super.formatIRI(prefix.getValue()) + " .\n");
+        namespaces.put(prefix.getValue(), prefix.getKey());
+      }
+    }
+    write("\n");
+    super.start(prefixes);
+  }
+  
+  @Override
+  protected String formatPredicate(Resource predicate) {
+    if (RDF_TYPE.equals(predicate.getURI())) {
+      return "a";
+    }
+    return super.formatPredicate(predicate);
+  }
+  
+  /**
+   * Returns the prefixed name of the IRI if its namespace is declared and the rest 
+   * of the IRI is valid local name, otherwise the full IRI
+   * @param uri the IRI
+   * @return the term of the IRI
+   */
+  @Override
+  protected String formatIRI(String uri) {
+    for (Map.Entry<String, String> namespace : namespaces.entrySet()) {
+      if (uri.startsWith(namespace.getKey())) {
+        String localName = uri.substring(namespace.getKey().length());
+        if (LOCAL_NAME_PATTERN.matcher(localName).matches()) {
+          return namespace.getValue() + ":" + localName;
+        }
+      }
+    }
+    return super.formatIRI(uri);
+  }
+}
@@ -0,0 +1,167 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The projection of the change request. It defines which properties of the change request
+ * have to be loaded from JIRA. It's created once per request from selected properties (oslc.properties, oslc.select)
+ * and it's used by {@link JiraChangeRequest#fromJiraIssue(com.atlassian.jira.issue.MutableIssue, ChangeRequestProjection)}
+ * to skip the loading of the properties which aren't requested (e.g. comments, worklogs, custom fields).
+ * The number of the inlined items of the property can be limited by the nested selector with the number,
+ * e.g. jira:issueComment{5}.
+ *
+ */
+public class ChangeRequestProjection {
+  /** The projection with all properties */
+  public static final ChangeRequestProjection ALL = new ChangeRequestProjection(null, null);
+  /** The projection with the basic properties only (the properties read from the issue itself, e.g. title, status, dates) */
+  public static final ChangeRequestProjection BASIC = new ChangeRequestProjection(new HashSet<String>(), null);
+  
+  //the property with the maximum number of the items, e.g. jira:issueComment{5}
+  private static final Pattern LIMIT_PATTERN = Pattern.compile("([A-Za-z][\\w\\-.]*)?:([A-Za-z_][\\w\\-.]*)\\{\\s*(\\d+)\\s*\\}");
+  
+  //null means all properties
+  private final Set<String> properties;
+  //the maximum numbers of the items by the properties, null means no limit
+  private final Map<String, Integer> limits;
+  
+  private ChangeRequestProjection(Set<String> properties, Map<String, Integer> limits) {
+    this.properties = properties;
+    this.limits = limits;
+  }
+  
+  /**
+   * Creates the projection from the selected properties
+   * @param selectedProperties the selected properties created by QueryUtils.invertSelectedProperties. 
+   * The keys are the properties (namespace + name). Null or empty map means all properties (wildcard).
+   * @return the projection
+   */
+  public static ChangeRequestProjection fromSelectedProperties(Map<String, Object> selectedProperties) {
+    if (selectedProperties == null || selectedProperties.isEmpty()) {
+      return ALL;
+    }
+    return new ChangeRequestProjection(new HashSet<String>(selectedProperties.keySet()), null);
+  }
+  
+  /**
+   * Removes the limits of the items from the selection (oslc.properties, oslc.select) and puts them to the argument limits.
+   * E.g. jira:issueComment{5} is replaced by jira:issueComment and the limit 5 is put for the property.
+   * @param selection the selection. It can be null.
+   * @param prefixMap the prefixes of the namespaces
+   * @param limits the limits found in the selection, the key is the property (namespace + name)
+   * @return the selection without the limits which can be parsed by QueryUtils
+   */
+  public static String extractLimits(String selection, Map<String, String> prefixMap, Map<String, Integer> limits) {
+    if (selection == null) {
+      return null;
+    }
+    StringBuffer result = new StringBuffer();
+    Matcher matcher = LIMIT_PATTERN.matcher(selection);
+    while (matcher.find()) {
+      String prefix = (matcher.group(1) != null) ? matcher.group(1) : "";
+      String namespace = prefixMap.get(prefix);
+      if (namespace == null) {
+        //unknown prefix is reported by the parser of the selection
+        matcher.appendReplacement(result, Matcher.quoteReplacement(matcher.group()));
+        continue;
+      }
+      try {
+        limits.put(namespace + matcher.group(2), Integer.valueOf(matcher.group(3)));
+      } catch (NumberFormatException e) {
+        limits.put(namespace + matcher.group(2), Integer.MAX_VALUE);
+      }
+      matcher.appendReplacement(result, Matcher.quoteReplacement(prefix + ":" + matcher.group(2)));
+    }
+    matcher.appendTail(result);
+    return result.toString();
+  }
+  
+  /**
+   * Returns the projection with the limits of the items
+   * @param itemLimits the maximum numbers of the items, the key is the property (namespace + name)
+   * @return the projection with the limits
+   */
+  public ChangeRequestProjection withLimits(Map<String, Integer> itemLimits) {
+    if (itemLimits == null || itemLimits.isEmpty()) {
+      return this;
+    }
+    Map<String, Integer> extended = (limits != null) ? new HashMap<String, Integer>(limits) : new HashMap<String, Integer>();
+    extended.putAll(itemLimits);
+    return new ChangeRequestProjection(properties, extended);
+  }
+  
+  /**
+   * Returns the projection extended by other properties (e.g. the properties which are evaluated in memory)
+   * @param additionalProperties the properties (namespace + name)
+   * @return the extended projection
+   */
+  public ChangeRequestProjection withProperties(Collection<String> additionalProperties) {
+    if (properties == null || additionalProperties.isEmpty()) {
+      return this;
+    }
+    Set<String> extended = new HashSet<String>(properties);
+    extended.addAll(additionalProperties);
+    return new ChangeRequestProjection(extended, limits);
+  }
+  
+  /**
+   * Checks if the property has to be loaded
+   * @param property the property (namespace + name)
+   * @return true if the property has to be loaded, otherwise false
+   */
+  public boolean includes(String property) {
+    return properties == null || properties.contains(property);
+  }
+  
+  /**
+   * Checks if the property is selected explicitly, the wildcard doesn't select it
+   * @param property the property (namespace + name)
+   * @return true if the property is selected explicitly
+   */
+  public boolean selects(String property) {
+    return properties != null && properties.contains(property);
+  }
+  
+  /**
+   * Returns the maximum number of the items of the property
+   * @param property the property (namespace + name)
+   * @return the maximum number of the items or -1 if the number isn't limited
+   */
+  public int getLimit(String property) {
+    Integer limit = (limits != null) ? limits.get(property) : null;
+    return (limit != null) ? limit : -1;
+  }
+}
@@ -0,0 +1,124 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.net.URI;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * It represents the result of one item of the batch request (e.g. the issue which doesn't exist).
+ * The resource URI is the URI of the change request which the item refers to.
+ *
+ */
+
+@OslcNamespace(Constants.JIRA_NAMESPACE)
+@OslcName("BatchItem")
+@OslcResourceShape(title = "Batch item resource shape", describes = Constants.JIRA_NAMESPACE + "BatchItem")
+public class JiraBatchItem extends AbstractResource {
+  /** The properties of the batch item which are always returned, even if oslc.properties is specified */
+  public static final String PROPERTIES = OslcConstants.OSLC_CORE_NAMESPACE_PREFIX + ":statusCode," 
+      + OslcConstants.OSLC_CORE_NAMESPACE_PREFIX + ":message," + Constants.JIRA_NAMESPACE_PREFIX + ":batchIndex,"
+      + Constants.JIRA_NAMESPACE_PREFIX + ":source";
+  
+  private Integer batchIndex = null;
+  private String statusCode = null;
+  private String message = null;
+  private URI source = null;
+  
+  //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
+  // create instance for further parsing in jersey.
+  public JiraBatchItem() {
+  }
+  
+  public JiraBatchItem(URI about, Integer batchIndex, int statusCode, String message) {
+    super(about);
+    this.batchIndex = batchIndex;
+    this.statusCode = String.valueOf(statusCode);
+    this.message = message;
+  }
+  
+  @OslcDescription("The position of the item in the batch request. The first item is 0.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "batchIndex")
+  @OslcTitle("Batch index")
+  public Integer getBatchIndex() {
+    return this.batchIndex;
+  }
+
+  public void setBatchIndex(Integer batchIndex) {
+    this.batchIndex = batchIndex;
+  }
+  
+  @OslcDescription("HTTP status code of the item.")
+  @OslcOccurs(Occurs.ExactlyOne)
+  @OslcPropertyDefinition(OslcConstants.OSLC_CORE_NAMESPACE + "statusCode")
+  @OslcTitle("Status code")
+  public String getStatusCode() {
+    return this.statusCode;
+  }
+
+  public void setStatusCode(String statusCode) {
+    this.statusCode = statusCode;
+  }
+  
+  @OslcDescription("The description of the result of the item.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(OslcConstants.OSLC_CORE_NAMESPACE + "message")
+  @OslcTitle("Message")
+  public String getMessage() {
+    return this.message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+  
+  @OslcDescription("The URI of the resource which was sent in the batch request.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "source")
+  @OslcTitle("Source")
+  public URI getSource() {
+    return this.source;
+  }
+
+  public void setSource(URI source) {
+    this.source = source;
+  }
+}
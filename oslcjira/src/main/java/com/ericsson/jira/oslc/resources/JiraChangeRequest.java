@@ -20,7 +20,6 @@ package com.ericsson.jira.oslc.resources;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -42,7 +41,6 @@ import org.eclipse.lyo.oslc4j.core.model.Occurs;
 import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
 
 import com.atlassian.jira.bc.project.component.ProjectComponent;
-import com.atlassian.jira.component.ComponentAccessor;
 import com.atlassian.jira.issue.CustomFieldManager;
 import com.atlassian.jira.issue.Issue;
 import com.atlassian.jira.issue.MutableIssue;
@@ -71,12 +69,14 @@ import com.ericsson.eif.leansync.mapping.data.SyncConfiguration;
 import com.ericsson.jira.oslc.Constants;
 import com.ericsson.jira.oslc.constants.JiraConstants;
 import com.ericsson.jira.oslc.managers.FieldManager;
-import com.ericsson.jira.oslc.managers.JiraManager;
+import com.ericsson.jira.oslc.managers.IssuePreloader;
 import com.ericsson.jira.oslc.sync.InboundSyncUtils;
 import com.ericsson.jira.oslc.utils.AppLink;
 import com.ericsson.jira.oslc.utils.AppLinksRepository;
+import com.ericsson.jira.oslc.utils.CustomFieldCache;
 import com.ericsson.jira.oslc.utils.JiraIssueInputParameters;
 import com.ericsson.jira.oslc.utils.OSLCUtils;
+import com.ericsson.jira.oslc.utils.RequestContext;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -109,6 +109,8 @@ public final class JiraChangeRequest extends ChangeRequest {
   private List<URI> subTasks = new ArrayList<URI>();
   private List<JiraIssueComment> comments = new ArrayList<JiraIssueComment>();
   private List<JiraIssueWorklog> worklogs = new ArrayList<JiraIssueWorklog>();
+  private URI commentCollection = null;
+  private URI worklogCollection = null;
   private List<String> voters = new ArrayList<String>();
   private List<String> watchers = new ArrayList<String>();
   private JiraIssueHistory history = null;
@@ -414,6 +416,32 @@ public final class JiraChangeRequest extends ChangeRequest {
     this.worklogs = worklogs;
   }
   
+  @OslcDescription("The paged collection of the comments of this change request.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "commentCollection")
+  @OslcName("commentCollection")
+  @OslcTitle("Comments")
+  public URI getCommentCollection() {
+    return this.commentCollection;
+  }
+  
+  public void setCommentCollection(URI commentCollection) {
+    this.commentCollection = commentCollection;
+  }
+  
+  @OslcDescription("The paged collection of the worklogs of this change request.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "worklogCollection")
+  @OslcName("worklogCollection")
+  @OslcTitle("Worklogs")
+  public URI getWorklogCollection() {
+    return this.worklogCollection;
+  }
+  
+  public void setWorklogCollection(URI worklogCollection) {
+    this.worklogCollection = worklogCollection;
+  }
+  
   //voting
   @OslcDescription("The voters for this change request.")
   @OslcOccurs(Occurs.ZeroOrMany)
@@ -511,7 +539,7 @@ public final class JiraChangeRequest extends ChangeRequest {
   }
   
   /**
-   * Converts a {@link Issue} to an OSLC-CM JiraChangeRequest.
+   * Converts a {@link Issue} to an OSLC-CM JiraChangeRequest with all properties.
    * 
    * @param Issue
    * @return the ChangeRequest to be serialized
@@ -520,6 +548,37 @@ public final class JiraChangeRequest extends ChangeRequest {
    * @throws UnsupportedEncodingException
    */
   public static JiraChangeRequest fromJiraIssue(MutableIssue issue) throws URISyntaxException {
+    return fromJiraIssue(issue, ChangeRequestProjection.ALL);
+  }
+  
+  /**
+   * Converts a {@link Issue} to an OSLC-CM JiraChangeRequest. The basic properties are always filled,
+   * the properties which have to be loaded from JIRA (e.g. comments, worklogs, links, custom fields) 
+   * are filled only if they are included in the projection.
+   * 
+   * @param Issue
+   * @param projection the properties which have to be filled
+   * @return the ChangeRequest to be serialized
+   * @throws URISyntaxException
+   *             on errors setting the bug URI
+   */
+  public static JiraChangeRequest fromJiraIssue(MutableIssue issue, ChangeRequestProjection projection) throws URISyntaxException {
+    return fromJiraIssue(issue, projection, RequestContext.create());
+  }
+  
+  /**
+   * Converts a {@link Issue} to an OSLC-CM JiraChangeRequest. The values which are the same for all issues 
+   * (e.g. the managers, the custom fields, the base URL) are taken from the context of the request, 
+   * so they are resolved only once when more issues are converted during one request.
+   * 
+   * @param Issue
+   * @param projection the properties which have to be filled
+   * @param context the context of the request
+   * @return the ChangeRequest to be serialized
+   * @throws URISyntaxException
+   *             on errors setting the bug URI
+   */
+  public static JiraChangeRequest fromJiraIssue(MutableIssue issue, ChangeRequestProjection projection, RequestContext context) throws URISyntaxException {
     JiraChangeRequest jcr = new JiraChangeRequest();
     jcr.setIdentifier(issue.getKey());
     
@@ -533,7 +592,7 @@ public final class JiraChangeRequest extends ChangeRequest {
       JiraIssueStatus jStatus = new JiraIssueStatus();
       jStatus.setAbout(
           new URI(
-              JiraManager.getRestUrl() + JiraConstants.ISSUE_STATUS_PATH + issue.getKey() 
+              context.getRestUrl() + JiraConstants.ISSUE_STATUS_PATH + issue.getKey() 
               + "/" + status.getId()));
       jcr.setIssueStatus(jStatus);
     }
@@ -543,7 +602,7 @@ public final class JiraChangeRequest extends ChangeRequest {
     if(issueType != null){
       String id = issueType.getId();
       JiraIssueType jiraIssueType = new JiraIssueType();
-      jiraIssueType.setAbout(new URI(JiraManager.getRestUrl() + JiraConstants.ISSUE_TYPE_PATH + id));
+      jiraIssueType.setAbout(new URI(context.getRestUrl() + JiraConstants.ISSUE_TYPE_PATH + id));
       JiraIssueType[] issueTypes = new JiraIssueType[1];
       issueTypes[0] = jiraIssueType;
       jcr.setIssueType(issueTypes[0]);
@@ -565,7 +624,7 @@ public final class JiraChangeRequest extends ChangeRequest {
     }
     else {
       JiraIssueResolution jir = new JiraIssueResolution();
-      jir.setAbout(new URI(JiraManager.getRestUrl() + JiraConstants.ISSUE_RESOLUTION_PATH + resolution.getId()));
+      jir.setAbout(new URI(context.getRestUrl() + JiraConstants.ISSUE_RESOLUTION_PATH + resolution.getId()));
       jcr.setResolution(jir);
     }
     
@@ -591,12 +650,15 @@ public final class JiraChangeRequest extends ChangeRequest {
     
     //external (OSLC) links -> oslc_cm:relatedChangeRequest
     //Note: field for related change requests is in base class ChangeRequest
-    CustomFieldManager customFieldManager = ComponentAccessor.getCustomFieldManager();
-    CustomField customField = customFieldManager.getCustomFieldObjectByName(JiraConstants.OSLC_CUSTOM_FIELD_NAME);
-    if (customField != null) {
-      String value = (String) customField.getValue(issue);
-      Link[] links = OSLCUtils.convertToLinks(value);
-      jcr.setRelatedChangeRequests(links);
+    IssuePreloader preloader = context.getPreloader();
+    if (projection.includes(Constants.TYPE_RELATED_CHANGE_REQUEST)) {
+      CustomField customField = context.getOslcLinksField();
+      if (customField != null) {
+        String value = (preloader != null && preloader.hasOslcLinks(issue.getId())) ? 
+            preloader.getOslcLinks(issue.getId()) : (String) customField.getValue(issue);
+        Link[] links = OSLCUtils.convertToLinks(value);
+        jcr.setRelatedChangeRequests(links);
+      }
     }
     
     //priority
@@ -604,39 +666,44 @@ public final class JiraChangeRequest extends ChangeRequest {
     if (priority != null) {
       JiraIssuePriority jiraIssuePriority = new JiraIssuePriority();
       jiraIssuePriority.setAbout(
-        new URI(JiraManager.getRestUrl() + JiraConstants.ISSUE_PRIORITY_PATH + priority.getId()));
+        new URI(context.getRestUrl() + JiraConstants.ISSUE_PRIORITY_PATH + priority.getId()));
       jcr.setPriority(jiraIssuePriority);
     }
     
     //components
-    Collection<ProjectComponent> cc = issue.getComponentObjects();
-    List<String> components = new ArrayList<String>();
-    for (ProjectComponent pc : cc) {
-      components.add(pc.getName());
+    if (projection.includes(Constants.JIRA_TYPE_COMPONENT)) {
+      Collection<ProjectComponent> cc = issue.getComponentObjects();
+      List<String> components = new ArrayList<String>();
+      for (ProjectComponent pc : cc) {
+        components.add(pc.getName());
+      }
+      jcr.setComponents(components);
     }
-    jcr.setComponents(components);
     
     //affects versions
-    Collection<Version> avc = issue.getAffectedVersions();
-    List<String> avl = new ArrayList<String>();
-    for (Version v : avc) {
-      avl.add(v.getName());
+    if (projection.includes(Constants.JIRA_TYPE_AFFECTS_VERSION)) {
+      Collection<Version> avc = issue.getAffectedVersions();
+      List<String> avl = new ArrayList<String>();
+      for (Version v : avc) {
+        avl.add(v.getName());
+      }
+      jcr.setAffectsVersions(avl);
     }
-    jcr.setAffectsVersions(avl);
     
     //fix versions
-    Collection<Version> fvc = issue.getFixVersions();
-    List<String> fvl = new ArrayList<String>();
-    for (Version v : fvc) {
-      fvl.add(v.getName());
+    if (projection.includes(Constants.JIRA_TYPE_FIX_VERSION)) {
+      Collection<Version> fvc = issue.getFixVersions();
+      List<String> fvl = new ArrayList<String>();
+      for (Version v : fvc) {
+        fvl.add(v.getName());
+      }
+      jcr.setFixVersions(fvl);
     }
-    jcr.setFixVersions(fvl);
     
     //duedate
     Date dd = issue.getDueDate();
-    SimpleDateFormat formatter = new SimpleDateFormat("d/MMM/yy");
     if (dd != null) {
-      jcr.setDueDate(formatter.format(dd));
+      jcr.setDueDate(context.formatDueDate(dd));
     }
     
     //original estimate
@@ -661,119 +728,177 @@ public final class JiraChangeRequest extends ChangeRequest {
     jcr.setTimeSpent(lh);
     
     //labels
-    Set<Label> ls = issue.getLabels();
-    Set<String> labels = new HashSet<String>();
-    for (Label l : ls) {
-      labels.add(l.getLabel());
+    if (projection.includes(Constants.JIRA_TYPE_LABEL)) {
+      Set<Label> ls = issue.getLabels();
+      Set<String> labels = new HashSet<String>();
+      for (Label l : ls) {
+        labels.add(l.getLabel());
+      }
+      jcr.setLabels(labels);
     }
-    jcr.setLabels(labels);
     
     //sub-tasks - presented as REST links to individual issues
-    Collection<Issue> subtasks = issue.getSubTaskObjects();
-    List<URI> uris = new ArrayList<URI>();
-    for (Issue st : subtasks) {
-      uris.add(OSLCUtils.getRestUriForIssue(st));
+    if (projection.includes(Constants.JIRA_TYPE_SUB_TASK)) {
+      Collection<Issue> subtasks = issue.getSubTaskObjects();
+      List<URI> uris = new ArrayList<URI>();
+      for (Issue st : subtasks) {
+        uris.add(context.getRestUriForIssue(st));
+      }
+      jcr.setSubTasks(uris);
     }
-    jcr.setSubTasks(uris);
     
     //comments
-    List<JiraIssueComment> jcmnts = new ArrayList<JiraIssueComment>();
-    CommentManager cmntMngr = ComponentAccessor.getCommentManager();
-    List<Comment> cmnts = cmntMngr.getComments(issue);
-    for (Comment cmnt : cmnts) {
-      jcmnts.add(new JiraIssueComment(cmnt));
+    if (projection.includes(Constants.JIRA_TYPE_COMMENT)) {
+      List<JiraIssueComment> jcmnts = (preloader != null) ? preloader.getComments(issue.getId()) : null;
+      if (jcmnts == null) {
+        jcmnts = new ArrayList<JiraIssueComment>();
+        CommentManager cmntMngr = context.getCommentManager();
+        List<Comment> cmnts = cmntMngr.getComments(issue);
+        for (Comment cmnt : cmnts) {
+          jcmnts.add(new JiraIssueComment(cmnt));
+        }
+      }
+      jcr.setIssueComments(limit(jcmnts, projection.getLimit(Constants.JIRA_TYPE_COMMENT)));
     }
-    jcr.setIssueComments(jcmnts);
     
     //worklog
-    List<JiraIssueWorklog> jWorklogs = new ArrayList<JiraIssueWorklog>();
-    WorklogManager wMngr = ComponentAccessor.getWorklogManager();
-    List<Worklog> worklogs = wMngr.getByIssue(issue);
-    for (Worklog w : worklogs) {
-      jWorklogs.add(new JiraIssueWorklog(w));
+    if (projection.includes(Constants.JIRA_TYPE_WORKLOG)) {
+      List<JiraIssueWorklog> jWorklogs = (preloader != null) ? preloader.getWorklogs(issue.getId()) : null;
+      if (jWorklogs == null) {
+        jWorklogs = new ArrayList<JiraIssueWorklog>();
+        WorklogManager wMngr = context.getWorklogManager();
+        List<Worklog> worklogs = wMngr.getByIssue(issue);
+        for (Worklog w : worklogs) {
+          jWorklogs.add(new JiraIssueWorklog(w));
+        }
+      }
+      jcr.setIssueWorklogs(limit(jWorklogs, projection.getLimit(Constants.JIRA_TYPE_WORKLOG)));
+    }
+    
+    //the links to the paged comments and worklogs are returned only if they are selected
+    if (projection.selects(Constants.JIRA_TYPE_COMMENT_COLLECTION)) {
+      jcr.setCommentCollection(new URI(context.getRestUrl() + issue.getProjectId() + "/changeRequests/" 
+          + issue.getKey() + "/comments"));
+    }
+    if (projection.selects(Constants.JIRA_TYPE_WORKLOG_COLLECTION)) {
+      jcr.setWorklogCollection(new URI(context.getRestUrl() + issue.getProjectId() + "/changeRequests/" 
+          + issue.getKey() + "/worklogs"));
     }
-    jcr.setIssueWorklogs(jWorklogs);
     
     //history
     JiraIssueHistory history = new JiraIssueHistory();
-    history.setAbout(new URI(JiraManager.getRestUrl() + issue.getProjectId() + "/changeRequests/" 
+    history.setAbout(new URI(context.getRestUrl() + issue.getProjectId() + "/changeRequests/" 
                     + issue.getKey() + "/history"));
     jcr.setIssueHistory(history);
     
     //voting
-    List<String> voters = new ArrayList<String>();
-    VoteManager vMngr = ComponentAccessor.getVoteManager();
-    List<ApplicationUser> v = vMngr.getVotersFor(issue, ComponentAccessor.getJiraAuthenticationContext().getLocale());
-    for (ApplicationUser u : v) {
-      voters.add(u.getName());
+    if (projection.includes(Constants.JIRA_TYPE_VOTER)) {
+      List<String> voters = (preloader != null) ? preloader.getVoters(issue.getId()) : null;
+      if (voters == null) {
+        voters = new ArrayList<String>();
+        VoteManager vMngr = context.getVoteManager();
+        List<ApplicationUser> v = vMngr.getVotersFor(issue, context.getLocale());
+        for (ApplicationUser u : v) {
+          voters.add(u.getName());
+        }
+      }
+      jcr.setVoters(voters);
     }
-    jcr.setVoters(voters);
     
     //watchers
-    List<String> watchers = new ArrayList<String>();
-    WatcherManager watcherMngr = ComponentAccessor.getWatcherManager();
-    List<ApplicationUser> wList = watcherMngr.getWatchers(issue, ComponentAccessor.getJiraAuthenticationContext().getLocale());
-    for (ApplicationUser u : wList) {
-      watchers.add(u.getName());
+    if (projection.includes(Constants.JIRA_TYPE_WATCHER)) {
+      List<String> watchers = (preloader != null) ? preloader.getWatchers(issue.getId()) : null;
+      if (watchers == null) {
+        watchers = new ArrayList<String>();
+        WatcherManager watcherMngr = context.getWatcherManager();
+        List<ApplicationUser> wList = watcherMngr.getWatchers(issue, context.getLocale());
+        for (ApplicationUser u : wList) {
+          watchers.add(u.getName());
+        }
+      }
+      jcr.setWatchers(watchers);
     }
-    jcr.setWatchers(watchers);
     
     //classic links
     
     //inside
-    List<JiraIssueInternalLink> insideLinks = new ArrayList<JiraIssueInternalLink>();
-    IssueLinkManager ilMngr = ComponentAccessor.getIssueLinkManager();
-    
-    List<IssueLink> inwards = ilMngr.getInwardLinks(issue.getId());
-    for (IssueLink link : inwards) {
-      Issue srcIssue = link.getSourceObject();
-      IssueLinkType type = link.getIssueLinkType();
+    if (projection.includes(Constants.JIRA_TYPE_INSIDE_LINK)) {
+      List<JiraIssueInternalLink> insideLinks = (preloader != null) ? preloader.getInsideLinks(issue.getId()) : null;
+      if (insideLinks == null) {
+        insideLinks = new ArrayList<JiraIssueInternalLink>();
+        IssueLinkManager ilMngr = context.getIssueLinkManager();
+    
+        List<IssueLink> inwards = ilMngr.getInwardLinks(issue.getId());
+        for (IssueLink link : inwards) {
+          Issue srcIssue = link.getSourceObject();
+          IssueLinkType type = link.getIssueLinkType();
       
-      JiraIssueInternalLink jiil = new JiraIssueInternalLink(
-          OSLCUtils.getRestUriForIssue(srcIssue), type.getInward(), "inward");
+          JiraIssueInternalLink jiil = new JiraIssueInternalLink(
+              context.getRestUriForIssue(srcIssue), type.getInward(), "inward");
       
-      insideLinks.add(jiil);
-    }
+          insideLinks.add(jiil);
+        }
     
-    List<IssueLink> outwards = ilMngr.getOutwardLinks(issue.getId());
-    for (IssueLink link : outwards) {
-      Issue dstIssue = link.getDestinationObject();
-      IssueLinkType type = link.getIssueLinkType();
+        List<IssueLink> outwards = ilMngr.getOutwardLinks(issue.getId());
+        for (IssueLink link : outwards) {
+          Issue dstIssue = link.getDestinationObject();
+          IssueLinkType type = link.getIssueLinkType();
       
-      JiraIssueInternalLink jiil = new JiraIssueInternalLink(
-          OSLCUtils.getRestUriForIssue(dstIssue), type.getOutward(), "outward");
+          JiraIssueInternalLink jiil = new JiraIssueInternalLink(
+              context.getRestUriForIssue(dstIssue), type.getOutward(), "outward");
       
-      insideLinks.add(jiil);
-    }
+          insideLinks.add(jiil);
+        }
+      }
     
-    jcr.setJiraInsideLinks(insideLinks);
+      jcr.setJiraInsideLinks(insideLinks);
+    }
     
     //outside
-    List<JiraIssueWebLink> outsideLinks = new ArrayList<JiraIssueWebLink>();
-    RemoteIssueLinkManager rilMngr = ComponentAccessor.getComponent(RemoteIssueLinkManager.class);
-    List<RemoteIssueLink> links2 = rilMngr.getRemoteIssueLinksForIssue(issue);
-    for (RemoteIssueLink link : links2) {
-      JiraIssueWebLink jiol = new JiraIssueWebLink(link.getUrl(), link.getTitle());
-      outsideLinks.add(jiol);
-    }
+    if (projection.includes(Constants.JIRA_TYPE_OUTSIDE_LINK)) {
+      List<JiraIssueWebLink> outsideLinks = (preloader != null) ? preloader.getOutsideLinks(issue.getId()) : null;
+      if (outsideLinks == null) {
+        outsideLinks = new ArrayList<JiraIssueWebLink>();
+        RemoteIssueLinkManager rilMngr = context.getRemoteIssueLinkManager();
+        List<RemoteIssueLink> links2 = rilMngr.getRemoteIssueLinksForIssue(issue);
+        for (RemoteIssueLink link : links2) {
+          JiraIssueWebLink jiol = new JiraIssueWebLink(link.getUrl(), link.getTitle());
+          outsideLinks.add(jiol);
+        }
+      }
     
-    jcr.setJiraOutsideLinks(outsideLinks);
+      jcr.setJiraOutsideLinks(outsideLinks);
+    }
     
     //custom fields
-    List<CustomField> cfList = customFieldManager.getCustomFieldObjects();
-    List<JiraIssueCustomField> jicfList = new ArrayList<JiraIssueCustomField>();
-    for (CustomField cf : cfList) {
-      //skip "External Links" custom field, because content is exported as related change request(s)
-      if (cf.getName().compareTo(JiraConstants.OSLC_CUSTOM_FIELD_NAME) != 0) {
+    if (projection.includes(Constants.JIRA_TYPE_CUSTOM_FIELD)) {
+      //only the fields relevant for the project and the issue type, without "External Links" custom field,
+      //because content is exported as related change request(s)
+      List<CustomField> cfList = CustomFieldCache.getInstance().getCustomFields(context.getCustomFieldManager(), issue);
+      List<JiraIssueCustomField> jicfList = new ArrayList<JiraIssueCustomField>();
+      for (CustomField cf : cfList) {
         JiraIssueCustomField jicf = new JiraIssueCustomField(cf, issue);
         jicfList.add(jicf);
       }
+      jcr.setCustomFields(jicfList);
     }
-    jcr.setCustomFields(jicfList);
     
     return jcr;
   }
   
+  /**
+   * Returns the first items of the list
+   * @param items the items
+   * @param limit the maximum number of the items, -1 means all items
+   * @return the first items of the list
+   */
+  private static <T> List<T> limit(List<T> items, int limit) {
+    if (limit < 0 || items.size() <= limit) {
+      return items;
+    }
+    return new ArrayList<T>(items.subList(0, limit));
+  }
+  
   
   /**
    * Converts a {@link Issue} to an OSLC-CM JiraChangeRequest.
@@ -798,6 +923,25 @@ public final class JiraChangeRequest extends ChangeRequest {
    */
   public static JiraIssueInputParameters toIssueParameters(JiraChangeRequest jcr, MutableIssue issue, 
       Map<String, Object> selectedProperties, String syncType, SyncConfiguration leanSyncConfiguration, Project p) throws Exception {
+    return toIssueParameters(jcr, issue, selectedProperties, syncType, leanSyncConfiguration, p, RequestContext.create());
+  }
+  
+  /**
+   * Converts an OSLC-CM JiraChangeRequest to a JiraIssueInputParameters. The custom fields are taken 
+   * from the context of the request.
+   * @param jcr JiraIssueInputParameters
+   * @param issue JIRA issue
+   * @param selectedProperties OSLC properties
+   * @param syncType the type of synchronization
+   * @param leanSyncConfiguration LeanSync configuration. If the syncType is null the configuration is ignored.
+   * @param p Project
+   * @param context the context of the request
+   * @return JiraIssueInputParameters
+   * @throws Exception
+   */
+  public static JiraIssueInputParameters toIssueParameters(JiraChangeRequest jcr, MutableIssue issue, 
+      Map<String, Object> selectedProperties, String syncType, SyncConfiguration leanSyncConfiguration, Project p, 
+      RequestContext context) throws Exception {
     
     JiraIssueInputParameters jiraIssueInputParams = new JiraIssueInputParameters();
     jiraIssueInputParams.setProject(p);
@@ -880,8 +1024,7 @@ public final class JiraChangeRequest extends ChangeRequest {
     //OSLC Links
     if (OSLCUtils.allowUpdate(selectedProperties, Constants.TYPE_RELATED_CHANGE_REQUEST, syncType, true&isCreate)) {
       Link[] oldLinks = null;
-      CustomFieldManager customFieldManager = ComponentAccessor.getCustomFieldManager();
-      CustomField customField = customFieldManager.getCustomFieldObjectByName(JiraConstants.OSLC_CUSTOM_FIELD_NAME);
+      CustomField customField = context.getOslcLinksField();
       
       if (issue != null && customField != null) {
         String value = (String) customField.getValue(issue);
@@ -994,7 +1137,7 @@ public final class JiraChangeRequest extends ChangeRequest {
     
     //custom fields
     if (OSLCUtils.allowUpdate(selectedProperties, Constants.JIRA_TYPE_CUSTOM_FIELD, syncType, false)) {
-      CustomFieldManager customFieldManager = ComponentAccessor.getCustomFieldManager();
+      CustomFieldManager customFieldManager = context.getCustomFieldManager();
       
       for (JiraIssueCustomField jicf : jcr.getCustomFields()) {
         CustomField cf = customFieldManager.getCustomFieldObject(jicf.getId());
@@ -0,0 +1,95 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * It represents the numbers of the issues grouped by the values of one property of change request
+ * (e.g. jira:issueStatus). It's a part of JiraFacetsRequest.
+ *
+ */
+@OslcNamespace(Constants.JIRA_NAMESPACE)
+@OslcName("Facet")
+@OslcResourceShape(title = "Jira facet resource shape", describes = Constants.JIRA_NAMESPACE + "Facet")
+public class JiraFacet extends AbstractResource {
+  
+  private URI property = null;
+  private List<JiraFacetValue> values = null;
+  
+  //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
+  //create instance for further parsing in jersey.
+  public JiraFacet() {
+    this.values = new ArrayList<JiraFacetValue>();
+  }
+  
+  public JiraFacet(URI property) {
+    this.property = property;
+    this.values = new ArrayList<JiraFacetValue>();
+  }
+  
+  @OslcDescription("The property of change request which the issues are grouped by.")
+  @OslcOccurs(Occurs.ExactlyOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "facetProperty")
+  @OslcName("facetProperty")
+  @OslcTitle("Property")
+  public URI getProperty() {
+    return this.property;
+  }
+  
+  public void setProperty(URI property) {
+    this.property = property;
+  }
+  
+  @OslcDescription("The value of the property and the number of the issues with this value.")
+  @OslcOccurs(Occurs.ZeroOrMany)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "facetCount")
+  @OslcName("facetCount")
+  @OslcTitle("Count of value")
+  public List<JiraFacetValue> getValues() {
+    return this.values;
+  }
+  
+  public void setValues(List<JiraFacetValue> values) {
+    this.values = values;
+  }
+}
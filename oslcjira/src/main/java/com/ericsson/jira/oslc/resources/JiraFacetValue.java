@@ -0,0 +1,105 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * It represents one value of a facet and the number of the issues with this value. It's a part of JiraFacet.
+ *
+ */
+@OslcNamespace(Constants.JIRA_NAMESPACE)
+@OslcName("FacetValue")
+@OslcResourceShape(title = "Jira facet value resource shape", describes = Constants.JIRA_NAMESPACE + "FacetValue")
+public class JiraFacetValue extends AbstractResource {
+  
+  private String value = null;
+  private String title = null;
+  private Integer count = null;
+  
+  //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
+  //create instance for further parsing in jersey.
+  public JiraFacetValue() {
+  }
+  
+  public JiraFacetValue(String value, String title, Integer count) {
+    this.value = value;
+    this.title = title;
+    this.count = count;
+  }
+  
+  @OslcDescription("The value of the property - the id of status, priority or issue type, the assignee or the component name. It's missing for the issues without a value.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "facetValue")
+  @OslcName("facetValue")
+  @OslcTitle("Value")
+  public String getValue() {
+    return this.value;
+  }
+  
+  public void setValue(String value) {
+    this.value = value;
+  }
+  
+  @OslcDescription("The name of the value.")
+  @OslcOccurs(Occurs.ExactlyOne)
+  @OslcPropertyDefinition(OslcConstants.DCTERMS_NAMESPACE + "title")
+  @OslcName("title")
+  @OslcTitle("Title")
+  public String getTitle() {
+    return this.title;
+  }
+  
+  public void setTitle(String title) {
+    this.title = title;
+  }
+  
+  @OslcDescription("The number of the issues with the value.")
+  @OslcOccurs(Occurs.ExactlyOne)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "count")
+  @OslcName("count")
+  @OslcTitle("Count")
+  public Integer getCount() {
+    return this.count;
+  }
+  
+  public void setCount(Integer count) {
+    this.count = count;
+  }
+}
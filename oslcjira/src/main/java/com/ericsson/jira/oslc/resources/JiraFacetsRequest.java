@@ -0,0 +1,90 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * It represents the numbers of the issues of a project grouped by the values of the properties 
+ * (status, priority, issue type, assignee, component). It's the facets resource of change requests.
+ * 
+ */
+@OslcNamespace(Constants.JIRA_NAMESPACE)
+@OslcName("IssueFacets") 
+@OslcResourceShape(title = "Jira issue facets shape", describes = Constants.JIRA_TYPE_FACETS)
+public final class JiraFacetsRequest extends AbstractResource {
+
+  private Integer totalCount = null;
+  private List<JiraFacet> facets = null;
+  
+  //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
+  //create instance for further parsing in jersey.
+  public JiraFacetsRequest() {
+    this.facets = new ArrayList<JiraFacet>();
+  }
+  
+  @OslcDescription("The number of all issues matching the query.")
+  @OslcOccurs(Occurs.ExactlyOne)
+  @OslcPropertyDefinition(OslcConstants.OSLC_CORE_NAMESPACE + "totalCount")
+  @OslcName("totalCount")
+  @OslcTitle("Total count")
+  public Integer getTotalCount() {
+    return this.totalCount;
+  }
+  
+  public void setTotalCount(Integer totalCount) {
+    this.totalCount = totalCount;
+  }
+  
+  @OslcDescription("The numbers of the issues grouped by the values of one property.")
+  @OslcOccurs(Occurs.ZeroOrMany)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "facet")
+  @OslcName("facet")
+  @OslcTitle("Facet")
+  public List<JiraFacet> getFacets() {
+    return this.facets;
+  }
+  
+  public void setFacets(List<JiraFacet> facets) {
+    this.facets = facets;
+  }
+}
@@ -27,6 +27,7 @@ package com.ericsson.jira.oslc.resources;
 * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,6 +40,7 @@ import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
 
 import com.atlassian.jira.issue.changehistory.ChangeHistory;
 import com.atlassian.jira.issue.history.ChangeItemBean;
@@ -54,6 +56,9 @@ import com.ericsson.jira.oslc.Constants;
 public final class JiraHistoryRequest extends AbstractResource {
 
   private List<JiraIssueHistoryItem> history = null;
+  private URI nextPage = null;
+  //the id of the last change on the page if there is a next page, it isn't serialized
+  private Long pageEndChangeId = null;
   
   //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
   //create instance for further parsing in jersey.
@@ -84,4 +89,29 @@ public final class JiraHistoryRequest extends AbstractResource {
   public void setIssueHistoryItems(List<JiraIssueHistoryItem> items) {
     this.history = items;
   }
+  
+  @OslcDescription("The link to the next page of the history.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(OslcConstants.OSLC_CORE_NAMESPACE + "nextPage")
+  @OslcName("nextPage")
+  @OslcTitle("Next page")
+  public URI getNextPage() {
+    return this.nextPage;
+  }
+  
+  public void setNextPage(URI nextPage) {
+    this.nextPage = nextPage;
+  }
+  
+  /**
+   * Returns the id of the last change on the page if there is a next page
+   * @return the id of the last change on the page or null if it's the last page
+   */
+  public Long getPageEndChangeId() {
+    return this.pageEndChangeId;
+  }
+  
+  public void setPageEndChangeId(Long changeId) {
+    this.pageEndChangeId = changeId;
+  }
 }
@@ -38,10 +38,12 @@ import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.ofbiz.core.entity.GenericValue;
 
 import com.atlassian.jira.issue.comments.Comment;
 import com.atlassian.jira.user.ApplicationUser;
 import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.utils.UserCache;
 
 /**
  * It represents Issue comment. It's a part of JIRA Change Request
@@ -71,6 +73,20 @@ public class JiraIssueComment extends AbstractResource {
     this.updated = comment.getUpdated();
   }
   
+  /**
+   * Creates the comment from the row of the database (the entity Action). 
+   * The comment which wasn't updated has the time of the creation as the time of the update, as JIRA comment does.
+   * @param value the row of the comment
+   * @param users the cache of the users which resolves the author
+   */
+  public JiraIssueComment(GenericValue value, UserCache users) {
+    this.author = users.getUserName(value.getString("author"));
+    this.body = value.getString("body");
+    this.created = value.getTimestamp("created");
+    Date updated = value.getTimestamp("updated");
+    this.updated = (updated != null) ? updated : this.created;
+  }
+  
   @OslcDescription("The Jira comment text for this change request.")
   @OslcOccurs(Occurs.ZeroOrOne)
   @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "commentBody")
@@ -38,10 +38,12 @@ import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.ofbiz.core.entity.GenericValue;
 
 import com.atlassian.jira.issue.worklog.Worklog;
 import com.atlassian.jira.user.ApplicationUser;
 import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.utils.UserCache;
 
 /**
  * It represents a work log. It's a part of JIRA Change Request
@@ -78,6 +80,21 @@ public class JiraIssueWorklog extends AbstractResource {
     this.timeSpent = w.getTimeSpent();
   }
   
+  /**
+   * Creates the worklog from the row of the database (the entity Worklog)
+   * @param value the row of the worklog
+   * @param users the cache of the users which resolves the author and the update author
+   */
+  public JiraIssueWorklog(GenericValue value, UserCache users) {
+    this.author = users.getUserName(value.getString("author"));
+    this.comment = value.getString("body");
+    this.created = value.getTimestamp("created");
+    this.updated = value.getTimestamp("updated");
+    this.updateAuthor = users.getUserName(value.getString("updateauthor"));
+    this.startDate = value.getTimestamp("startdate");
+    this.timeSpent = value.getLong("timeworked");
+  }
+  
   @OslcDescription("Worklog comment.")
   @OslcOccurs(Occurs.ZeroOrOne)
   @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "worklogComment")
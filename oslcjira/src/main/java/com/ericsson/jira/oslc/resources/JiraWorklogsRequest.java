@@ -0,0 +1,105 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * It represents one page of the worklogs of an issue. It's the paged collection referenced by
+ * the change request (jira:worklogCollection).
+ * 
+ */
+@OslcNamespace(Constants.JIRA_NAMESPACE)
+@OslcName("IssueWorklogs") 
+@OslcResourceShape(title = "Jira issue worklogs shape", describes = Constants.JIRA_TYPE_WORKLOGS)
+public final class JiraWorklogsRequest extends AbstractResource {
+
+  private List<JiraIssueWorklog> worklogs = null;
+  private URI nextPage = null;
+  //the id of the last worklog on the page if there is a next page, it isn't serialized
+  private Long pageEndId = null;
+  
+  //NOTE: default c'tor without parameters must be defined. If not, jena is not able to
+  //create instance for further parsing in jersey.
+  public JiraWorklogsRequest() {
+    this.worklogs = new ArrayList<JiraIssueWorklog>();
+  }
+  
+  @OslcDescription("The Jira worklog of the issue.")
+  @OslcOccurs(Occurs.ZeroOrMany)
+  @OslcPropertyDefinition(Constants.JIRA_NAMESPACE + "issueWorklog")
+  @OslcName("issueWorklog")
+  @OslcTitle("Worklog")
+  public List<JiraIssueWorklog> getIssueWorklogs() {
+    return this.worklogs;
+  }
+  
+  public void setIssueWorklogs(List<JiraIssueWorklog> worklogs) {
+    this.worklogs = worklogs;
+  }
+  
+  @OslcDescription("The link to the next page of the worklogs.")
+  @OslcOccurs(Occurs.ZeroOrOne)
+  @OslcPropertyDefinition(OslcConstants.OSLC_CORE_NAMESPACE + "nextPage")
+  @OslcName("nextPage")
+  @OslcTitle("Next page")
+  public URI getNextPage() {
+    return this.nextPage;
+  }
+  
+  public void setNextPage(URI nextPage) {
+    this.nextPage = nextPage;
+  }
+  
+  /**
+   * Returns the id of the last worklog on the page if there is a next page
+   * @return the id of the last worklog on the page or null if it's the last page
+   */
+  public Long getPageEndId() {
+    return this.pageEndId;
+  }
+  
+  public void setPageEndId(Long id) {
+    this.pageEndId = id;
+  }
+}
@@ -34,6 +34,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import net.java.ao.Query;
 import net.java.ao.RawEntity;
 
 import com.atlassian.activeobjects.external.ActiveObjects;
@@ -413,4 +414,77 @@ public class AOManager {
         }
     );
   }
+  
+  /**
+   * Saves the change event of the Tracked Resource Set to db. The method isn't synchronized, 
+   * the transaction is enough and the issue events don't wait for the reading of the change log.
+   * @param changeType the type of the change (Creation, Modification, Deletion)
+   * @param projectId the id of the project of the issue
+   * @param issueId the id of the issue
+   * @param issueKey the key of the issue
+   * @return the order of the change event
+   */
+  public int createTrsChangeEntity(final String changeType, final long projectId, 
+      final long issueId, final String issueKey) {
+    return ao.executeInTransaction(
+        new TransactionCallback<Integer>() {
+
+          @Override
+          public Integer doInTransaction() {
+            final TrsChangeEntity e = ao.create(TrsChangeEntity.class);
+            e.setChangeType(changeType);
+            e.setProjectId(projectId);
+            e.setIssueId(issueId);
+            e.setIssueKey(issueKey);
+            e.setCreated(System.currentTimeMillis());
+            e.save();
+            return e.getID();
+          }
+        }
+    );
+  }
+  
+  /**
+   * Returns the change events of the Tracked Resource Set from the newest one
+   * @param beforeOrder only the change events older than the order are returned. If it's null, the newest events are returned.
+   * @param limit the maximum number of returned change events
+   * @return the change events ordered from the newest one
+   */
+  public List<TrsChangeEntity> getTrsChangeEntities(final Integer beforeOrder, final int limit) {
+    final List<TrsChangeEntity> result = new ArrayList<TrsChangeEntity>();
+    ao.executeInTransaction(
+        new TransactionCallback<Void>() {
+
+          @Override
+          public Void doInTransaction() {
+            Query query = Query.select().order("ID DESC").limit(limit);
+            if (beforeOrder != null) {
+              query = query.where("ID < ?", beforeOrder);
+            }
+            for (TrsChangeEntity e : ao.find(TrsChangeEntity.class, query)) {
+              result.add(e);
+            }
+            return null;
+          }
+        }
+    );
+    return result;
+  }
+  
+  /**
+   * Removes the change events of the Tracked Resource Set which are older than the cutoff 
+   * @param cutoffOrder the order of the newest change event which is removed
+   */
+  public void removeTrsChangeEntities(final int cutoffOrder) {
+    ao.executeInTransaction(
+        new TransactionCallback<Void>() {
+
+          @Override
+          public Void doInTransaction() {
+            ao.deleteWithSQL(TrsChangeEntity.class, "ID <= ?", cutoffOrder);
+            return null;
+          }
+        }
+    );
+  }
 }
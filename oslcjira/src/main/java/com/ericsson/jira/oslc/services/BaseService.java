@@ -27,6 +27,7 @@ package com.ericsson.jira.oslc.services;
 * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 
 import org.slf4j.Logger;
@@ -37,6 +38,7 @@ import com.ericsson.jira.oslc.exceptions.IssueValidationException;
 import com.ericsson.jira.oslc.exceptions.NoResourceException;
 import com.ericsson.jira.oslc.exceptions.PermissionException;
 import com.ericsson.jira.oslc.exceptions.PreconditionException;
+import com.ericsson.jira.oslc.exceptions.QueryException;
 import com.ericsson.jira.oslc.exceptions.StatusException;
 
 /**
@@ -51,6 +53,11 @@ public class BaseService {
    * @param e Exception
    */
   protected Response handleException(Exception e){
+    if (e instanceof WebApplicationException) {
+      //e.g. redirect to the paged query, the response is already prepared
+      return ((WebApplicationException) e).getResponse();
+    }
+    
     String errorMessage = (e.getMessage() != null)?e.getMessage():"";
     
     if(e instanceof IssueValidationException){
@@ -71,6 +78,14 @@ public class BaseService {
         return Response.status(Response.Status.BAD_REQUEST).entity(errorMessage).build();
     }
     
+    if(e instanceof QueryException){
+      logger.warn(e.getMessage());
+      if(errorMessage == null || errorMessage.isEmpty()){
+        errorMessage = "Invalid query.";
+      }
+      return Response.status(Response.Status.BAD_REQUEST).entity(errorMessage).build();
+    }
+    
     if(e instanceof PermissionException){
       logger.warn(e.getMessage());
       if(errorMessage == null || errorMessage.isEmpty()){
@@ -0,0 +1,89 @@
+package com.ericsson.jira.oslc.services;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.atlassian.sal.api.user.UserManager;
+import com.ericsson.jira.oslc.managers.PermissionManager;
+import com.ericsson.jira.oslc.utils.RepresentationCache;
+import com.google.gson.Gson;
+
+/**
+ * A service for the statistics of the cache of change request representations.
+ * The statistics (e.g. hit ratio) are used for sizing of the cache. Only the system administrator can use it.
+ *
+ */
+@Path("/cacheStatistics")
+public class CacheStatisticsService {
+  private static Logger logger = LoggerFactory.getLogger(CacheStatisticsService.class);
+  private static final String CURRENT_CLASS = "CacheStatisticsService";
+  
+  private final UserManager userManager;
+  
+  public CacheStatisticsService(UserManager userManager) {
+    this.userManager = userManager;
+  }
+  
+  /**
+   * Returns the statistics of the cache as JSON
+   * @return the statistics of the cache
+   */
+  @GET
+  @Produces({ MediaType.APPLICATION_JSON })
+  public Response getStatistics() {
+    if (!PermissionManager.isSystemAdmin(userManager)) {
+      return Response.status(Status.FORBIDDEN).build();
+    }
+    String statistics = new Gson().toJson(RepresentationCache.getInstance().getStatistics());
+    return Response.ok(statistics).build();
+  }
+  
+  /**
+   * Removes all representations from the cache and resets the statistics
+   * @return the response of the request
+   */
+  @DELETE
+  public Response clear() {
+    if (!PermissionManager.isSystemAdmin(userManager)) {
+      return Response.status(Status.FORBIDDEN).build();
+    }
+    logger.info(CURRENT_CLASS + ".clear: the cache of the representations is cleared");
+    RepresentationCache.getInstance().clear();
+    return Response.ok().build();
+  }
+}
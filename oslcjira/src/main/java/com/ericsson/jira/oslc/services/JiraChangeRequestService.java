@@ -16,15 +16,24 @@
  *******************************************************************************/
 package com.ericsson.jira.oslc.services;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.lang.annotation.Annotation;
 import java.net.URLEncoder;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -40,26 +49,37 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+import javax.xml.bind.DatatypeConverter;
 
+import org.eclipse.lyo.core.query.OrderByClause;
 import org.eclipse.lyo.core.query.ParseException;
 import org.eclipse.lyo.core.query.Properties;
 import org.eclipse.lyo.core.query.QueryUtils;
+import org.eclipse.lyo.core.query.WhereClause;
 import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcCreationFactory;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespaceDefinition;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcQueryCapability;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcSchema;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcService;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.core.model.Compact;
 import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
 import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
 import org.eclipse.lyo.oslc4j.core.model.Preview;
 
 import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.issue.Issue;
 import com.atlassian.jira.issue.IssueManager;
 import com.atlassian.jira.issue.MutableIssue;
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
@@ -68,14 +88,23 @@ import com.ericsson.jira.oslc.Constants;
 import com.ericsson.jira.oslc.constants.JiraConstants;
 import com.ericsson.jira.oslc.exceptions.NoResourceException;
 import com.ericsson.jira.oslc.exceptions.PermissionException;
+import com.ericsson.jira.oslc.exceptions.QueryException;
 import com.ericsson.jira.oslc.managers.FieldManager;
 import com.ericsson.jira.oslc.managers.JiraManager;
+import com.ericsson.jira.oslc.managers.QueryManager;
 import com.ericsson.jira.oslc.provider.ResponseArrayWrapper;
 import com.ericsson.jira.oslc.resources.ChangeRequest;
+import com.ericsson.jira.oslc.resources.ChangeRequestProjection;
+import com.ericsson.jira.oslc.resources.JiraBatchItem;
 import com.ericsson.jira.oslc.resources.JiraChangeRequest;
+import com.ericsson.jira.oslc.resources.JiraCommentsRequest;
+import com.ericsson.jira.oslc.resources.JiraFacetsRequest;
 import com.ericsson.jira.oslc.resources.JiraHistoryRequest;
-import com.ericsson.jira.oslc.servlet.ServiceProviderCatalogSingleton;
+import com.ericsson.jira.oslc.resources.JiraWorklogsRequest;
 import com.ericsson.jira.oslc.utils.LogUtils;
+import com.ericsson.jira.oslc.utils.PageCursor;
+import com.ericsson.jira.oslc.utils.RepresentationCache;
+import com.ericsson.jira.oslc.utils.RequestContext;
 
 /**
  * A service for JIRA Change Request. The request represents JIRA issue
@@ -91,6 +120,10 @@ public class JiraChangeRequestService extends BaseService{
    @Context private HttpServletRequest httpServletRequest;
    @Context private HttpServletResponse httpServletResponse;
    @Context private UriInfo uriInfo;
+   @Context private Request request;
+   @Context private Providers providers;
+   
+   private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
 	
    public JiraChangeRequestService(TemplateRenderer templateRenderer) {
      super();
@@ -107,7 +140,7 @@ public class JiraChangeRequestService extends BaseService{
     )
     
   /**
-   * RDF/XML, XML and JSON representation of a change request collection
+   * RDF/XML, XML, JSON and streamed JSON representation of a change request collection
    * 
    * 
    * @param projectId
@@ -119,14 +152,15 @@ public class JiraChangeRequestService extends BaseService{
    * @param searchTerms
    * @param paging
    * @param pageSize
+   * @param pageToken the continuation token of the page returned in the link to the next page
    * @return
    * @throws IOException
    * @throws ServletException
    */
   @GET
-  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON })
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, Constants.APPLICATION_JSON_STREAM, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
   @AnonymousAllowed
-  public Response getChangeRequests(@PathParam("projectId") final String projectId, @QueryParam("oslc.where") final String where, @QueryParam("oslc.select") final String select, @QueryParam("oslc.prefix") final String prefix, @QueryParam("page") final String pageString, @QueryParam("oslc.orderBy") final String orderBy, @QueryParam("oslc.searchTerms") final String searchTerms, @QueryParam("oslc.paging") final String paging, @QueryParam("oslc.properties") final String propertiesString, @QueryParam("oslc.pageSize") final String pageSize) throws IOException, ServletException, URISyntaxException {
+  public Response getChangeRequests(@PathParam("projectId") final String projectId, @QueryParam("oslc.where") final String where, @QueryParam("oslc.select") final String select, @QueryParam("oslc.prefix") final String prefix, @QueryParam("page") final String pageString, @QueryParam("oslc.orderBy") final String orderBy, @QueryParam("oslc.searchTerms") final String searchTerms, @QueryParam("oslc.paging") final String paging, @QueryParam("oslc.properties") final String propertiesString, @QueryParam("oslc.pageSize") final String pageSize, @QueryParam("pageToken") final String pageToken) throws IOException, ServletException, URISyntaxException {
     try {
       String currentMethod = "getChangeRequests";
       logger.debug(getClass().getName() + ":getChangeRequests");
@@ -136,26 +170,77 @@ public class JiraChangeRequestService extends BaseService{
         isPaging = Boolean.parseBoolean(paging);
       }
 
-      int limit = 10;
-      if (isPaging && pageSize != null) {
-        limit = Integer.parseInt(pageSize);
+      int limit = Constants.DEFAULT_PAGE_SIZE;
+      int page = 0;
+      if (isPaging) {
+        limit = parsePageParameter(pageSize, Constants.DEFAULT_PAGE_SIZE);
+        page = parsePageParameter(pageString, 0);
+      }
+      //oslc.pageSize=0 means that only the response info with the total count is returned
+      if (limit < 0) {
+        limit = Constants.DEFAULT_PAGE_SIZE;
+      } else if (limit > Constants.MAX_PAGE_SIZE) {
+        limit = Constants.MAX_PAGE_SIZE;
+      }
+      if (page < 0) {
+        page = 0;
+      }
+      PageCursor cursor = null;
+      if (isPaging && pageToken != null && !pageToken.trim().isEmpty()) {
+        cursor = PageCursor.decode(pageToken);
       }
 
       Map<String, String> prefixMap = QueryUtils.parsePrefixes(prefix);
       addDefaultPrefixes(prefixMap);
 
+      //oslc.properties has priority, oslc.select is the selection of the query capability
+      String selection = (propertiesString != null) ? propertiesString : select;
+      Map<String, Integer> itemLimits = new HashMap<String, Integer>();
+      selection = ChangeRequestProjection.extractLimits(selection, prefixMap, itemLimits);
       Properties filterProperties;
-      if (propertiesString == null) {
+      if (selection == null) {
         filterProperties = QueryUtils.WILDCARD_PROPERTY_LIST;
       } else {
-        filterProperties = QueryUtils.parseSelect(propertiesString, prefixMap);
+        filterProperties = QueryUtils.parseSelect(selection, prefixMap);
+      }
+      Map<String, Object> filterPropertiesMap = QueryUtils.invertSelectedProperties(filterProperties);
+      filterPropertiesMap = (filterPropertiesMap == null || filterPropertiesMap.isEmpty()) ? null : filterPropertiesMap;
+
+      WhereClause whereClause = null;
+      if (where != null && !where.trim().isEmpty()) {
+        try {
+          whereClause = QueryUtils.parseWhere(where, prefixMap);
+        } catch (ParseException e) {
+          throw new QueryException("Invalid oslc.where: " + e.getMessage(), e);
+        }
+      }
+
+      OrderByClause orderByClause = null;
+      if (orderBy != null && !orderBy.trim().isEmpty()) {
+        try {
+          orderByClause = QueryUtils.parseOrderBy(orderBy, prefixMap);
+        } catch (ParseException e) {
+          throw new QueryException("Invalid oslc.orderBy: " + e.getMessage(), e);
+        }
       }
 
-      final List<JiraChangeRequest> results = JiraManager.getIssuesByProject(httpServletRequest, projectId);
+      List<String> searchTermsList = null;
+      if (searchTerms != null && !searchTerms.trim().isEmpty()) {
+        try {
+          searchTermsList = QueryUtils.parseSearchTerms(searchTerms);
+        } catch (ParseException e) {
+          throw new QueryException("Invalid oslc.searchTerms: " + e.getMessage(), e);
+        }
+      }
+
+      final Iterable<JiraChangeRequest> results = JiraManager.getIssuesByProject(httpServletRequest, projectId, whereClause, orderByClause, searchTermsList, 
+          ChangeRequestProjection.fromSelectedProperties(filterPropertiesMap).withLimits(itemLimits), cursor, page, limit);
       Object nextPageAttr = httpServletRequest.getAttribute(Constants.NEXT_PAGE);
+      String nextPageToken = (String) httpServletRequest.getAttribute(Constants.NEXT_PAGE_TOKEN);
+      Object totalCount = httpServletRequest.getAttribute(Constants.TOTAL_COUNT);
 
-      if (!isPaging && nextPageAttr != null) {
-        String location = uriInfo.getBaseUri().toString() + uriInfo.getPath() + '?' + (where != null ? ("oslc.where=" + URLEncoder.encode(where, "UTF-8") + '&') : "") + (select != null ? ("oslc.select=" + URLEncoder.encode(select, "UTF-8") + '&') : "") + (prefix != null ? ("oslc.prefix=" + URLEncoder.encode(prefix, "UTF-8") + '&') : "") + (orderBy != null ? ("oslc.orderBy=" + URLEncoder.encode(orderBy, "UTF-8") + '&') : "") + (searchTerms != null ? ("oslc.searchTerms=" + URLEncoder.encode(searchTerms, "UTF-8") + '&') : "") + "oslc.paging=true&oslc.pageSize=" + limit;
+      if (!isPaging && (nextPageAttr != null || nextPageToken != null)) {
+        String location = getQueryLocation(where, select, prefix, orderBy, searchTerms, propertiesString, limit, null, null);
         try {
           throw new WebApplicationException(Response.temporaryRedirect(new URI(location)).build());
         } catch (URISyntaxException e) {
@@ -164,18 +249,19 @@ public class JiraChangeRequestService extends BaseService{
         }
       }
 
-      Map<String, Object> filterPropertiesMap = QueryUtils.invertSelectedProperties(filterProperties);
-      filterPropertiesMap = (filterPropertiesMap == null || filterPropertiesMap.isEmpty()) ? null : filterPropertiesMap;
       httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES, filterPropertiesMap);
 
-      if (nextPageAttr != null) {
-        String location = uriInfo.getBaseUri().toString() + uriInfo.getPath() + '?' + (where != null ? ("oslc.where=" + URLEncoder.encode(where, "UTF-8") + '&') : "") + (select != null ? ("oslc.select=" + URLEncoder.encode(select, "UTF-8") + '&') : "") + (prefix != null ? ("oslc.prefix=" + URLEncoder.encode(prefix, "UTF-8") + '&') : "") + (orderBy != null ? ("oslc.orderBy=" + URLEncoder.encode(orderBy, "UTF-8") + '&') : "") + (searchTerms != null ? ("oslc.searchTerms=" + URLEncoder.encode(searchTerms, "UTF-8") + '&') : "") + "oslc.paging=true&oslc.pageSize=" + limit + "&page=" + nextPageAttr;
+      if (nextPageAttr != null || nextPageToken != null) {
+        String location = getQueryLocation(where, select, prefix, orderBy, searchTerms, propertiesString, limit, 
+            (nextPageAttr != null) ? nextPageAttr.toString() : null, nextPageToken);
         httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_NEXT_PAGE, location);
       }
+      if (totalCount != null) {
+        httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_TOTAL_COUNT, totalCount);
+      }
 
-      JiraChangeRequest[] array = results.toArray(new JiraChangeRequest[results.size()]);
       ResponseArrayWrapper<JiraChangeRequest> wrapper = new ResponseArrayWrapper<JiraChangeRequest>();
-      wrapper.setResource(array);
+      wrapper.setResources(results);
       return Response.ok(wrapper).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
     } catch (Exception e) {
       logger.error(CURRENT_CLASS + ". getChangeRequests - Exception: " + e.getMessage());
@@ -183,6 +269,71 @@ public class JiraChangeRequestService extends BaseService{
     }
   }
     
+  /**
+   * Returns the URI of the query with paging. It's used for the redirect of the query
+   * without paging and for the link to the next page.
+   * @param where oslc.where
+   * @param select oslc.select
+   * @param prefix oslc.prefix
+   * @param orderBy oslc.orderBy
+   * @param searchTerms oslc.searchTerms
+   * @param propertiesString oslc.properties
+   * @param limit the size of the page
+   * @param page the number of the page. If it's null, the parameter is omitted (the first page)
+   * @param pageToken the continuation token of the page. If it's null, the parameter is omitted
+   * @return the URI of the query with paging
+   * @throws UnsupportedEncodingException
+   */
+  private String getQueryLocation(final String where, final String select, final String prefix, final String orderBy, final String searchTerms, final String propertiesString, final int limit, final String page, final String pageToken) throws UnsupportedEncodingException {
+    StringBuilder location = new StringBuilder(uriInfo.getBaseUri().toString() + uriInfo.getPath() + '?');
+    appendQueryParameter(location, "oslc.where", where);
+    appendQueryParameter(location, "oslc.select", select);
+    appendQueryParameter(location, "oslc.prefix", prefix);
+    appendQueryParameter(location, "oslc.orderBy", orderBy);
+    appendQueryParameter(location, "oslc.searchTerms", searchTerms);
+    appendQueryParameter(location, "oslc.properties", propertiesString);
+    location.append("oslc.paging=true&oslc.pageSize=").append(limit);
+    if (page != null) {
+      location.append("&page=").append(page);
+    }
+    if (pageToken != null) {
+      location.append("&pageToken=").append(URLEncoder.encode(pageToken, "UTF-8"));
+    }
+    return location.toString();
+  }
+
+  /**
+   * Appends encoded query parameter followed by '&' to the URI. If the value is null, nothing is appended.
+   * @param location the URI
+   * @param name the name of the parameter
+   * @param value the value of the parameter
+   * @throws UnsupportedEncodingException
+   */
+  private static void appendQueryParameter(final StringBuilder location, final String name, final String value) throws UnsupportedEncodingException {
+    if (value != null) {
+      location.append(name).append('=').append(URLEncoder.encode(value, "UTF-8")).append('&');
+    }
+  }
+
+  /**
+   * Parses paging parameter (page, oslc.pageSize). If the value is missing or it isn't a number, 
+   * the default value is returned.
+   * @param value the value of the parameter
+   * @param defaultValue the default value
+   * @return parsed value
+   */
+  private static int parsePageParameter(final String value, final int defaultValue) {
+    if (value == null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid paging parameter: " + value);
+      return defaultValue;
+    }
+  }
+    
   /**
    * Adds default prefixes to the map 
    * @param prefixMap the of prefixes
@@ -226,6 +377,129 @@ public class JiraChangeRequestService extends BaseService{
     
 
 
+  /**
+   * The numbers of the change requests of the project grouped by the values of the properties (facets). 
+   * The change requests can be filtered by oslc.where and oslc.searchTerms like the query of change requests, 
+   * but all terms of oslc.where have to be evaluated by JIRA search. The numbers are computed from JIRA index.
+   * 
+   * @param projectId
+   * @param groupBy the comma separated list of the properties which the change requests are grouped by 
+   * (jira:issueStatus, jira:issuePriority, jira:issueType, jira:assignee, jira:component)
+   * @param where oslc.where
+   * @param searchTerms oslc.searchTerms
+   * @param prefix oslc.prefix
+   * @return response with the facets or warning in case of exception
+   */
+  @GET
+  @Path("facets")
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
+  @AnonymousAllowed
+  public Response getChangeRequestFacets(@PathParam("projectId") final String projectId, @QueryParam("groupBy") final String groupBy, @QueryParam("oslc.where") final String where, 
+      @QueryParam("oslc.searchTerms") final String searchTerms, @QueryParam("oslc.prefix") final String prefix) {
+    String currentMethod = "getChangeRequestFacets";
+    logger.debug(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      Map<String, String> prefixMap = QueryUtils.parsePrefixes(prefix);
+      addDefaultPrefixes(prefixMap);
+      
+      List<String> properties = QueryManager.parseFacetProperties(groupBy, prefixMap);
+      
+      WhereClause whereClause = null;
+      if (where != null && !where.trim().isEmpty()) {
+        try {
+          whereClause = QueryUtils.parseWhere(where, prefixMap);
+        } catch (ParseException e) {
+          throw new QueryException("Invalid oslc.where: " + e.getMessage(), e);
+        }
+      }
+      
+      List<String> searchTermsList = null;
+      if (searchTerms != null && !searchTerms.trim().isEmpty()) {
+        try {
+          searchTermsList = QueryUtils.parseSearchTerms(searchTerms);
+        } catch (ParseException e) {
+          throw new QueryException("Invalid oslc.searchTerms: " + e.getMessage(), e);
+        }
+      }
+      
+      JiraFacetsRequest facets = JiraManager.getFacets(httpServletRequest, projectId, whereClause, searchTermsList, properties);
+      facets.setAbout(uriInfo.getRequestUri());
+      return Response.ok(facets).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+
+  /**
+   * RDF/XML, XML and JSON representation of the change requests which are requested by the list of ids or keys.
+   * The change requests are returned in one response in the order of the ids. The issue which doesn't exist or 
+   * which the user can't browse is returned as jira:BatchItem with oslc:statusCode.
+   * 
+   * @param projectId
+   * @param ids the comma separated list of ids or keys of the issues
+   * @param propertiesString
+   * @param prefix
+   * @return
+   */
+  @GET
+  @Path("batch")
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, Constants.APPLICATION_JSON_STREAM, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
+  @AnonymousAllowed
+  public Response getChangeRequestsBatch(@PathParam("projectId") final String projectId, @QueryParam("ids") final String ids, @QueryParam("oslc.properties") final String propertiesString, @QueryParam("oslc.prefix") final String prefix) {
+    String currentMethod = "getChangeRequestsBatch";
+    logger.debug(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      Set<String> issueIds = new LinkedHashSet<String>();
+      if (ids != null) {
+        for (String id : ids.split(",")) {
+          if (!id.trim().isEmpty()) {
+            issueIds.add(id.trim());
+          }
+        }
+      }
+      if (issueIds.isEmpty()) {
+        throw new QueryException("The parameter ids is required.");
+      }
+      if (issueIds.size() > Constants.MAX_PAGE_SIZE) {
+        throw new QueryException("The maximum number of ids is " + Constants.MAX_PAGE_SIZE + ".");
+      }
+      
+      Map<String, String> prefixMap = QueryUtils.parsePrefixes(prefix);
+      addDefaultPrefixes(prefixMap);
+      recursivelyCollectNamespaceMappings(prefixMap, JiraBatchItem.class);
+      
+      Map<String, Integer> itemLimits = new HashMap<String, Integer>();
+      String selection = ChangeRequestProjection.extractLimits(propertiesString, prefixMap, itemLimits);
+      Properties properties;
+      if (selection == null) {
+        properties = QueryUtils.WILDCARD_PROPERTY_LIST;
+      } else {
+        properties = QueryUtils.parseSelect(selection, prefixMap);
+      }
+      Map<String, Object> filterProperties = QueryUtils.invertSelectedProperties(properties);
+      filterProperties = (filterProperties == null || filterProperties.isEmpty()) ? null : filterProperties;
+      
+      Iterable<AbstractResource> results = JiraManager.getIssuesByIds(httpServletRequest, projectId, new ArrayList<String>(issueIds), 
+          ChangeRequestProjection.fromSelectedProperties(filterProperties).withLimits(itemLimits));
+      
+      //the result of the item is returned even if it's not in the selected properties
+      if (filterProperties != null) {
+        filterProperties.putAll(QueryUtils.invertSelectedProperties(QueryUtils.parseSelect(JiraBatchItem.PROPERTIES, prefixMap)));
+      }
+      httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES, filterProperties);
+      
+      ResponseArrayWrapper<AbstractResource> wrapper = new ResponseArrayWrapper<AbstractResource>();
+      wrapper.setResources(results);
+      return Response.ok(wrapper).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+
 	/**
 	 * RDF/XML, XML and JSON representation of a single change request
 	 * 
@@ -240,7 +514,7 @@ public class JiraChangeRequestService extends BaseService{
 	 */
     @GET
     @Path("{changeRequestId}")
-    @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+    @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
     @AnonymousAllowed
   public Response getChangeRequest(@PathParam("projectId") final String projectId, @PathParam("changeRequestId") final String changeRequestId, @QueryParam("oslc.properties") final String propertiesString, @QueryParam("oslc.prefix") final String prefix) throws IOException, ServletException, URISyntaxException {
     String currentMethod = "getChangeRequest";
@@ -254,28 +528,54 @@ public class JiraChangeRequestService extends BaseService{
 
       prefixMap = QueryUtils.parsePrefixes(prefix);
       addDefaultPrefixes(prefixMap);
+      Map<String, Integer> itemLimits = new HashMap<String, Integer>();
+      String selection = ChangeRequestProjection.extractLimits(propertiesString, prefixMap, itemLimits);
       Properties properties;
 
-      if (propertiesString == null) {
+      if (selection == null) {
         properties = QueryUtils.WILDCARD_PROPERTY_LIST;
       } else {
-        properties = QueryUtils.parseSelect(propertiesString, prefixMap);
+        properties = QueryUtils.parseSelect(selection, prefixMap);
       }
 
-      JiraChangeRequest changeRequest = JiraManager.getIssueById(httpServletRequest, changeRequestId);
-
-      changeRequest.setServiceProvider(ServiceProviderCatalogSingleton.getServiceProvider(httpServletRequest, projectId).getAbout());
-      changeRequest.setAbout(getAboutURI(projectId + "/changeRequests/" + changeRequest.getIdentifier()));
-      setETagHeader(getETagFromChangeRequest(changeRequest), httpServletResponse);
-
       Map<String, Object> filterProperties = QueryUtils.invertSelectedProperties(properties);
       filterProperties = (filterProperties == null || filterProperties.isEmpty()) ? null : filterProperties;
-      httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES, filterProperties);
 
-      logMsg = LogUtils.createLogForModel(changeRequest);
-      logger.debug(CURRENT_CLASS + "." + currentMethod + " - Response: " + logMsg);
+      //the validators are checked before the change request is created
+      MutableIssue issue = JiraManager.getReadableIssue(httpServletRequest, changeRequestId);
+      Date lastModified = getLastModified(issue);
+      String eTag = getETag(lastModified);
+      if (isNotModified(eTag, lastModified)) {
+        return notModified(eTag, lastModified);
+      }
+
+      //the representation doesn't depend on the user, the permissions have been checked already
+      MediaType mediaType = getChangeRequestMediaType();
+      ChangeRequestProjection projection = ChangeRequestProjection.fromSelectedProperties(filterProperties).withLimits(itemLimits);
+      boolean cacheable = isCacheable(projection);
+      RepresentationCache.Key cacheKey = new RepresentationCache.Key(issue.getId(), lastModified.getTime(), mediaType.toString(), getRepresentationVariant());
+      byte[] representation = cacheable ? RepresentationCache.getInstance().get(cacheKey) : null;
       
-      return Response.ok(changeRequest).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+      if (representation == null) {
+        RequestContext context = RequestContext.get(httpServletRequest);
+        JiraChangeRequest changeRequest = JiraChangeRequest.fromJiraIssue(issue, projection, context);
+
+        changeRequest.setServiceProvider(context.getServiceProvider(projectId));
+        changeRequest.setAbout(getAboutURI(projectId + "/changeRequests/" + changeRequest.getIdentifier()));
+
+        httpServletRequest.setAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES, filterProperties);
+
+        logMsg = LogUtils.createLogForModel(changeRequest);
+        logger.debug(CURRENT_CLASS + "." + currentMethod + " - Response: " + logMsg);
+        
+        representation = serialize(changeRequest, mediaType);
+        if (cacheable) {
+          RepresentationCache.getInstance().put(cacheKey, representation);
+        }
+      }
+      setETagHeader(eTag, httpServletResponse);
+      
+      return Response.ok(representation, mediaType).lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
     } catch (Exception e) {
       logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
       return handleException(e);
@@ -306,7 +606,14 @@ public class JiraChangeRequestService extends BaseService{
          ServletException, PermissionException, NoResourceException {
      String currentMethod = "getCompact";
      try{
-         JiraChangeRequest changeRequest = JiraManager.getIssueById(httpServletRequest, changeRequestId);
+         MutableIssue issue = JiraManager.getReadableIssue(httpServletRequest, changeRequestId);
+         Date lastModified = getLastModified(issue);
+         String eTag = getETag(lastModified);
+         if (isNotModified(eTag, lastModified)) {
+           return notModified(eTag, lastModified);
+         }
+         
+         JiraChangeRequest changeRequest = JiraChangeRequest.fromJiraIssue(issue, ChangeRequestProjection.BASIC, RequestContext.get(httpServletRequest));
  
          final Compact compact = new Compact();
          compact.setAbout(getAboutURI(projectId + "/changeRequests/" + changeRequest.getIdentifier()));
@@ -327,7 +634,8 @@ public class JiraChangeRequestService extends BaseService{
          //now the large preview is the same as small preview
          largePreview.setDocument(new URI(compact.getAbout().toString() + "/smallPreview"));
          compact.setLargePreview(largePreview);
-         return Response.ok(compact).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+         setETagHeader(eTag, httpServletResponse);
+         return Response.ok(compact).lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
      }catch (Exception e) {
        logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
        return handleException(e);
@@ -355,6 +663,14 @@ public class JiraChangeRequestService extends BaseService{
     final MutableIssue issue = issueManager.getIssueObject(changeRequestId); 
     
     if (issue != null) {
+      Date lastModified = getLastModified(issue);
+      String eTag = getETag(lastModified);
+      if (isNotModified(eTag, lastModified)) {
+        return notModified(eTag, lastModified);
+      }
+      setETagHeader(eTag, httpServletResponse);
+      httpServletResponse.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified.getTime());
+      
       SimpleDateFormat format = new SimpleDateFormat();
       Map<String, Object> context = new HashMap<String, Object>();
       
@@ -439,10 +755,19 @@ public class JiraChangeRequestService extends BaseService{
       try {
         String syncType = httpServletRequest.getHeader(JiraConstants.SYNC_HEADER_NAME);
         Long newIssueId = JiraManager.createIssue(httpServletRequest, changeRequest, projectId, syncType);
+        
+        //the new issue isn't converted to the change request when the client doesn't want it
+        if (isReturnMinimal()) {
+          MutableIssue newIssue = ComponentAccessor.getIssueManager().getIssueObject(newIssueId);
+          URI about = getAboutURI(projectId + "/changeRequests/" + newIssue.getKey());
+          setETagHeader(getETag(getLastModified(newIssue)), httpServletResponse);
+          return Response.created(about).header(Constants.HDR_PREFERENCE_APPLIED, Constants.PREFER_RETURN_MINIMAL)
+              .header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+        }
 
         JiraChangeRequest newChangeRequest = JiraManager.getIssueById(httpServletRequest, newIssueId);
         URI about = getAboutURI(projectId + "/changeRequests/" + newChangeRequest.getIdentifier());
-        newChangeRequest.setServiceProvider(ServiceProviderCatalogSingleton.getServiceProvider(httpServletRequest, projectId).getAbout());
+        newChangeRequest.setServiceProvider(RequestContext.get(httpServletRequest).getServiceProvider(projectId));
         newChangeRequest.setAbout(about);
         setETagHeader(getETagFromChangeRequest(newChangeRequest), httpServletResponse);
         
@@ -458,6 +783,47 @@ public class JiraChangeRequestService extends BaseService{
         
     }
 
+    /**
+     * Create more JiraChangeRequests via RDF/XML, XML or JSON POST of the collection of change requests.
+     * All change requests are validated before the issues are created. The result of each change request 
+     * is returned as jira:BatchItem with oslc:statusCode (201 with the URI of the new change request 
+     * or 400 with oslc:message) and jira:source (the URI of the change request in the request).
+     * @param projectId
+     * @param changeRequests
+     * @return
+     */
+    @POST
+    @Path("batch")
+    @Consumes({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+    @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+    @AnonymousAllowed
+    public Response addChangeRequests(@PathParam("projectId") final String projectId, final JiraChangeRequest[] changeRequests) {
+      String currentMethod = "addChangeRequests";
+      logger.info(CURRENT_CLASS + "." + currentMethod);
+      
+      try {
+        if (httpServletRequest.getHeader(JiraConstants.SYNC_HEADER_NAME) != null) {
+          throw new QueryException("The synchronization isn't supported by the batch creation.");
+        }
+        if (changeRequests == null || changeRequests.length == 0) {
+          throw new QueryException("No change request is in the request.");
+        }
+        if (changeRequests.length > Constants.MAX_PAGE_SIZE) {
+          throw new QueryException("The maximum number of change requests is " + Constants.MAX_PAGE_SIZE + ".");
+        }
+        
+        List<JiraBatchItem> results = JiraManager.createIssues(httpServletRequest, Arrays.asList(changeRequests), projectId);
+        logger.debug(CURRENT_CLASS + "." + currentMethod + " - " + results.size() + " change requests processed");
+        
+        ResponseArrayWrapper<JiraBatchItem> wrapper = new ResponseArrayWrapper<JiraBatchItem>();
+        wrapper.setResources(results);
+        return Response.ok(wrapper).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+      } catch (Exception e) {
+        logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+        return handleException(e);
+      }
+    }
+
     /**
      * Backend creator for the OSLC delegated creation dialog. 
      * 
@@ -564,9 +930,19 @@ public class JiraChangeRequestService extends BaseService{
       String syncType = httpServletRequest.getHeader(JiraConstants.SYNC_HEADER_NAME);
  
       JiraManager.updateIssue(httpServletRequest, changeRequest, changeRequestId, selectedProperties, syncType);
+      
+      //the updated issue isn't converted to the change request when the client doesn't want it
+      if (isReturnMinimal()) {
+        MutableIssue updatedIssue = ComponentAccessor.getIssueManager().getIssueObject(changeRequestId);
+        setETagHeader(getETag(getLastModified(updatedIssue)), httpServletResponse);
+        return Response.noContent().location(getAboutURI(projectId + "/changeRequests/" + updatedIssue.getKey()))
+            .header(Constants.HDR_PREFERENCE_APPLIED, Constants.PREFER_RETURN_MINIMAL)
+            .header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+      }
+      
       JiraChangeRequest updatedChangeRequest = JiraManager.getIssueById(httpServletRequest, changeRequestId);
 
-      updatedChangeRequest.setServiceProvider(ServiceProviderCatalogSingleton.getServiceProvider(httpServletRequest, projectId).getAbout());
+      updatedChangeRequest.setServiceProvider(RequestContext.get(httpServletRequest).getServiceProvider(projectId));
       updatedChangeRequest.setAbout(getAboutURI(projectId + "/changeRequests/" + updatedChangeRequest.getIdentifier()));
       setETagHeader(getETagFromChangeRequest(updatedChangeRequest), httpServletResponse);
       
@@ -584,6 +960,100 @@ public class JiraChangeRequestService extends BaseService{
     }
   }  
 
+  /**
+   * Partial update of more JiraChangeRequests via RDF/XML, XML or JSON PUT of the collection of change requests. 
+   * The issue is identified by dcterms:identifier or by the URI of the change request. The properties selected by 
+   * oslc.properties are updated in all issues. The result of each change request is returned as jira:BatchItem
+   * with oslc:statusCode, the failure of one change request doesn't stop the update of the other ones.
+   * @param projectId
+   * @param changeRequests
+   * @param propertiesString
+   * @param prefix
+   * @return
+   */
+  @PUT
+  @Path("batch")
+  @Consumes({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+  @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+  @AnonymousAllowed
+  public Response updateChangeRequests(@PathParam("projectId") final String projectId, final JiraChangeRequest[] changeRequests, @QueryParam("oslc.properties") final String propertiesString, @QueryParam("oslc.prefix") final String prefix) {
+    String currentMethod = "updateChangeRequests";
+    logger.info(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      if (httpServletRequest.getHeader(JiraConstants.SYNC_HEADER_NAME) != null) {
+        throw new QueryException("The synchronization isn't supported by the batch update.");
+      }
+      if (changeRequests == null || changeRequests.length == 0) {
+        throw new QueryException("No change request is in the request.");
+      }
+      if (changeRequests.length > Constants.MAX_PAGE_SIZE) {
+        throw new QueryException("The maximum number of change requests is " + Constants.MAX_PAGE_SIZE + ".");
+      }
+      
+      Map<String, String> prefixMap = QueryUtils.parsePrefixes(prefix);
+      addDefaultPrefixes(prefixMap);
+      Properties properties;
+      if (propertiesString == null) {
+        properties = QueryUtils.WILDCARD_PROPERTY_LIST;
+      } else {
+        properties = QueryUtils.parseSelect(propertiesString, prefixMap);
+      }
+      Map<String, Object> selectedProperties = QueryUtils.invertSelectedProperties(properties);
+      
+      List<String> issueIds = new ArrayList<String>();
+      for (JiraChangeRequest changeRequest : changeRequests) {
+        issueIds.add(getIssueId(changeRequest));
+      }
+      
+      List<JiraBatchItem> results = JiraManager.updateIssues(httpServletRequest, Arrays.asList(changeRequests), issueIds, selectedProperties, projectId);
+      logger.debug(CURRENT_CLASS + "." + currentMethod + " - " + results.size() + " change requests processed");
+      
+      ResponseArrayWrapper<JiraBatchItem> wrapper = new ResponseArrayWrapper<JiraBatchItem>();
+      wrapper.setResources(results);
+      return Response.ok(wrapper).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+  
+  /**
+   * Returns the id of the issue of the change request. It's dcterms:identifier or the last segment
+   * of the URI of the change request.
+   * @param changeRequest the change request
+   * @return the id or the key of the issue
+   * @throws QueryException the change request doesn't identify the issue
+   */
+  private static String getIssueId(final JiraChangeRequest changeRequest) throws QueryException {
+    if (changeRequest.getIdentifier() != null && !changeRequest.getIdentifier().trim().isEmpty()) {
+      return changeRequest.getIdentifier().trim();
+    }
+    URI about = changeRequest.getAbout();
+    String path = (about != null) ? about.getPath() : null;
+    if (path == null || path.endsWith("/") || !path.contains("/changeRequests/")) {
+      throw new QueryException("The change request has to contain dcterms:identifier or the URI of the change request.");
+    }
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+
+  /**
+   * Checks if the client prefers the response without the body (Prefer: return=minimal).
+   * The response with the representation is the default.
+   * @return true if the client prefers the minimal response, otherwise false
+   */
+  private boolean isReturnMinimal() {
+    Enumeration<?> values = httpServletRequest.getHeaders(Constants.HDR_PREFER);
+    while (values != null && values.hasMoreElements()) {
+      for (String preference : String.valueOf(values.nextElement()).split("[,;]")) {
+        if (Constants.PREFER_RETURN_MINIMAL.equalsIgnoreCase(preference.replace(" ", ""))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Sest Etag to the header
    * @param eTagFromChangeRequest eTag which is located in Change Request
@@ -600,18 +1070,159 @@ public class JiraChangeRequestService extends BaseService{
     * @return ETag of Change Request
     */
    private static String getETagFromChangeRequest(final ChangeRequest changeRequest)	{
-   	Long eTag = null;
-    	
-    	if (changeRequest.getModified() != null) {
-    		eTag = changeRequest.getModified().getTime();
-    	} else if (changeRequest.getCreated() != null) {
-    		eTag = changeRequest.getCreated().getTime();
-    	} else {
-    		eTag = new Long(0);
-    	}
-    	
-		return eTag.toString();
-	}
+     Date lastModified = (changeRequest.getModified() != null) ? changeRequest.getModified() : changeRequest.getCreated();
+     return getETag(lastModified);
+   }
+   
+   /**
+    * Gets ETag from the time of last modification. It's the same ETag as the ETag of the change request.
+    * @param lastModified the time of last modification. It can be null.
+    * @return ETag
+    */
+   private static String getETag(final Date lastModified) {
+     return String.valueOf((lastModified != null) ? lastModified.getTime() : 0L);
+   }
+   
+   /**
+    * Gets the time of last modification of the issue. It's the time of last update or the time of creation.
+    * @param issue JIRA issue
+    * @return the time of last modification
+    */
+   private static Date getLastModified(final Issue issue) {
+     if (issue.getUpdated() != null) {
+       return issue.getUpdated();
+     }
+     return (issue.getCreated() != null) ? issue.getCreated() : new Date(0);
+   }
+   
+   /**
+    * Checks the validators of conditional GET (If-None-Match and If-Modified-Since headers).
+    * If-Modified-Since is ignored when If-None-Match is present.
+    * @param eTag the current ETag of the resource
+    * @param lastModified the time of last modification of the resource
+    * @return true if the client has the current representation of the resource
+    */
+   private boolean isNotModified(final String eTag, final Date lastModified) {
+     String ifNoneMatch = httpServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+     if (ifNoneMatch != null) {
+       for (String tag : ifNoneMatch.split(",")) {
+         tag = tag.trim();
+         //weak comparison, the representations with the same time of modification are equivalent
+         if (tag.startsWith("W/")) {
+           tag = tag.substring(2);
+         }
+         if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+           tag = tag.substring(1, tag.length() - 1);
+         }
+         if ("*".equals(tag) || tag.equals(eTag)) {
+           return true;
+         }
+       }
+       return false;
+     }
+     
+     long ifModifiedSince;
+     try {
+       ifModifiedSince = httpServletRequest.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+     } catch (IllegalArgumentException e) {
+       logger.warn("Invalid If-Modified-Since header: " + httpServletRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+       return false;
+     }
+     //HTTP dates have the precision of seconds
+     return ifModifiedSince >= 0 && lastModified.getTime() / 1000 <= ifModifiedSince / 1000;
+   }
+   
+   /**
+    * Returns the media type of the change request representation negotiated by Accept header
+    * @return the media type of the representation
+    */
+   private MediaType getChangeRequestMediaType() {
+     List<Variant> variants = Variant.mediaTypes(OslcMediaType.APPLICATION_RDF_XML_TYPE, OslcMediaType.APPLICATION_XML_TYPE, OslcMediaType.APPLICATION_JSON_TYPE, 
+        OslcMediaType.TEXT_TURTLE_TYPE, MediaType.valueOf(Constants.APPLICATION_N_TRIPLES)).add().build();
+     Variant variant = request.selectVariant(variants);
+     return (variant != null) ? variant.getMediaType() : OslcMediaType.APPLICATION_RDF_XML_TYPE;
+   }
+   
+   /**
+    * Returns the variant of the representation. The representation depends on the request URI 
+    * (the base URI, the project) and the query parameters (oslc.properties, oslc.prefix).
+    * @return the variant of the representation
+    */
+   private String getRepresentationVariant() {
+     String queryString = httpServletRequest.getQueryString();
+     return httpServletRequest.getRequestURL().toString() + ((queryString != null) ? "?" + queryString : "");
+   }
+   
+   /**
+    * Checks if the representation of the change request can be cached. The voters, the watchers and the links 
+    * of the issue are changed without the issue event which removes the cached representations, 
+    * so the representations containing them aren't cached.
+    * @param projection the properties of the change request
+    * @return true if the representation can be cached, otherwise false
+    */
+   private static boolean isCacheable(final ChangeRequestProjection projection) {
+     return !projection.includes(Constants.JIRA_TYPE_VOTER) && !projection.includes(Constants.JIRA_TYPE_WATCHER) 
+         && !projection.includes(Constants.JIRA_TYPE_INSIDE_LINK) && !projection.includes(Constants.JIRA_TYPE_OUTSIDE_LINK);
+   }
+   
+   /**
+    * Serializes the change request by the provider of the media type
+    * @param changeRequest the change request
+    * @param mediaType the media type of the representation
+    * @return the serialized change request
+    * @throws IOException
+    */
+   private byte[] serialize(final JiraChangeRequest changeRequest, final MediaType mediaType) throws IOException {
+     MessageBodyWriter<JiraChangeRequest> writer = providers.getMessageBodyWriter(JiraChangeRequest.class, JiraChangeRequest.class, NO_ANNOTATIONS, mediaType);
+     if (writer == null) {
+       throw new IllegalStateException("There is no writer of " + mediaType + " for the change request.");
+     }
+     ByteArrayOutputStream output = new ByteArrayOutputStream();
+     writer.writeTo(changeRequest, JiraChangeRequest.class, JiraChangeRequest.class, NO_ANNOTATIONS, mediaType, new HeaderMap(), output);
+     return output.toByteArray();
+   }
+   
+   /**
+    * The headers which are written by the providers when the change request is serialized
+    * to the cached representation. They aren't sent to the client.
+    */
+   private static class HeaderMap extends HashMap<String, List<Object>> implements MultivaluedMap<String, Object> {
+     private static final long serialVersionUID = 1L;
+
+     @Override
+     public void putSingle(String key, Object value) {
+       List<Object> values = new ArrayList<Object>();
+       values.add(value);
+       put(key, values);
+     }
+
+     @Override
+     public void add(String key, Object value) {
+       List<Object> values = get(key);
+       if (values == null) {
+         values = new ArrayList<Object>();
+         put(key, values);
+       }
+       values.add(value);
+     }
+
+     @Override
+     public Object getFirst(String key) {
+       List<Object> values = get(key);
+       return (values == null || values.isEmpty()) ? null : values.get(0);
+     }
+   }
+   
+   /**
+    * Creates the response 304 Not Modified with the validators of the resource
+    * @param eTag the current ETag of the resource
+    * @param lastModified the time of last modification of the resource
+    * @return the response 304 Not Modified
+    */
+   private Response notModified(final String eTag, final Date lastModified) {
+     setETagHeader(eTag, httpServletResponse);
+     return Response.notModified().lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+   }
     
 
    /**
@@ -655,27 +1266,202 @@ public class JiraChangeRequestService extends BaseService{
    }
    
    /**
-    * List of history items for given issue.
+    * List of history items for given issue. The history can be paged (oslc.paging, oslc.pageSize), 
+    * the next page is identified by pageToken (the id of the last change of the previous page).
+    * The changes can be filtered by the time (since) and by the names of the fields (fields).
+    * The ETag of the history is the id of the latest change of the issue.
     * @param changeRequestId issue key
+    * @param paging oslc.paging
+    * @param pageSize oslc.pageSize
+    * @param pageToken the id of the last change of the previous page
+    * @param since only the changes created after this time (xsd:dateTime) are returned
+    * @param fieldsString the names of the fields separated by comma, only their changes are returned
     * @return response with history or warning in case of exception
     */
    @GET
    @Path("{changeRequestId}/history")
-   @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON})
+   @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
    @AnonymousAllowed
-   public Response getIssueHistory(@PathParam("changeRequestId") final String changeRequestId) {
+   public Response getIssueHistory(@PathParam("changeRequestId") final String changeRequestId, @QueryParam("oslc.paging") final String paging, 
+       @QueryParam("oslc.pageSize") final String pageSize, @QueryParam("pageToken") final String pageToken, 
+       @QueryParam("since") final String since, @QueryParam("fields") final String fieldsString) {
      
      try {
-      JiraHistoryRequest jhr = FieldManager.getHistoryOfIssue(httpServletRequest, changeRequestId);
-      return Response.ok(jhr).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+      int limit = getItemPageSize(paging, pageSize);
+      Long afterChangeId = getItemPageToken(paging, pageToken);
+      
+      Date sinceDate = null;
+      if (since != null && !since.trim().isEmpty()) {
+        try {
+          sinceDate = DatatypeConverter.parseDateTime(since.trim()).getTime();
+        } catch (IllegalArgumentException e) {
+          throw new QueryException("Invalid since: " + since + ". The value has to be xsd:dateTime.", e);
+        }
+      }
+      
+      Set<String> fields = null;
+      if (fieldsString != null && !fieldsString.trim().isEmpty()) {
+        fields = new LinkedHashSet<String>();
+        for (String field : fieldsString.split(",")) {
+          if (!field.trim().isEmpty()) {
+            fields.add(field.trim());
+          }
+        }
+      }
+      
+      //each change of the history has bigger id than the previous one
+      MutableIssue issue = JiraManager.getReadableIssue(httpServletRequest, changeRequestId);
+      Date lastModified = getLastModified(issue);
+      String eTag = String.valueOf(FieldManager.getLatestChangeId(issue));
+      if (isNotModified(eTag, lastModified)) {
+        return notModified(eTag, lastModified);
+      }
+      
+      JiraHistoryRequest jhr = FieldManager.getHistoryOfIssue(issue, sinceDate, fields, afterChangeId, limit);
+      if (jhr.getPageEndChangeId() != null) {
+        jhr.setNextPage(getItemNextPage(limit, jhr.getPageEndChangeId()));
+      }
+      setETagHeader(eTag, httpServletResponse);
+      return Response.ok(jhr).lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
      } 
-     catch (PermissionException e) {
+     catch (Exception e) {
        logger.error(CURRENT_CLASS + ".getIssueHistory Exception: " + e.getMessage());
        return handleException(e);
+     }
+   }
+   
+   /**
+    * The paged collection of the comments of given issue. The comments are paged like the history (oslc.paging, 
+    * oslc.pageSize, pageToken), the next page is identified by the id of the last comment of the previous page.
+    * The ETag is created from the number of the comments and the time of their last update.
+    * @param changeRequestId issue key
+    * @param paging oslc.paging
+    * @param pageSize oslc.pageSize
+    * @param pageToken the id of the last comment of the previous page
+    * @return response with the comments or warning in case of exception
+    */
+   @GET
+   @Path("{changeRequestId}/comments")
+   @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
+   @AnonymousAllowed
+   public Response getIssueComments(@PathParam("changeRequestId") final String changeRequestId, @QueryParam("oslc.paging") final String paging, 
+       @QueryParam("oslc.pageSize") final String pageSize, @QueryParam("pageToken") final String pageToken) {
+     
+     try {
+       int limit = getItemPageSize(paging, pageSize);
+       Long afterId = getItemPageToken(paging, pageToken);
+       
+       MutableIssue issue = JiraManager.getReadableIssue(httpServletRequest, changeRequestId);
+       Date lastModified = getLastModified(issue);
+       String eTag = FieldManager.getCommentsETag(issue);
+       if (isNotModified(eTag, lastModified)) {
+         return notModified(eTag, lastModified);
+       }
+       
+       JiraCommentsRequest comments = FieldManager.getCommentsOfIssue(issue, afterId, limit);
+       comments.setAbout(uriInfo.getAbsolutePath());
+       if (comments.getPageEndId() != null) {
+         comments.setNextPage(getItemNextPage(limit, comments.getPageEndId()));
+       }
+       setETagHeader(eTag, httpServletResponse);
+       return Response.ok(comments).lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+     } 
+     catch (Exception e) {
+       logger.error(CURRENT_CLASS + ".getIssueComments Exception: " + e.getMessage());
+       return handleException(e);
+     }
+   }
+   
+   /**
+    * The paged collection of the worklogs of given issue. The worklogs are paged like the history (oslc.paging, 
+    * oslc.pageSize, pageToken), the next page is identified by the id of the last worklog of the previous page.
+    * The ETag is created from the number of the worklogs and the time of their last update.
+    * @param changeRequestId issue key
+    * @param paging oslc.paging
+    * @param pageSize oslc.pageSize
+    * @param pageToken the id of the last worklog of the previous page
+    * @return response with the worklogs or warning in case of exception
+    */
+   @GET
+   @Path("{changeRequestId}/worklogs")
+   @Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES})
+   @AnonymousAllowed
+   public Response getIssueWorklogs(@PathParam("changeRequestId") final String changeRequestId, @QueryParam("oslc.paging") final String paging, 
+       @QueryParam("oslc.pageSize") final String pageSize, @QueryParam("pageToken") final String pageToken) {
+     
+     try {
+       int limit = getItemPageSize(paging, pageSize);
+       Long afterId = getItemPageToken(paging, pageToken);
+       
+       MutableIssue issue = JiraManager.getReadableIssue(httpServletRequest, changeRequestId);
+       Date lastModified = getLastModified(issue);
+       String eTag = FieldManager.getWorklogsETag(issue);
+       if (isNotModified(eTag, lastModified)) {
+         return notModified(eTag, lastModified);
+       }
+       
+       JiraWorklogsRequest worklogs = FieldManager.getWorklogsOfIssue(issue, afterId, limit);
+       worklogs.setAbout(uriInfo.getAbsolutePath());
+       if (worklogs.getPageEndId() != null) {
+         worklogs.setNextPage(getItemNextPage(limit, worklogs.getPageEndId()));
+       }
+       setETagHeader(eTag, httpServletResponse);
+       return Response.ok(worklogs).lastModified(lastModified).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
      } 
-     catch (NoResourceException e) {
-       logger.error(CURRENT_CLASS + ".getIssueHistory Exception: " + e.getMessage());
+     catch (Exception e) {
+       logger.error(CURRENT_CLASS + ".getIssueWorklogs Exception: " + e.getMessage());
        return handleException(e);
      }
    }
+   
+   /**
+    * Returns the number of the items (history changes, comments, worklogs) on the page. 
+    * Without paging all items are returned.
+    * @param paging oslc.paging
+    * @param pageSize oslc.pageSize
+    * @return the number of the items on the page
+    */
+   private static int getItemPageSize(final String paging, final String pageSize) {
+     boolean isPaging = (paging != null) && Boolean.parseBoolean(paging);
+     int limit = Integer.MAX_VALUE - 1;
+     if (isPaging) {
+       limit = parsePageParameter(pageSize, Constants.DEFAULT_PAGE_SIZE);
+       if (limit < 1) {
+         limit = Constants.DEFAULT_PAGE_SIZE;
+       } else if (limit > Constants.MAX_PAGE_SIZE) {
+         limit = Constants.MAX_PAGE_SIZE;
+       }
+     }
+     return limit;
+   }
+   
+   /**
+    * Returns the id of the last item (history change, comment, worklog) of the previous page
+    * @param paging oslc.paging
+    * @param pageToken pageToken
+    * @return the id of the last item of the previous page or null if it's the first page
+    * @throws QueryException the token isn't valid
+    */
+   private static Long getItemPageToken(final String paging, final String pageToken) throws QueryException {
+     boolean isPaging = (paging != null) && Boolean.parseBoolean(paging);
+     if (!isPaging || pageToken == null || pageToken.trim().isEmpty()) {
+       return null;
+     }
+     try {
+       return Long.valueOf(pageToken.trim());
+     } catch (NumberFormatException e) {
+       throw new QueryException("Invalid pageToken: " + pageToken);
+     }
+   }
+   
+   /**
+    * Returns the link to the next page of the items (history changes, comments, worklogs)
+    * @param limit the number of the items on the page
+    * @param pageEndId the id of the last item of the page
+    * @return the link to the next page
+    */
+   private URI getItemNextPage(final int limit, final Long pageEndId) {
+     return uriInfo.getRequestUriBuilder().replaceQueryParam("oslc.paging", "true")
+         .replaceQueryParam("oslc.pageSize", limit).replaceQueryParam("pageToken", pageEndId).build();
+   }
 }
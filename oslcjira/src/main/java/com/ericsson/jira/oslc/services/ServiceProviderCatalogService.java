@@ -110,7 +110,7 @@ public class ServiceProviderCatalogService {
     */
    @GET
    @Path("{serviceProviderCatalogId}")
-   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON })
+   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
    @AnonymousAllowed
    public ServiceProviderCatalog getServiceProviderCatalog() throws URISyntaxException {
       
@@ -37,6 +37,7 @@ import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
 import org.eclipse.lyo.oslc4j.core.model.ServiceProvider;
 
 import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
+import com.ericsson.jira.oslc.Constants;
 import com.ericsson.jira.oslc.resources.ServiceProviderRef;
 import com.ericsson.jira.oslc.servlet.ServiceProviderCatalogSingleton;
 
@@ -84,7 +85,7 @@ public class ServiceProviderService {
     */
    @GET
    @Path("{serviceProviderId}")
-   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON })
+   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
    @AnonymousAllowed
    public ServiceProvider getServiceProvider(@PathParam("serviceProviderId") final String serviceProviderId) {
       httpServletResponse.addHeader("Oslc-Core-Version", "2.0");
@@ -102,7 +103,7 @@ public class ServiceProviderService {
     */
    @GET
    @Path("{serviceProviderId}/details")
-   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON })
+   @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE, Constants.APPLICATION_N_TRIPLES })
    @AnonymousAllowed
    public ServiceProvider getServiceProviderDetails(@PathParam("serviceProviderId") final String serviceProviderId) {
       httpServletResponse.addHeader("Oslc-Core-Version", "2.0");
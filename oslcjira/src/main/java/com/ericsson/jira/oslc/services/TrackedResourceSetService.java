@@ -0,0 +1,165 @@
+package com.ericsson.jira.oslc.services;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
+
+import com.atlassian.plugins.rest.common.security.AnonymousAllowed;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+import com.ericsson.jira.oslc.managers.TrsManager;
+import com.hp.hpl.jena.rdf.model.Model;
+
+/**
+ * A service for the Tracked Resource Set (OSLC TRS 2.0) of the change requests. The consumers (e.g. the indexers) 
+ * read the base once and then they follow only the change log.
+ *
+ */
+@Path("trs")
+public class TrackedResourceSetService extends BaseService {
+  private static final String CURRENT_CLASS = "TrackedResourceSetService";
+  
+  @Context private HttpServletRequest httpServletRequest;
+  @Context private Request request;
+  
+  /**
+   * Returns the Tracked Resource Set with the newest page of the change log
+   * @return the Tracked Resource Set
+   */
+  @GET
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.TEXT_TURTLE })
+  @AnonymousAllowed
+  public Response getTrackedResourceSet() {
+    String currentMethod = "getTrackedResourceSet";
+    logger.debug(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      return write(TrsManager.getTrackedResourceSet(httpServletRequest));
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+  
+  /**
+   * Returns the page of the base of the Tracked Resource Set
+   * @param page the position of the last issue on the previous page (the id of the project and the number of the issue key). 
+   * The first page is returned without it.
+   * @return the page of the base
+   */
+  @GET
+  @Path("base")
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.TEXT_TURTLE })
+  @AnonymousAllowed
+  public Response getBase(@QueryParam("page") final String page) {
+    String currentMethod = "getBase";
+    logger.debug(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      return write(TrsManager.getBase(httpServletRequest, page));
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+  
+  /**
+   * Returns the page of the change log of the Tracked Resource Set
+   * @param page the order of the last change event on the previous page
+   * @return the page of the change log
+   */
+  @GET
+  @Path("changeLog")
+  @Produces({ OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.TEXT_TURTLE })
+  @AnonymousAllowed
+  public Response getChangeLog(@QueryParam("page") final String page) {
+    String currentMethod = "getChangeLog";
+    logger.debug(CURRENT_CLASS + "." + currentMethod);
+    
+    try {
+      if (page == null) {
+        throw new QueryException("The parameter page is required.");
+      }
+      long beforeOrder = parsePage(page);
+      if (beforeOrder > Integer.MAX_VALUE) {
+        throw new QueryException("Invalid page: " + page);
+      }
+      return write(TrsManager.getChangeLog(httpServletRequest, (int) beforeOrder));
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + "." + currentMethod + " Exception: " + e.getMessage());
+      return handleException(e);
+    }
+  }
+  
+  /**
+   * Parses the page parameter
+   * @param page the page parameter
+   * @return the number of the page parameter
+   * @throws QueryException the page parameter isn't valid
+   */
+  private static long parsePage(final String page) throws QueryException {
+    try {
+      long value = Long.parseLong(page.trim());
+      if (value < 0) {
+        throw new NumberFormatException();
+      }
+      return value;
+    } catch (NumberFormatException e) {
+      throw new QueryException("Invalid page: " + page);
+    }
+  }
+  
+  /**
+   * Writes the model in RDF/XML or Turtle, according to the Accept header
+   * @param model the model which is written
+   * @return the response with the model
+   */
+  private Response write(final Model model) {
+    List<Variant> variants = Variant.mediaTypes(OslcMediaType.APPLICATION_RDF_XML_TYPE, OslcMediaType.TEXT_TURTLE_TYPE).add().build();
+    Variant variant = request.selectVariant(variants);
+    MediaType mediaType = (variant != null) ? variant.getMediaType() : OslcMediaType.APPLICATION_RDF_XML_TYPE;
+    
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    model.write(out, OslcMediaType.TEXT_TURTLE_TYPE.isCompatible(mediaType) ? "TURTLE" : "RDF/XML-ABBREV");
+    return Response.ok(out.toByteArray(), mediaType).header(Constants.HDR_OSLC_VERSION, Constants.OSLC_VERSION_V2).build();
+  }
+}
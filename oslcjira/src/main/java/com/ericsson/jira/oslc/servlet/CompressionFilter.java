@@ -0,0 +1,452 @@
+package com.ericsson.jira.oslc.servlet;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.PluginConfig;
+
+/**
+ * Compresses the responses of REST services by gzip or deflate encoding negotiated by Accept-Encoding header.
+ * The response is compressed while it's written, only the first bytes up to the compression threshold are buffered 
+ * to find out if the response is big enough to be compressed. The smaller responses are sent uncompressed.
+ * ETag of the response is changed to the weak ETag, because the compressed and the uncompressed representations 
+ * are equivalent but not identical. The services compare ETags weakly, so conditional GET works for both.
+ */
+public class CompressionFilter implements Filter {
+  private static Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+  private static final String CURRENT_CLASS = "CompressionFilter";
+  
+  private static final String GZIP = "gzip";
+  private static final String X_GZIP = "x-gzip";
+  private static final String DEFLATE = "deflate";
+  private static final String IDENTITY_ANY = "*";
+  private static final String HEAD_METHOD = "HEAD";
+
+  @Override
+  public void init(FilterConfig filterConfig) throws ServletException {
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+    if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    
+    HttpServletRequest httpRequest = (HttpServletRequest) request;
+    HttpServletResponse httpResponse = (HttpServletResponse) response;
+    //the representation depends on Accept-Encoding header also when it isn't compressed
+    httpResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    
+    String encoding = HEAD_METHOD.equals(httpRequest.getMethod()) ? null : selectEncoding(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    if (encoding == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+    
+    CompressionResponseWrapper responseWrapper = new CompressionResponseWrapper(httpResponse, encoding, getThreshold());
+    try {
+      chain.doFilter(request, responseWrapper);
+    } finally {
+      responseWrapper.finish();
+    }
+  }
+  
+  /**
+   * Selects the encoding from Accept-Encoding header. gzip is preferred when the quality values are the same.
+   * @param acceptEncoding the value of Accept-Encoding header
+   * @return gzip, deflate or null if the client doesn't accept any of them
+   */
+  private static String selectEncoding(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return null;
+    }
+    
+    float gzipQuality = -1;
+    float deflateQuality = -1;
+    float anyQuality = -1;
+    for (String part : acceptEncoding.split(",")) {
+      String[] params = part.split(";");
+      String coding = params[0].trim().toLowerCase(Locale.ENGLISH);
+      float quality = 1;
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            quality = Float.parseFloat(param.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      
+      if (GZIP.equals(coding) || X_GZIP.equals(coding)) {
+        gzipQuality = quality;
+      } else if (DEFLATE.equals(coding)) {
+        deflateQuality = quality;
+      } else if (IDENTITY_ANY.equals(coding)) {
+        anyQuality = quality;
+      }
+    }
+    
+    gzipQuality = (gzipQuality < 0) ? anyQuality : gzipQuality;
+    deflateQuality = (deflateQuality < 0) ? anyQuality : deflateQuality;
+    if (gzipQuality > 0 && gzipQuality >= deflateQuality) {
+      return GZIP;
+    }
+    return (deflateQuality > 0) ? DEFLATE : null;
+  }
+  
+  /**
+   * Returns the minimal size of the response which is compressed
+   * @return the compression threshold in bytes
+   */
+  private static int getThreshold() {
+    try {
+      return PluginConfig.getInstance().getCompressionThreshold();
+    } catch (Exception e) {
+      logger.error(CURRENT_CLASS + ".getThreshold Exception: " + e.getMessage());
+      return Constants.DEFAULT_COMPRESSION_THRESHOLD;
+    }
+  }
+  
+  /**
+   * Checks if the content type is the text format which is worth compressing
+   * @param contentType the content type of the response
+   * @return true if the content can be compressed
+   */
+  private static boolean isCompressible(String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    String type = contentType.toLowerCase(Locale.ENGLISH);
+    return type.startsWith("text/") || type.contains("xml") || type.contains("json") || type.startsWith(Constants.APPLICATION_N_TRIPLES);
+  }
+  
+  /**
+   * Returns the weak ETag for the ETag
+   * @param eTag the ETag set by the service
+   * @return the weak ETag
+   */
+  private static String toWeakETag(String eTag) {
+    if (eTag == null || eTag.startsWith("W/")) {
+      return eTag;
+    }
+    if (eTag.length() >= 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+      return "W/" + eTag;
+    }
+    return "W/\"" + eTag + "\"";
+  }
+  
+  /**
+   * The response which compresses the body written by the service. Content-Length set by the service 
+   * is postponed until it's known if the body is compressed.
+   */
+  private static class CompressionResponseWrapper extends HttpServletResponseWrapper {
+    private final String encoding;
+    private final int threshold;
+    private int contentLength = -1;
+    private boolean compressionDisabled = false;
+    private CompressionOutputStream outputStream;
+    private PrintWriter writer;
+    
+    public CompressionResponseWrapper(HttpServletResponse response, String encoding, int threshold) {
+      super(response);
+      this.encoding = encoding;
+      this.threshold = threshold;
+    }
+    
+    @Override
+    public void setContentLength(int len) {
+      if (outputStream != null && outputStream.isStarted()) {
+        //the body is being written, the length of the compressed body isn't known
+        if (!outputStream.isCompressed()) {
+          super.setContentLength(len);
+        }
+        return;
+      }
+      contentLength = len;
+      if (len >= 0 && len < threshold) {
+        compressionDisabled = true;
+      }
+    }
+    
+    @Override
+    public void setHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLength(parseLength(value));
+      } else if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+        super.setHeader(name, toWeakETag(value));
+      } else {
+        if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+          compressionDisabled = true;
+        }
+        super.setHeader(name, value);
+      }
+    }
+    
+    @Override
+    public void addHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLength(parseLength(value));
+      } else if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+        super.addHeader(name, toWeakETag(value));
+      } else {
+        if (HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+          compressionDisabled = true;
+        }
+        super.addHeader(name, value);
+      }
+    }
+    
+    @Override
+    public void setIntHeader(String name, int value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLength(value);
+      } else {
+        super.setIntHeader(name, value);
+      }
+    }
+    
+    @Override
+    public void addIntHeader(String name, int value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLength(value);
+      } else {
+        super.addIntHeader(name, value);
+      }
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (writer != null) {
+        throw new IllegalStateException("getWriter() has already been called for this response.");
+      }
+      if (outputStream == null) {
+        outputStream = new CompressionOutputStream();
+      }
+      return outputStream;
+    }
+    
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        if (outputStream != null) {
+          throw new IllegalStateException("getOutputStream() has already been called for this response.");
+        }
+        outputStream = new CompressionOutputStream();
+        writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+      }
+      return writer;
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+      //the headers can't be committed before it's known if the body is compressed
+      if (writer != null) {
+        writer.flush();
+      } else if (outputStream != null) {
+        outputStream.flush();
+      }
+    }
+    
+    @Override
+    public void resetBuffer() {
+      if (outputStream != null) {
+        outputStream.resetBuffer();
+      }
+      super.resetBuffer();
+    }
+    
+    @Override
+    public void reset() {
+      if (outputStream != null) {
+        outputStream.resetBuffer();
+      }
+      contentLength = -1;
+      compressionDisabled = false;
+      super.reset();
+    }
+    
+    /**
+     * Writes the rest of the body and finishes the compression
+     * @throws IOException
+     */
+    public void finish() throws IOException {
+      if (writer != null) {
+        writer.close();
+      } else if (outputStream != null) {
+        outputStream.close();
+      } else if (contentLength >= 0) {
+        super.setContentLength(contentLength);
+      }
+    }
+    
+    /**
+     * Parses the value of Content-Length header
+     * @param value the value of the header
+     * @return the length or -1 if the value isn't valid
+     */
+    private static int parseLength(String value) {
+      try {
+        return Integer.parseInt(value.trim());
+      } catch (Exception e) {
+        return -1;
+      }
+    }
+    
+    /**
+     * The stream which buffers the body until the threshold is reached. Then the body is written 
+     * through the compressing stream to the response. If the body is smaller than the threshold, 
+     * it's written uncompressed when the stream is closed.
+     */
+    private class CompressionOutputStream extends ServletOutputStream {
+      private ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(threshold, 8192));
+      private OutputStream target;
+      private boolean compressed = false;
+      private boolean closed = false;
+      
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+      }
+      
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+          throw new IOException("The stream has been closed.");
+        }
+        if (target == null) {
+          if (!compressionDisabled && buffer.size() + len < threshold) {
+            buffer.write(b, off, len);
+            return;
+          }
+          start(!compressionDisabled, false);
+        }
+        target.write(b, off, len);
+      }
+      
+      @Override
+      public void flush() throws IOException {
+        //the buffered bytes are kept until it's known if the body is compressed
+        if (target != null) {
+          target.flush();
+        }
+      }
+      
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        if (target == null) {
+          start(false, true);
+        }
+        closed = true;
+        target.close();
+      }
+      
+      /**
+       * Checks if the body is being written to the response
+       * @return true if the body is being written
+       */
+      public boolean isStarted() {
+        return target != null;
+      }
+      
+      /**
+       * Checks if the body is compressed
+       * @return true if the body is compressed
+       */
+      public boolean isCompressed() {
+        return compressed;
+      }
+      
+      /**
+       * Discards the buffered bytes which haven't been written to the response yet
+       */
+      public void resetBuffer() {
+        if (target == null) {
+          buffer.reset();
+        }
+      }
+      
+      /**
+       * Sets the headers and starts writing the body to the response, the buffered bytes are written first
+       * @param compress true if the body should be compressed
+       * @param complete true if the whole body is in the buffer
+       * @throws IOException
+       */
+      private void start(boolean compress, boolean complete) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        compressed = compress && isCompressible(response.getContentType());
+        if (compressed) {
+          response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+          target = GZIP.equals(encoding) ? new GZIPOutputStream(response.getOutputStream()) : new DeflaterOutputStream(response.getOutputStream());
+        } else {
+          if (contentLength >= 0) {
+            response.setContentLength(contentLength);
+          } else if (complete) {
+            response.setContentLength(buffer.size());
+          }
+          target = response.getOutputStream();
+        }
+        buffer.writeTo(target);
+        buffer = null;
+      }
+    }
+  }
+}
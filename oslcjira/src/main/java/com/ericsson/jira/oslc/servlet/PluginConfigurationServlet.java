@@ -48,6 +48,7 @@ import com.ericsson.jira.oslc.managers.PermissionManager;
 import com.ericsson.jira.oslc.resources.ao.AOManager;
 import com.ericsson.jira.oslc.utils.OSLCUtils;
 import com.ericsson.jira.oslc.utils.ServletUtils;
+import com.ericsson.jira.oslc.utils.WorkerPool;
 
 /**
  * A servlet which is responsible for loading and saving a configuration from/to db
@@ -74,7 +75,7 @@ public class PluginConfigurationServlet extends HttpServlet {
    */
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
-    reloadPage(request, response, "", null, null);
+    reloadPage(request, response, "", null, null, null, null, null);
   }
 
   /**
@@ -84,10 +85,14 @@ public class PluginConfigurationServlet extends HttpServlet {
    * @param errorMessage an error message which will be displayed on the page
    * @param filteredProjects the list of the projects - only these project will be visible from outside
    * @param filteredTypes the list of the issue types projects - only these types will be visible from outside
+   * @param workerPoolSize the number of the threads which convert the issues to the change requests
+   * @param requestParallelism the number of the issues of one request which are converted at the same time
+   * @param compressionThreshold the minimal size of the response (in bytes) which is compressed
    * @throws IOException
    * @throws ServletException
    */
-  private void reloadPage(HttpServletRequest request, HttpServletResponse response, String errorMessage, String filteredProjects, String filteredTypes) throws IOException, ServletException {
+  private void reloadPage(HttpServletRequest request, HttpServletResponse response, String errorMessage, String filteredProjects, String filteredTypes, 
+      String workerPoolSize, String requestParallelism, String compressionThreshold) throws IOException, ServletException {
 
     String username = userManager.getRemoteUsername(request);
     if (username == null || !userManager.isSystemAdmin(username)) {
@@ -110,6 +115,15 @@ public class PluginConfigurationServlet extends HttpServlet {
       if (filteredTypes == null) {
         filteredTypes = configValues.get(PluginConfig.FILTERED_TYPES);
       }
+      if (workerPoolSize == null) {
+        workerPoolSize = configValues.get(PluginConfig.WORKER_POOL_SIZE);
+      }
+      if (requestParallelism == null) {
+        requestParallelism = configValues.get(PluginConfig.REQUEST_PARALLELISM);
+      }
+      if (compressionThreshold == null) {
+        compressionThreshold = configValues.get(PluginConfig.COMPRESSION_THRESHOLD);
+      }
 
     }
     
@@ -117,6 +131,9 @@ public class PluginConfigurationServlet extends HttpServlet {
 
     params.put("filteredProjects", OSLCUtils.replaceNullForEmptyString(filteredProjects));
     params.put("filteredTypes", OSLCUtils.replaceNullForEmptyString(filteredTypes));
+    params.put("workerPoolSize", OSLCUtils.replaceNullForEmptyString(workerPoolSize));
+    params.put("requestParallelism", OSLCUtils.replaceNullForEmptyString(requestParallelism));
+    params.put("compressionThreshold", OSLCUtils.replaceNullForEmptyString(compressionThreshold));
 
     response.setContentType("text/html;charset=utf-8");
     renderer.render("templates/pluginConfiguration.vm", params, response.getWriter());
@@ -129,19 +146,22 @@ public class PluginConfigurationServlet extends HttpServlet {
   protected void doPost(HttpServletRequest req, HttpServletResponse response) throws ServletException, IOException {
     final String inputFilteredProjects = req.getParameter("filteredProjects");
     final String inputFilteredTypes = req.getParameter("filteredTypes");
+    final String inputWorkerPoolSize = req.getParameter("workerPoolSize");
+    final String inputRequestParallelism = req.getParameter("requestParallelism");
+    final String inputCompressionThreshold = req.getParameter("compressionThreshold");
 
     ApplicationUser user = PermissionManager.getLoggedUser();
     if (user == null) {
-      reloadPage(req, response, "Can't continue.\\nMessage: User not defined!", inputFilteredProjects, inputFilteredTypes);
+      reloadPage(req, response, "Can't continue.\\nMessage: User not defined!", inputFilteredProjects, inputFilteredTypes, inputWorkerPoolSize, inputRequestParallelism, inputCompressionThreshold);
       return;
     }
 
     if (!PermissionManager.isSystemAdmin(userManager)) {
-      reloadPage(req, response, "Can't continue.\\nMessage: User not system admin!", inputFilteredProjects, inputFilteredTypes);
+      reloadPage(req, response, "Can't continue.\\nMessage: User not system admin!", inputFilteredProjects, inputFilteredTypes, inputWorkerPoolSize, inputRequestParallelism, inputCompressionThreshold);
       return;
     }
 
-    savePluginConfig(req, response, inputFilteredProjects, inputFilteredTypes);
+    savePluginConfig(req, response, inputFilteredProjects, inputFilteredTypes, inputWorkerPoolSize, inputRequestParallelism, inputCompressionThreshold);
   }
   
   /**
@@ -150,30 +170,45 @@ public class PluginConfigurationServlet extends HttpServlet {
    * @param response a response
    * @param filteredProjects the list of the projects - only these project will be visible from outside
    * @param filteredTypes the list of the issue types projects - only these types will be visible from outside
+   * @param workerPoolSize the number of the threads which convert the issues to the change requests
+   * @param requestParallelism the number of the issues of one request which are converted at the same time
+   * @param compressionThreshold the minimal size of the response (in bytes) which is compressed
    * @throws IOException
    * @throws ServletException
    */
-  private void savePluginConfig(HttpServletRequest request, HttpServletResponse response, String filteredProjects, String filteredTypes) throws IOException, ServletException{
+  private void savePluginConfig(HttpServletRequest request, HttpServletResponse response, String filteredProjects, String filteredTypes, 
+      String workerPoolSize, String requestParallelism, String compressionThreshold) throws IOException, ServletException{
     PluginConfig config;
     try {
       config = PluginConfig.getInstance(false);
+      config.loadParallelism(workerPoolSize, requestParallelism);
+      config.loadCompressionThreshold(compressionThreshold);
       config.loadConfiguration(filteredProjects, filteredTypes);
       
       Map<String, String> configValues = new HashMap<String, String>();
       configValues.put(PluginConfig.FILTERED_PROJECTS, filteredProjects);
       configValues.put(PluginConfig.FILTERED_TYPES, filteredTypes);
+      configValues.put(PluginConfig.WORKER_POOL_SIZE, workerPoolSize);
+      configValues.put(PluginConfig.REQUEST_PARALLELISM, requestParallelism);
+      configValues.put(PluginConfig.COMPRESSION_THRESHOLD, compressionThreshold);
       
       AOManager mngr = AOManager.getInstance();
       mngr.saveConfigValues(configValues);
-      reloadPage(request, response, "", null, null);
+      
+      //the threads of the pool are changed only when the configuration is saved
+      WorkerPool pool = WorkerPool.getInstance();
+      if (pool != null) {
+        pool.configure(config.getWorkerPoolSize(), config.getRequestParallelism());
+      }
+      reloadPage(request, response, "", null, null, null, null, null);
     } catch(NumberFormatException e){
       logger.error("Error", e);
-      String msg = "The IDs are not in correct format.";
-      reloadPage(request, response, msg, filteredProjects, filteredTypes);
+      String msg = "The IDs, the numbers of the threads or the compression threshold are not in correct format.";
+      reloadPage(request, response, msg, filteredProjects, filteredTypes, workerPoolSize, requestParallelism, compressionThreshold);
     } catch (Exception e) {
       logger.error("Error", e);
       String msg = (e.getMessage() != null)? e.getMessage() : e.toString();
-      reloadPage(request, response, msg, filteredProjects, filteredTypes);
+      reloadPage(request, response, msg, filteredProjects, filteredTypes, workerPoolSize, requestParallelism, compressionThreshold);
     } 
   }
 
@@ -0,0 +1,123 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.constants.JiraConstants;
+
+/**
+ * The cache of the custom fields which are relevant for the project and the issue type. The custom field 
+ * is relevant if the field configuration scheme of the field applies to the project and the issue type 
+ * of the issue. The "External Links" custom field isn't included, because its content is exported 
+ * as related change requests. The cache is cleared when the custom fields are created, updated or deleted 
+ * (see CustomFieldEventsHandler). JIRA doesn't fire any event when the context (the projects and the issue types) 
+ * of the custom field is edited, so each entry expires after {@link Constants#CUSTOM_FIELD_CACHE_TTL}.
+ *
+ */
+public class CustomFieldCache {
+  private static final CustomFieldCache instance = new CustomFieldCache(Constants.CUSTOM_FIELD_CACHE_TTL);
+  
+  /**
+   * The cached custom fields with the time when they were loaded
+   */
+  private static class Entry {
+    private final List<CustomField> customFields;
+    private final long created;
+    
+    Entry(List<CustomField> customFields, long created) {
+      this.customFields = customFields;
+      this.created = created;
+    }
+  }
+  
+  private final long timeToLive;
+  private final Map<String, Entry> fields = new HashMap<String, Entry>();
+  
+  /**
+   * Constructor
+   * @param timeToLive the time in milliseconds after which the cached custom fields expire
+   */
+  CustomFieldCache(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+  
+  public static CustomFieldCache getInstance() {
+    return instance;
+  }
+  
+  /**
+   * Returns the custom fields which are relevant for the project and the issue type of the issue
+   * @param customFieldManager CustomFieldManager
+   * @param issue JIRA issue
+   * @return the relevant custom fields without "External Links" custom field
+   */
+  public List<CustomField> getCustomFields(final CustomFieldManager customFieldManager, final Issue issue) {
+    Long projectId = issue.getProjectId();
+    String issueTypeId = issue.getIssueTypeId();
+    String key = projectId + ":" + issueTypeId;
+    
+    synchronized (this) {
+      Entry entry = fields.get(key);
+      if (entry != null) {
+        if (System.currentTimeMillis() - entry.created <= timeToLive) {
+          return entry.customFields;
+        }
+        fields.remove(key);
+      }
+    }
+    
+    List<CustomField> result = new ArrayList<CustomField>();
+    for (CustomField cf : customFieldManager.getCustomFieldObjects(projectId, issueTypeId)) {
+      if (cf.getName().compareTo(JiraConstants.OSLC_CUSTOM_FIELD_NAME) != 0) {
+        result.add(cf);
+      }
+    }
+    result = Collections.unmodifiableList(result);
+    
+    synchronized (this) {
+      fields.put(key, new Entry(result, System.currentTimeMillis()));
+    }
+    return result;
+  }
+  
+  /**
+   * Removes all cached custom fields
+   */
+  public synchronized void clear() {
+    fields.clear();
+  }
+}
@@ -0,0 +1,161 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FieldSelector;
+import org.apache.lucene.document.MapFieldSelector;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.Scorer;
+
+import com.atlassian.jira.issue.index.DocumentConstants;
+
+/**
+ * Lucene collector which counts the found issues by the values of the index fields 
+ * (e.g. the number of the issues in each status). The values are read from the index, 
+ * the issues aren't loaded. The issue without a value is counted under {@link #NO_VALUE}.
+ * The values of the single value fields are read from FieldCache, which is kept for each index segment. 
+ * The values of the multi value fields are read from the stored fields of the found documents only.
+ *
+ */
+public class FacetCollector extends Collector {
+  /** The value indexed by JIRA for the empty field */
+  public static final String NO_VALUE = "-1";
+  
+  private final Set<String> singleValueFields;
+  private final Set<String> multiValueFields;
+  private final FieldSelector multiValueSelector;
+  //the number of the issues for each value of each field
+  private final Map<String, Map<String, Integer>> counts = new HashMap<String, Map<String, Integer>>();
+  private int totalHits = 0;
+  
+  //the values of the fields of the current index segment, the index is the document number
+  private String[] issueIds;
+  private final Map<String, String[]> singleValues = new HashMap<String, String[]>();
+  private IndexReader reader;
+  
+  /**
+   * Constructor
+   * @param singleValueFields the index fields with at most one value per issue (e.g. status)
+   * @param multiValueFields the index fields with more values per issue (e.g. components)
+   */
+  public FacetCollector(Collection<String> singleValueFields, Collection<String> multiValueFields) {
+    this.singleValueFields = new LinkedHashSet<String>(singleValueFields);
+    this.multiValueFields = new LinkedHashSet<String>(multiValueFields);
+    this.multiValueSelector = new MapFieldSelector(this.multiValueFields.toArray(new String[this.multiValueFields.size()]));
+    for (String field : this.singleValueFields) {
+      counts.put(field, new HashMap<String, Integer>());
+    }
+    for (String field : this.multiValueFields) {
+      counts.put(field, new HashMap<String, Integer>());
+    }
+  }
+  
+  @Override
+  public void setScorer(Scorer scorer) throws IOException {
+    //the score isn't used
+  }
+  
+  @Override
+  public void collect(int doc) throws IOException {
+    if (issueIds[doc] == null) {
+      return;
+    }
+    
+    totalHits++;
+    for (Map.Entry<String, String[]> field : singleValues.entrySet()) {
+      increment(counts.get(field.getKey()), field.getValue()[doc]);
+    }
+    if (multiValueFields.isEmpty()) {
+      return;
+    }
+    
+    Document document = reader.document(doc, multiValueSelector);
+    for (String field : multiValueFields) {
+      String[] values = document.getValues(field);
+      if (values == null || values.length == 0) {
+        increment(counts.get(field), null);
+      } else {
+        for (String value : values) {
+          increment(counts.get(field), value);
+        }
+      }
+    }
+  }
+  
+  @Override
+  public void setNextReader(IndexReader reader, int docBase) throws IOException {
+    issueIds = FieldCache.DEFAULT.getStrings(reader, DocumentConstants.ISSUE_ID);
+    for (String field : singleValueFields) {
+      singleValues.put(field, FieldCache.DEFAULT.getStrings(reader, field));
+    }
+    this.reader = reader;
+  }
+  
+  @Override
+  public boolean acceptsDocsOutOfOrder() {
+    return true;
+  }
+  
+  /**
+   * Returns the number of the issues for each value of the field
+   * @param field the index field
+   * @return the number of the issues, the key is the indexed value. It's null if the field isn't collected.
+   */
+  public Map<String, Integer> getCounts(String field) {
+    return counts.get(field);
+  }
+  
+  /**
+   * Returns the number of all found issues
+   * @return the number of all found issues
+   */
+  public int getTotalHits() {
+    return totalHits;
+  }
+  
+  /**
+   * Increments the number of the issues with the value
+   * @param fieldCounts the numbers of the issues of the field
+   * @param value the value, null is counted as {@link #NO_VALUE}
+   */
+  private static void increment(Map<String, Integer> fieldCounts, String value) {
+    String key = (value == null) ? NO_VALUE : value;
+    Integer count = fieldCounts.get(key);
+    fieldCounts.put(key, (count == null) ? 1 : count + 1);
+  }
+}
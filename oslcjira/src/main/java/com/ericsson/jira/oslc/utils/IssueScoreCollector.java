@@ -0,0 +1,146 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldCache;
+import org.apache.lucene.search.Scorer;
+
+import com.atlassian.jira.issue.index.DocumentConstants;
+
+/**
+ * Lucene collector which collects the ids and the scores of the found issues.
+ * Only the best hits are kept in memory (the maximum is given by constructor).
+ *
+ */
+public class IssueScoreCollector extends Collector {
+  
+  /**
+   * The found issue with its score
+   */
+  public static class Hit {
+    private final long issueId;
+    private final float score;
+    
+    public Hit(long issueId, float score) {
+      this.issueId = issueId;
+      this.score = score;
+    }
+    
+    public long getIssueId() {
+      return issueId;
+    }
+    
+    public float getScore() {
+      return score;
+    }
+  }
+  
+  //the best hit first, the hits with the same score are sorted by issue id
+  private static final Comparator<Hit> RANK_ORDER = new Comparator<Hit>() {
+    @Override
+    public int compare(Hit h1, Hit h2) {
+      int result = Float.compare(h2.score, h1.score);
+      if (result != 0) {
+        return result;
+      }
+      return (h1.issueId < h2.issueId) ? -1 : ((h1.issueId == h2.issueId) ? 0 : 1);
+    }
+  };
+  
+  private final int maxHits;
+  //the worst hit is on the head of the queue
+  private final PriorityQueue<Hit> hits;
+  private int totalHits = 0;
+  private Scorer scorer;
+  private String[] issueIds;
+  
+  /**
+   * Constructor
+   * @param maxHits the maximum number of the best hits which are kept
+   */
+  public IssueScoreCollector(int maxHits) {
+    this.maxHits = maxHits;
+    this.hits = new PriorityQueue<Hit>(Math.min(Math.max(maxHits, 1), 1024), Collections.reverseOrder(RANK_ORDER));
+  }
+  
+  @Override
+  public void setScorer(Scorer scorer) throws IOException {
+    this.scorer = scorer;
+  }
+  
+  @Override
+  public void collect(int doc) throws IOException {
+    String issueId = issueIds[doc];
+    if (issueId == null) {
+      return;
+    }
+    
+    totalHits++;
+    hits.add(new Hit(Long.parseLong(issueId), scorer.score()));
+    if (hits.size() > maxHits) {
+      hits.poll();
+    }
+  }
+  
+  @Override
+  public void setNextReader(IndexReader reader, int docBase) throws IOException {
+    issueIds = FieldCache.DEFAULT.getStrings(reader, DocumentConstants.ISSUE_ID);
+  }
+  
+  @Override
+  public boolean acceptsDocsOutOfOrder() {
+    return true;
+  }
+  
+  /**
+   * Returns the best hits sorted by score (the best first)
+   * @return the list of the hits
+   */
+  public List<Hit> getHits() {
+    List<Hit> result = new ArrayList<Hit>(hits);
+    Collections.sort(result, RANK_ORDER);
+    return result;
+  }
+  
+  /**
+   * Returns the number of all found issues
+   * @return the number of all found issues
+   */
+  public int getTotalHits() {
+    return totalHits;
+  }
+}
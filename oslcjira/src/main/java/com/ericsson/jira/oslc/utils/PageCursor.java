@@ -0,0 +1,108 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.io.UnsupportedEncodingException;
+
+import javax.xml.bind.DatatypeConverter;
+
+import com.atlassian.jira.issue.Issue;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+
+/**
+ * The position in the query result sorted by the issue key. It contains the number of the issue key 
+ * (the sort key) and the id of the last issue on the page. The next page starts after this issue,
+ * so the issues created or deleted during the reading of the pages don't shift the pages.
+ * The position is sent to the client as the opaque continuation token.
+ *
+ */
+public class PageCursor {
+  private static final String VERSION = "1";
+  private static final String SEPARATOR = ":";
+  private static final String ENCODING = "UTF-8";
+  
+  private final long keyNumber;
+  private final long issueId;
+  
+  public PageCursor(long keyNumber, long issueId) {
+    this.keyNumber = keyNumber;
+    this.issueId = issueId;
+  }
+  
+  /**
+   * Creates the cursor pointing to the issue
+   * @param issue the last issue of the page
+   * @return the cursor pointing to the issue
+   */
+  public static PageCursor fromIssue(Issue issue) {
+    String key = issue.getKey();
+    long keyNumber = Long.parseLong(key.substring(key.lastIndexOf('-') + 1));
+    return new PageCursor(keyNumber, issue.getId());
+  }
+  
+  /**
+   * Decodes the continuation token
+   * @param token the continuation token
+   * @return the cursor
+   * @throws QueryException the token is not valid
+   */
+  public static PageCursor decode(String token) throws QueryException {
+    try {
+      String[] parts = new String(DatatypeConverter.parseBase64Binary(token.trim()), ENCODING).split(SEPARATOR);
+      if (parts.length != 3 || !VERSION.equals(parts[0])) {
+        throw new QueryException("Invalid continuation token: " + token);
+      }
+      return new PageCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException e) {
+      //the token isn't Base64 or it doesn't contain the numbers
+      throw new QueryException("Invalid continuation token: " + token, e);
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+  
+  /**
+   * Encodes the cursor to the continuation token
+   * @return the continuation token
+   */
+  public String encode() {
+    try {
+      return DatatypeConverter.printBase64Binary((VERSION + SEPARATOR + keyNumber + SEPARATOR + issueId).getBytes(ENCODING));
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+  
+  public long getKeyNumber() {
+    return keyNumber;
+  }
+  
+  public long getIssueId() {
+    return issueId;
+  }
+}
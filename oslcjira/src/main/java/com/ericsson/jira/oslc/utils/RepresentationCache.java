@@ -0,0 +1,248 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.ericsson.jira.oslc.Constants;
+
+/**
+ * The cache of serialized representations of the change requests. The representation is identified
+ * by the id of the issue, the time of last update of the issue, the media type and the variant 
+ * (the request URI with oslc.properties and oslc.prefix). The total size of the representations is bounded, 
+ * the least recently used representations are removed first. The representations of the issue are removed
+ * when the issue is changed (see IssueEventsHandler). Some changes don't fire the issue event (e.g. the move 
+ * of the linked issue changes the URI in the representation), so the representation expires after the time to live.
+ * The representations don't depend on the user, so the permissions have to be checked before the cache is read.
+ *
+ */
+public class RepresentationCache {
+  private static final RepresentationCache instance = new RepresentationCache(Constants.REPRESENTATION_CACHE_MAX_SIZE, 
+      Constants.REPRESENTATION_CACHE_MAX_ENTRY_SIZE, Constants.REPRESENTATION_CACHE_TTL);
+  
+  /**
+   * The key of the representation
+   */
+  public static class Key {
+    private final long issueId;
+    private final long updated;
+    private final String mediaType;
+    private final String variant;
+    
+    public Key(long issueId, long updated, String mediaType, String variant) {
+      this.issueId = issueId;
+      this.updated = updated;
+      this.mediaType = mediaType;
+      this.variant = variant;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return issueId == other.issueId && updated == other.updated && mediaType.equals(other.mediaType) && variant.equals(other.variant);
+    }
+    
+    @Override
+    public int hashCode() {
+      int result = (int) (issueId ^ (issueId >>> 32));
+      result = 31 * result + (int) (updated ^ (updated >>> 32));
+      result = 31 * result + mediaType.hashCode();
+      result = 31 * result + variant.hashCode();
+      return result;
+    }
+  }
+  
+  /**
+   * The cached representation and the time when it was cached
+   */
+  private static class Entry {
+    private final byte[] representation;
+    private final long created;
+    
+    Entry(byte[] representation, long created) {
+      this.representation = representation;
+      this.created = created;
+    }
+  }
+  
+  private final long maxSize;
+  private final long maxEntrySize;
+  private final long timeToLive;
+  //access order, the least recently used representation is the first one
+  private final LinkedHashMap<Key, Entry> representations = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+  private final Map<Long, Set<Key>> keysByIssue = new HashMap<Long, Set<Key>>();
+  private long size = 0;
+  private long hits = 0;
+  private long misses = 0;
+  
+  /**
+   * Constructor
+   * @param maxSize the maximum of the total size of the representations in bytes
+   * @param maxEntrySize the maximum size of one representation in bytes. The bigger representations aren't cached.
+   * @param timeToLive the time in milliseconds after which the representation expires
+   */
+  public RepresentationCache(long maxSize, long maxEntrySize, long timeToLive) {
+    this.maxSize = maxSize;
+    this.maxEntrySize = maxEntrySize;
+    this.timeToLive = timeToLive;
+  }
+  
+  public static RepresentationCache getInstance() {
+    return instance;
+  }
+  
+  /**
+   * Returns the cached representation
+   * @param key the key of the representation
+   * @return the representation or null if it isn't cached or it has expired
+   */
+  public synchronized byte[] get(Key key) {
+    Entry entry = representations.get(key);
+    if (entry != null && System.currentTimeMillis() - entry.created > timeToLive) {
+      remove(key);
+      entry = null;
+    }
+    if (entry != null) {
+      hits++;
+      return entry.representation;
+    }
+    misses++;
+    return null;
+  }
+  
+  /**
+   * Puts the representation to the cache. The least recently used representations are removed
+   * if the total size exceeds the maximum.
+   * @param key the key of the representation
+   * @param representation the serialized representation
+   */
+  public synchronized void put(Key key, byte[] representation) {
+    if (representation.length > maxEntrySize) {
+      return;
+    }
+    
+    remove(key);
+    representations.put(key, new Entry(representation, System.currentTimeMillis()));
+    size += representation.length;
+    Set<Key> keys = keysByIssue.get(key.issueId);
+    if (keys == null) {
+      keys = new HashSet<Key>();
+      keysByIssue.put(key.issueId, keys);
+    }
+    keys.add(key);
+    
+    Iterator<Map.Entry<Key, Entry>> eldest = representations.entrySet().iterator();
+    while (size > maxSize && eldest.hasNext()) {
+      Map.Entry<Key, Entry> entry = eldest.next();
+      Key eldestKey = entry.getKey();
+      byte[] eldestRepresentation = entry.getValue().representation;
+      eldest.remove();
+      removed(eldestKey, eldestRepresentation);
+    }
+  }
+  
+  /**
+   * Removes all representations of the issue
+   * @param issueId the id of the issue
+   */
+  public synchronized void invalidate(long issueId) {
+    Set<Key> keys = keysByIssue.remove(issueId);
+    if (keys != null) {
+      for (Key key : keys) {
+        Entry entry = representations.remove(key);
+        if (entry != null) {
+          size -= entry.representation.length;
+        }
+      }
+    }
+  }
+  
+  /**
+   * Removes all representations. The statistics are reset as well.
+   */
+  public synchronized void clear() {
+    representations.clear();
+    keysByIssue.clear();
+    size = 0;
+    hits = 0;
+    misses = 0;
+  }
+  
+  /**
+   * Returns the statistics of the cache
+   * @return the statistics - the number of entries, the total size, the maximum size, hits, misses and hit ratio
+   */
+  public synchronized Map<String, Object> getStatistics() {
+    Map<String, Object> statistics = new LinkedHashMap<String, Object>();
+    statistics.put("entries", representations.size());
+    statistics.put("size", size);
+    statistics.put("maxSize", maxSize);
+    statistics.put("hits", hits);
+    statistics.put("misses", misses);
+    statistics.put("hitRatio", (hits + misses > 0) ? (double) hits / (hits + misses) : 0.0);
+    return statistics;
+  }
+  
+  /**
+   * Removes the representation
+   * @param key the key of the representation
+   */
+  private void remove(Key key) {
+    Entry entry = representations.remove(key);
+    if (entry != null) {
+      removed(key, entry.representation);
+    }
+  }
+  
+  /**
+   * Updates the total size and the index of the keys after the representation was removed
+   * @param key the key of the removed representation
+   * @param representation the removed representation
+   */
+  private void removed(Key key, byte[] representation) {
+    size -= representation.length;
+    Set<Key> keys = keysByIssue.get(key.issueId);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        keysByIssue.remove(key.issueId);
+      }
+    }
+  }
+}
@@ -0,0 +1,280 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.config.properties.APKeys;
+import com.atlassian.jira.issue.CustomFieldManager;
+import com.atlassian.jira.issue.Issue;
+import com.atlassian.jira.issue.comments.CommentManager;
+import com.atlassian.jira.issue.fields.CustomField;
+import com.atlassian.jira.issue.link.IssueLinkManager;
+import com.atlassian.jira.issue.link.RemoteIssueLinkManager;
+import com.atlassian.jira.issue.vote.VoteManager;
+import com.atlassian.jira.issue.watchers.WatcherManager;
+import com.atlassian.jira.issue.worklog.WorklogManager;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.user.util.UserManager;
+import com.ericsson.jira.oslc.constants.JiraConstants;
+import com.ericsson.jira.oslc.managers.IssuePreloader;
+import com.ericsson.jira.oslc.managers.PermissionManager;
+import com.ericsson.jira.oslc.servlet.ServiceProviderCatalogSingleton;
+
+/**
+ * The context of one HTTP request. It keeps the values which are the same for all issues 
+ * processed by the request (e.g. the user, the base URL, the managers, the custom fields), 
+ * so they are resolved only once and not for each issue or each field. 
+ * The context is stored in the attribute of the request, {@link #get(HttpServletRequest)} returns the same 
+ * instance during the request. The values are resolved when they are used for the first time.
+ *
+ */
+public class RequestContext {
+  private static final String ATTRIBUTE = "jira.RequestContext";
+  
+  private final HttpServletRequest request;
+  
+  private String restUrl = null;
+  private ApplicationUser user = null;
+  private Locale locale = null;
+  private SimpleDateFormat dueDateFormat = null;
+  
+  private CustomFieldManager customFieldManager = null;
+  private CustomField oslcLinksField = null;
+  private boolean oslcLinksFieldResolved = false;
+  private IssuePreloader preloader = null;
+  private final Map<String, URI> serviceProviders = new HashMap<String, URI>();
+  
+  private UserManager userManager = null;
+  private CommentManager commentManager = null;
+  private WorklogManager worklogManager = null;
+  private VoteManager voteManager = null;
+  private WatcherManager watcherManager = null;
+  private IssueLinkManager issueLinkManager = null;
+  private RemoteIssueLinkManager remoteIssueLinkManager = null;
+  
+  private RequestContext(final HttpServletRequest request) {
+    this.request = request;
+  }
+  
+  /**
+   * Returns the context of the request. The context is created for the first call during the request.
+   * @param request HttpServletRequest. If it's null (e.g. the call isn't from HTTP request), new context is returned.
+   * @return the context of the request
+   */
+  public static RequestContext get(final HttpServletRequest request) {
+    if (request == null) {
+      return new RequestContext(null);
+    }
+    
+    Object context = request.getAttribute(ATTRIBUTE);
+    if (context instanceof RequestContext) {
+      return (RequestContext) context;
+    }
+    
+    RequestContext newContext = new RequestContext(request);
+    request.setAttribute(ATTRIBUTE, newContext);
+    return newContext;
+  }
+  
+  /**
+   * Returns the context which isn't bound to any request
+   * @return new context
+   */
+  public static RequestContext create() {
+    return new RequestContext(null);
+  }
+  
+  /**
+   * Returns the user of the request
+   * @return the user of the request or null if the request doesn't contain the user
+   */
+  public synchronized ApplicationUser getUser() {
+    if (user == null && request != null) {
+      String userName = PermissionManager.getUserName(request);
+      if (userName != null && !userName.trim().isEmpty()) {
+        user = getUserManager().getUserByName(userName);
+      }
+    }
+    return user;
+  }
+  
+  /**
+   * Returns the URL of OSLC REST services based on JIRA base URL
+   * @return the URL of OSLC REST services
+   */
+  public synchronized String getRestUrl() {
+    if (restUrl == null) {
+      restUrl = ComponentAccessor.getApplicationProperties().getString(APKeys.JIRA_BASEURL) + JiraConstants.REST_URL;
+    }
+    return restUrl;
+  }
+  
+  /**
+   * Returns the OSLC REST URI of the issue
+   * @param issue JIRA issue
+   * @return the OSLC REST URI of the issue or null if the URI isn't valid
+   */
+  public URI getRestUriForIssue(final Issue issue) {
+    try {
+      return new URI(getRestUrl() + issue.getProjectId() + "/changeRequests/" + issue.getKey());
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+  
+  /**
+   * Returns the locale of the logged user
+   * @return the locale of the logged user
+   */
+  public synchronized Locale getLocale() {
+    if (locale == null) {
+      locale = ComponentAccessor.getJiraAuthenticationContext().getLocale();
+    }
+    return locale;
+  }
+  
+  /**
+   * Formats the due date of the issue
+   * @param date the due date
+   * @return the formatted due date
+   */
+  public synchronized String formatDueDate(final Date date) {
+    if (dueDateFormat == null) {
+      dueDateFormat = new SimpleDateFormat("d/MMM/yy");
+    }
+    return dueDateFormat.format(date);
+  }
+  
+  /**
+   * Returns the URI of the service provider of the project. It's resolved once for each project during the request.
+   * @param projectId the id of the project
+   * @return the URI of the service provider of the project
+   */
+  public synchronized URI getServiceProvider(final String projectId) {
+    URI serviceProvider = serviceProviders.get(projectId);
+    if (serviceProvider == null) {
+      serviceProvider = ServiceProviderCatalogSingleton.getServiceProvider(request, projectId).getAbout();
+      serviceProviders.put(projectId, serviceProvider);
+    }
+    return serviceProvider;
+  }
+  
+  /**
+   * Returns the relations of the issues of the page which were loaded at once
+   * @return the relations of the issues or null if they weren't loaded
+   */
+  public synchronized IssuePreloader getPreloader() {
+    return preloader;
+  }
+  
+  /**
+   * Sets the relations of the issues of the page which were loaded at once
+   * @param preloader the relations of the issues
+   */
+  public synchronized void setPreloader(IssuePreloader preloader) {
+    this.preloader = preloader;
+  }
+  
+  /**
+   * Returns the custom field for OSLC links (External Links)
+   * @return the custom field for OSLC links or null if it doesn't exist
+   */
+  public synchronized CustomField getOslcLinksField() {
+    if (!oslcLinksFieldResolved) {
+      oslcLinksField = getCustomFieldManager().getCustomFieldObjectByName(JiraConstants.OSLC_CUSTOM_FIELD_NAME);
+      oslcLinksFieldResolved = true;
+    }
+    return oslcLinksField;
+  }
+  
+  public synchronized CustomFieldManager getCustomFieldManager() {
+    if (customFieldManager == null) {
+      customFieldManager = ComponentAccessor.getCustomFieldManager();
+    }
+    return customFieldManager;
+  }
+  
+  public synchronized UserManager getUserManager() {
+    if (userManager == null) {
+      userManager = ComponentAccessor.getUserManager();
+    }
+    return userManager;
+  }
+  
+  public synchronized CommentManager getCommentManager() {
+    if (commentManager == null) {
+      commentManager = ComponentAccessor.getCommentManager();
+    }
+    return commentManager;
+  }
+  
+  public synchronized WorklogManager getWorklogManager() {
+    if (worklogManager == null) {
+      worklogManager = ComponentAccessor.getWorklogManager();
+    }
+    return worklogManager;
+  }
+  
+  public synchronized VoteManager getVoteManager() {
+    if (voteManager == null) {
+      voteManager = ComponentAccessor.getVoteManager();
+    }
+    return voteManager;
+  }
+  
+  public synchronized WatcherManager getWatcherManager() {
+    if (watcherManager == null) {
+      watcherManager = ComponentAccessor.getWatcherManager();
+    }
+    return watcherManager;
+  }
+  
+  public synchronized IssueLinkManager getIssueLinkManager() {
+    if (issueLinkManager == null) {
+      issueLinkManager = ComponentAccessor.getIssueLinkManager();
+    }
+    return issueLinkManager;
+  }
+  
+  public synchronized RemoteIssueLinkManager getRemoteIssueLinkManager() {
+    if (remoteIssueLinkManager == null) {
+      remoteIssueLinkManager = ComponentAccessor.getComponent(RemoteIssueLinkManager.class);
+    }
+    return remoteIssueLinkManager;
+  }
+}
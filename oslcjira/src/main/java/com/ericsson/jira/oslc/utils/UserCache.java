@@ -0,0 +1,78 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.user.util.UserManager;
+
+/**
+ * The users resolved by the keys stored in the database (e.g. the authors of the comments). 
+ * Each user is resolved once, so the cache is created for one page of the items 
+ * and it isn't shared between the requests.
+ *
+ */
+public class UserCache {
+  private final UserManager userManager;
+  private final Map<String, ApplicationUser> users = new HashMap<String, ApplicationUser>();
+  
+  /**
+   * Constructor
+   * @param userManager the manager which resolves the users
+   */
+  public UserCache(UserManager userManager) {
+    this.userManager = userManager;
+  }
+  
+  /**
+   * Returns the user by the key
+   * @param userKey the key of the user
+   * @return the user or null if the user doesn't exist
+   */
+  public ApplicationUser getUser(String userKey) {
+    if (userKey == null) {
+      return null;
+    }
+    if (!users.containsKey(userKey)) {
+      users.put(userKey, userManager.getUserByKey(userKey));
+    }
+    return users.get(userKey);
+  }
+  
+  /**
+   * Returns the name of the user
+   * @param userKey the key of the user
+   * @return the name of the user or the key if the user doesn't exist
+   */
+  public String getUserName(String userKey) {
+    ApplicationUser user = getUser(userKey);
+    return (user != null) ? user.getName() : userKey;
+  }
+}
@@ -0,0 +1,179 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import com.atlassian.jira.component.ComponentAccessor;
+import com.atlassian.jira.security.JiraAuthenticationContext;
+import com.atlassian.jira.user.ApplicationUser;
+import com.atlassian.jira.util.thread.JiraThreadLocalUtil;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.PluginConfig;
+
+/**
+ * The pool of the threads of the plugin which convert the issues to the change requests in parallel.
+ * The number of the threads is bounded (see {@link PluginConfig#getWorkerPoolSize()}), so JIRA's own threads 
+ * aren't starved. The idle threads are stopped after one minute. The task is executed with the authentication 
+ * context of the user who sent the request and with JIRA's thread local state, which is cleared after the task.
+ * The pool is the component of the plugin (see atlassian-plugin.xml). It's shut down when the plugin is disabled, 
+ * so no thread of the plugin survives the uninstallation or the upgrade of the plugin.
+ *
+ */
+public class WorkerPool implements DisposableBean {
+  private static Logger logger = LoggerFactory.getLogger(WorkerPool.class);
+  //JiraThreadLocalUtil logs the leaked thread local state by log4j
+  private static final org.apache.log4j.Logger threadLocalLogger = org.apache.log4j.Logger.getLogger(WorkerPool.class);
+  private static final String CURRENT_CLASS = "WorkerPool";
+  private static volatile WorkerPool instance = null;
+  
+  private final ThreadPoolExecutor executor;
+  //the configuration is read from PluginConfig once, then it's changed when the configuration is saved
+  private volatile boolean configured = false;
+  private volatile int requestParallelism = Math.min(Constants.DEFAULT_REQUEST_PARALLELISM, Constants.DEFAULT_WORKER_POOL_SIZE);
+  
+  /**
+   * Constructor. It's called when the component of the plugin is created.
+   */
+  public WorkerPool() {
+    final AtomicInteger threadNumber = new AtomicInteger(1);
+    ThreadFactory threadFactory = new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "jira-oslc-worker-" + threadNumber.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    
+    executor = new ThreadPoolExecutor(Constants.DEFAULT_WORKER_POOL_SIZE, Constants.DEFAULT_WORKER_POOL_SIZE, 
+        60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    instance = this;
+  }
+  
+  /**
+   * Returns the pool of the plugin
+   * @return the pool or null if the plugin component isn't created or it was already destroyed
+   */
+  public static WorkerPool getInstance() {
+    return instance;
+  }
+  
+  @Override
+  public void destroy() throws Exception {
+    if (instance == this) {
+      instance = null;
+    }
+    executor.shutdownNow();
+  }
+  
+  /**
+   * Returns the number of the issues of one request which can be converted at the same time
+   * @return the number of the issues of one request which can be converted at the same time, 
+   * 1 means the issues have to be converted one by one
+   */
+  public int getRequestParallelism() {
+    if (!configured) {
+      try {
+        PluginConfig config = PluginConfig.getInstance();
+        configure(config.getWorkerPoolSize(), config.getRequestParallelism());
+      } catch (Exception e) {
+        logger.error(CURRENT_CLASS + ".getRequestParallelism Exception: " + e.getMessage());
+        return 1;
+      }
+    }
+    return requestParallelism;
+  }
+  
+  /**
+   * Applies the configuration of the pool. It's called when the configuration of the plugin is saved.
+   * @param poolSize the number of the threads
+   * @param parallelism the number of the issues of one request which can be converted at the same time
+   */
+  public synchronized void configure(int poolSize, int parallelism) {
+    resize(poolSize);
+    requestParallelism = Math.min(parallelism, poolSize);
+    configured = true;
+  }
+  
+  /**
+   * Submits the task which is executed with the authentication context of the user. JIRA's thread local
+   * state (e.g. the request caches) is set up before the task and cleared after it.
+   * @param user the user who sent the request
+   * @param task the task
+   * @return the result of the task
+   */
+  public <T> Future<T> submit(final ApplicationUser user, final Callable<T> task) {
+    return executor.submit(new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        JiraThreadLocalUtil threadLocalUtil = ComponentAccessor.getComponent(JiraThreadLocalUtil.class);
+        threadLocalUtil.preCall();
+        try {
+          JiraAuthenticationContext authenticationContext = ComponentAccessor.getJiraAuthenticationContext();
+          authenticationContext.setLoggedInUser(user);
+          try {
+            return task.call();
+          } finally {
+            authenticationContext.setLoggedInUser((ApplicationUser) null);
+          }
+        } finally {
+          threadLocalUtil.postCall(threadLocalLogger);
+        }
+      }
+    });
+  }
+  
+  /**
+   * Changes the number of the threads of the pool
+   * @param poolSize the number of the threads
+   */
+  private synchronized void resize(int poolSize) {
+    if (poolSize == executor.getMaximumPoolSize()) {
+      return;
+    }
+    if (poolSize > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(poolSize);
+      executor.setCorePoolSize(poolSize);
+    } else {
+      executor.setCorePoolSize(poolSize);
+      executor.setMaximumPoolSize(poolSize);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package com.ericsson.jira.oslc.managers;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.eclipse.lyo.core.query.QueryUtils;
+import org.eclipse.lyo.core.query.SimpleTerm;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.atlassian.jira.jql.builder.JqlClauseBuilder;
+import com.atlassian.query.clause.Clause;
+import com.atlassian.query.clause.OrClause;
+import com.atlassian.query.clause.TerminalClause;
+import com.atlassian.query.operand.EmptyOperand;
+import com.atlassian.query.operand.MultiValueOperand;
+import com.atlassian.query.operand.SingleValueOperand;
+import com.atlassian.query.operator.Operator;
+import com.ericsson.jira.oslc.Constants;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+import com.ericsson.jira.oslc.resources.JiraChangeRequest;
+
+public class QueryManagerTest {
+  private static final String JQL_DATE_FORMAT = "yyyy/MM/dd HH:mm";
+  private static final long MINUTE_IN_MILLIS = 60L * 1000;
+  private static final long DAY_IN_MILLIS = 24L * 60 * MINUTE_IN_MILLIS;
+  
+  private Map<String, String> prefixMap;
+  private JqlClauseBuilder where;
+  
+  @Before
+  public void setUp() {
+    prefixMap = new HashMap<String, String>();
+    prefixMap.put("jira", Constants.JIRA_NAMESPACE);
+    prefixMap.put("dcterms", OslcConstants.DCTERMS_NAMESPACE);
+    prefixMap.put("xsd", "http://www.w3.org/2001/XMLSchema#");
+    
+    where = mock(JqlClauseBuilder.class);
+    when(where.and()).thenReturn(where);
+  }
+  
+  @Test
+  public void optionIsTranslatedById() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:issueStatus=\"3\""), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("status", clause.getName());
+    assertEquals(Operator.EQUALS, clause.getOperator());
+    assertEquals(Long.valueOf(3), ((SingleValueOperand) clause.getOperand()).getLongValue());
+  }
+  
+  @Test
+  public void optionIsTranslatedByUri() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:priority=<http://localhost/rest/jirarest/priority/2/>"), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("priority", clause.getName());
+    assertEquals(Long.valueOf(2), ((SingleValueOperand) clause.getOperand()).getLongValue());
+  }
+  
+  @Test
+  public void optionIsTranslatedByName() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:issuePriority!=\"Major\""), where));
+    
+    List<Clause> clauses = captureOrClause().getClauses();
+    assertEquals(2, clauses.size());
+    TerminalClause notEquals = (TerminalClause) clauses.get(0);
+    assertEquals("priority", notEquals.getName());
+    assertEquals(Operator.NOT_EQUALS, notEquals.getOperator());
+    assertEquals("Major", ((SingleValueOperand) notEquals.getOperand()).getStringValue());
+    assertEmptyClause("priority", clauses.get(1));
+  }
+  
+  @Test
+  public void requiredOptionInequalityIsTranslated() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:issueType!=\"Bug\""), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("issuetype", clause.getName());
+    assertEquals(Operator.NOT_EQUALS, clause.getOperator());
+    assertEquals("Bug", ((SingleValueOperand) clause.getOperand()).getStringValue());
+  }
+  
+  @Test
+  public void inequalitySelectsUnassignedIssues() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:assignee!=\"admin\""), where));
+    
+    List<Clause> clauses = captureOrClause().getClauses();
+    assertEquals(2, clauses.size());
+    assertEquals(Operator.NOT_EQUALS, ((TerminalClause) clauses.get(0)).getOperator());
+    assertEmptyClause("assignee", clauses.get(1));
+  }
+  
+  @Test
+  public void inTermIsTranslated() throws Exception {
+    assertTrue(QueryManager.translateTerm(parseTerm("jira:issueStatus in [\"1\",\"2\"]"), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("status", clause.getName());
+    assertEquals(Operator.IN, clause.getOperator());
+    assertEquals(2, ((MultiValueOperand) clause.getOperand()).getValues().size());
+  }
+  
+  @Test
+  public void textIsSearchedAsPhraseAndEvaluatedInMemory() throws Exception {
+    assertFalse(QueryManager.translateTerm(parseTerm("dcterms:title=\"Say hello\""), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("summary", clause.getName());
+    assertEquals(Operator.LIKE, clause.getOperator());
+    assertEquals("\"Say hello\"", ((SingleValueOperand) clause.getOperand()).getStringValue());
+  }
+  
+  @Test
+  public void multiValueInequalityIsEvaluatedInMemory() throws Exception {
+    assertFalse(QueryManager.translateTerm(parseTerm("jira:component!=\"UI\""), where));
+    verify(where, never()).addClause(any(Clause.class));
+  }
+  
+  @Test
+  public void propertyWithoutJiraFieldIsEvaluatedInMemory() throws Exception {
+    assertFalse(QueryManager.translateTerm(parseTerm("dcterms:description=\"text\""), where));
+    verify(where, never()).addClause(any(Clause.class));
+  }
+  
+  @Test(expected = QueryException.class)
+  public void unknownPropertyIsRejected() throws Exception {
+    QueryManager.translateTerm(parseTerm("jira:unknownProperty=\"1\""), where);
+  }
+  
+  @Test
+  public void dateLowerBoundIsWidened() throws Exception {
+    String date = "2015-03-10T12:30:45Z";
+    assertFalse(QueryManager.translateTerm(parseTerm("dcterms:created>=\"" + date + "\"^^xsd:dateTime"), where));
+    
+    TerminalClause clause = captureClauses(1).get(0);
+    assertEquals("created", clause.getName());
+    assertEquals(Operator.GREATER_THAN_EQUALS, clause.getOperator());
+    assertEquals(formatJqlDate(truncateToMinute(date) - DAY_IN_MILLIS), ((SingleValueOperand) clause.getOperand()).getStringValue());
+  }
+  
+  @Test
+  public void dateEqualityIsTranslatedToRange() throws Exception {
+    String date = "2015-03-10T12:30:45Z";
+    assertFalse(QueryManager.translateTerm(parseTerm("dcterms:modified=\"" + date + "\"^^xsd:dateTime"), where));
+    
+    List<TerminalClause> clauses = captureClauses(2);
+    assertEquals("updated", clauses.get(0).getName());
+    assertEquals(Operator.GREATER_THAN_EQUALS, clauses.get(0).getOperator());
+    assertEquals(formatJqlDate(truncateToMinute(date) - DAY_IN_MILLIS), ((SingleValueOperand) clauses.get(0).getOperand()).getStringValue());
+    assertEquals(Operator.LESS_THAN, clauses.get(1).getOperator());
+    assertEquals(formatJqlDate(truncateToMinute(date) + MINUTE_IN_MILLIS + DAY_IN_MILLIS), ((SingleValueOperand) clauses.get(1).getOperand()).getStringValue());
+  }
+  
+  @Test(expected = QueryException.class)
+  public void invalidDateIsRejected() throws Exception {
+    QueryManager.translateTerm(parseTerm("dcterms:created>\"yesterday\""), where);
+  }
+  
+  @Test
+  public void residualTermsAreMatched() throws Exception {
+    JiraChangeRequest changeRequest = new JiraChangeRequest();
+    changeRequest.setTitle("Say hello");
+    changeRequest.setCreated(DatatypeConverter.parseDateTime("2015-03-10T12:30:45Z").getTime());
+    changeRequest.setComponents(Arrays.asList("UI", "Backend"));
+    
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("dcterms:title=\"Say hello\"")));
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("dcterms:title=\"Say\"")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("dcterms:title!=\"Say\"")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("dcterms:created>\"2015-03-10T12:30:44Z\"^^xsd:dateTime")));
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("dcterms:created>\"2015-03-10T12:30:45Z\"^^xsd:dateTime")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("jira:component=\"Backend\"")));
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("jira:component!=\"Backend\"")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("jira:component in [\"DB\",\"UI\"]")));
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("dcterms:title=\"Say hello\" and jira:component=\"DB\"")));
+  }
+  
+  @Test
+  public void missingValueMatchesOnlyInequality() throws Exception {
+    JiraChangeRequest changeRequest = new JiraChangeRequest();
+    
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("jira:component=\"UI\"")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("jira:component!=\"UI\"")));
+  }
+  
+  @Test
+  public void unassignedIssueMatchesOnlyInequality() throws Exception {
+    JiraChangeRequest changeRequest = new JiraChangeRequest();
+    
+    assertFalse(QueryManager.matches(changeRequest, parseTerms("jira:assignee=\"admin\"")));
+    assertTrue(QueryManager.matches(changeRequest, parseTerms("jira:assignee!=\"admin\"")));
+  }
+  
+  private List<SimpleTerm> parseTerms(String whereClause) throws Exception {
+    return QueryUtils.parseWhere(whereClause, prefixMap).children();
+  }
+  
+  private SimpleTerm parseTerm(String whereClause) throws Exception {
+    return parseTerms(whereClause).get(0);
+  }
+  
+  private List<TerminalClause> captureClauses(int count) {
+    ArgumentCaptor<TerminalClause> captor = ArgumentCaptor.forClass(TerminalClause.class);
+    verify(where, times(count)).addClause(captor.capture());
+    return captor.getAllValues();
+  }
+  
+  private OrClause captureOrClause() {
+    ArgumentCaptor<OrClause> captor = ArgumentCaptor.forClass(OrClause.class);
+    verify(where, times(1)).addClause(captor.capture());
+    return captor.getValue();
+  }
+  
+  private static void assertEmptyClause(String fieldName, Clause clause) {
+    TerminalClause empty = (TerminalClause) clause;
+    assertEquals(fieldName, empty.getName());
+    assertEquals(Operator.IS, empty.getOperator());
+    assertTrue(empty.getOperand() instanceof EmptyOperand);
+  }
+  
+  private static long truncateToMinute(String date) {
+    long time = DatatypeConverter.parseDateTime(date).getTimeInMillis();
+    return time - (time % MINUTE_IN_MILLIS);
+  }
+  
+  private static String formatJqlDate(long time) {
+    return new SimpleDateFormat(JQL_DATE_FORMAT).format(new Date(time));
+  }
+}
@@ -0,0 +1,101 @@
+package com.ericsson.jira.oslc.resources;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ericsson.jira.oslc.Constants;
+
+public class ChangeRequestProjectionTest {
+  private Map<String, String> prefixMap;
+  private Map<String, Integer> limits;
+  
+  @Before
+  public void setUp() {
+    prefixMap = new HashMap<String, String>();
+    prefixMap.put("jira", Constants.JIRA_NAMESPACE);
+    prefixMap.put("dcterms", OslcConstants.DCTERMS_NAMESPACE);
+    limits = new HashMap<String, Integer>();
+  }
+  
+  @Test
+  public void nullSelectionIsKept() {
+    assertNull(ChangeRequestProjection.extractLimits(null, prefixMap, limits));
+    assertTrue(limits.isEmpty());
+  }
+  
+  @Test
+  public void selectionWithoutLimitsIsKept() {
+    String selection = "dcterms:title,jira:issueComment{jira:commentBody}";
+    assertEquals(selection, ChangeRequestProjection.extractLimits(selection, prefixMap, limits));
+    assertTrue(limits.isEmpty());
+  }
+  
+  @Test
+  public void limitsAreExtracted() {
+    String selection = ChangeRequestProjection.extractLimits("dcterms:title,jira:issueComment{5},jira:issueWorklog{ 2 }", prefixMap, limits);
+    assertEquals("dcterms:title,jira:issueComment,jira:issueWorklog", selection);
+    assertEquals(2, limits.size());
+    assertEquals(Integer.valueOf(5), limits.get(Constants.JIRA_TYPE_COMMENT));
+    assertEquals(Integer.valueOf(2), limits.get(Constants.JIRA_TYPE_WORKLOG));
+  }
+  
+  @Test
+  public void tooBigLimitMeansNoLimit() {
+    String selection = ChangeRequestProjection.extractLimits("jira:issueComment{99999999999}", prefixMap, limits);
+    assertEquals("jira:issueComment", selection);
+    assertEquals(Integer.valueOf(Integer.MAX_VALUE), limits.get(Constants.JIRA_TYPE_COMMENT));
+  }
+  
+  @Test
+  public void limitWithUnknownPrefixIsKept() {
+    String selection = ChangeRequestProjection.extractLimits("foo:items{3},jira:issueComment{1}", prefixMap, limits);
+    assertEquals("foo:items{3},jira:issueComment", selection);
+    assertEquals(1, limits.size());
+    assertEquals(Integer.valueOf(1), limits.get(Constants.JIRA_TYPE_COMMENT));
+  }
+  
+  @Test
+  public void extractedLimitsAreApplied() {
+    String selection = ChangeRequestProjection.extractLimits("jira:issueComment{5}", prefixMap, limits);
+    Map<String, Object> selected = new HashMap<String, Object>();
+    selected.put(Constants.JIRA_TYPE_COMMENT, new HashMap<String, Object>());
+    ChangeRequestProjection projection = ChangeRequestProjection.fromSelectedProperties(selected).withLimits(limits);
+    assertEquals(5, projection.getLimit(Constants.JIRA_TYPE_COMMENT));
+    assertEquals(-1, projection.getLimit(Constants.JIRA_TYPE_WORKLOG));
+  }
+}
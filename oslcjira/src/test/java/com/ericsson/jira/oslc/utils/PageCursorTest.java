@@ -0,0 +1,87 @@
+package com.ericsson.jira.oslc.utils;
+
+/*
+* Copyright (C) 2015 Ericsson AB. All rights reserved.
+*
+* Redistribution and use in source and binary forms, with or without
+* modification, are permitted provided that the following conditions
+* are met:
+*
+* 1. Redistributions of source code must retain the above copyright
+*    notice, this list of conditions and the following disclaimer.
+* 2. Redistributions in binary form must reproduce the above copyright
+*    notice, this list of conditions and the following disclaimer
+*    in the documentation and/or other materials provided with the
+*    distribution.
+*
+* THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+* "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+* LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+* A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+* OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+* SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+* LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+* DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+* OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Test;
+
+import com.atlassian.jira.issue.Issue;
+import com.ericsson.jira.oslc.exceptions.QueryException;
+
+public class PageCursorTest {
+  
+  @Test
+  public void encodedCursorIsDecoded() throws Exception {
+    PageCursor cursor = PageCursor.decode(new PageCursor(42L, 10042L).encode());
+    assertEquals(42L, cursor.getKeyNumber());
+    assertEquals(10042L, cursor.getIssueId());
+  }
+  
+  @Test
+  public void tokenWithWhitespaceIsDecoded() throws Exception {
+    PageCursor cursor = PageCursor.decode(" " + new PageCursor(7L, 3L).encode() + "\n");
+    assertEquals(7L, cursor.getKeyNumber());
+    assertEquals(3L, cursor.getIssueId());
+  }
+  
+  @Test
+  public void cursorIsCreatedFromIssue() {
+    Issue issue = mock(Issue.class);
+    when(issue.getKey()).thenReturn("MY-PRJ-123");
+    when(issue.getId()).thenReturn(10123L);
+    
+    PageCursor cursor = PageCursor.fromIssue(issue);
+    assertEquals(123L, cursor.getKeyNumber());
+    assertEquals(10123L, cursor.getIssueId());
+  }
+  
+  @Test(expected = QueryException.class)
+  public void tokenWhichIsNotBase64IsRejected() throws Exception {
+    PageCursor.decode("not a token!");
+  }
+  
+  @Test(expected = QueryException.class)
+  public void tokenWithOtherVersionIsRejected() throws Exception {
+    PageCursor.decode(DatatypeConverter.printBase64Binary("2:42:10042".getBytes("UTF-8")));
+  }
+  
+  @Test(expected = QueryException.class)
+  public void tokenWithoutNumbersIsRejected() throws Exception {
+    PageCursor.decode(DatatypeConverter.printBase64Binary("1:a:b".getBytes("UTF-8")));
+  }
+  
+  @Test(expected = QueryException.class)
+  public void tokenWithMissingPartIsRejected() throws Exception {
+    PageCursor.decode(DatatypeConverter.printBase64Binary("1:42".getBytes("UTF-8")));
+  }
+}